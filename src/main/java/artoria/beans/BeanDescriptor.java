@@ -0,0 +1,157 @@
+package artoria.beans;
+
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
+import artoria.reflect.Getter;
+import artoria.reflect.ReflectUtils;
+import artoria.reflect.Setter;
+import artoria.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The properties of a bean class, it is resolved only once for each class.
+ * The accessors of the properties are also kept, so they are looked up only once.
+ * The classes are weakly referenced and the descriptors are softly referenced.
+ * A descriptor strongly references its class (and the methods of the class),
+ * so the class can not be unloaded until the descriptor is cleared when the memory is tight.
+ * @author Kahle
+ */
+public class BeanDescriptor {
+    private static final ConcurrentMap<Class<?>, BeanDescriptor> DESCRIPTORS =
+            new ConcurrentReferenceMap<Class<?>, BeanDescriptor>(ReferenceMap.Type.WEAK, ReferenceMap.Type.SOFT);
+    private final Map<String, Property> propertyMap;
+    private final Set<String> readableNames;
+    private final Property[] properties;
+    private final Class<?> beanClass;
+
+    private BeanDescriptor(Class<?> beanClass) {
+        Map<String, Method> readMethods = ReflectUtils.findReadMethods(beanClass);
+        Map<String, Method> writeMethods = ReflectUtils.findWriteMethods(beanClass);
+        Set<String> names = new LinkedHashSet<String>(readMethods.keySet());
+        names.addAll(writeMethods.keySet());
+        Map<String, Property> propertyMap = new HashMap<String, Property>(names.size() * 2);
+        List<Property> properties = new ArrayList<Property>(names.size());
+        for (String name : names) {
+            Property property = new Property(properties.size()
+                    , name, readMethods.get(name), writeMethods.get(name));
+            propertyMap.put(name, property);
+            properties.add(property);
+        }
+        this.readableNames = Collections.unmodifiableSet(new LinkedHashSet<String>(readMethods.keySet()));
+        this.properties = properties.toArray(new Property[properties.size()]);
+        this.propertyMap = propertyMap;
+        this.beanClass = beanClass;
+    }
+
+    public static BeanDescriptor forClass(Class<?> beanClass) {
+        Assert.notNull(beanClass, "Parameter \"beanClass\" must not null. ");
+        BeanDescriptor descriptor = DESCRIPTORS.get(beanClass);
+        if (descriptor != null) { return descriptor; }
+        descriptor = new BeanDescriptor(beanClass);
+        BeanDescriptor old = DESCRIPTORS.putIfAbsent(beanClass, descriptor);
+        return old != null ? old : descriptor;
+    }
+
+    public Class<?> getBeanClass() {
+
+        return beanClass;
+    }
+
+    /**
+     * Get all the properties, the index of each property is its position in the array.
+     * @return The properties (do not modify it)
+     */
+    public Property[] getProperties() {
+
+        return properties;
+    }
+
+    public Property getProperty(String name) {
+
+        return propertyMap.get(name);
+    }
+
+    /**
+     * Get the names of the properties which have read methods.
+     * @return The unmodifiable set of the readable property names
+     */
+    public Set<String> getReadableNames() {
+
+        return readableNames;
+    }
+
+    public static class Property {
+        private final Class<?> writeType;
+        private final Method writeMethod;
+        private final Method readMethod;
+        private final String name;
+        private final int index;
+        private volatile Getter<Object, Object> getter;
+        private volatile Setter<Object, Object> setter;
+
+        private Property(int index, String name, Method readMethod, Method writeMethod) {
+            Class<?>[] types = writeMethod != null ? writeMethod.getParameterTypes() : null;
+            this.writeType = types != null && types.length == 1 ? types[0] : null;
+            this.writeMethod = writeMethod;
+            this.readMethod = readMethod;
+            this.index = index;
+            this.name = name;
+        }
+
+        public int getIndex() {
+
+            return index;
+        }
+
+        public String getName() {
+
+            return name;
+        }
+
+        public Method getReadMethod() {
+
+            return readMethod;
+        }
+
+        public Method getWriteMethod() {
+
+            return writeMethod;
+        }
+
+        /**
+         * Get the accessor of the read method, it is created on the first call.
+         * @return The getter or null if the property is not readable
+         */
+        public Getter<Object, Object> getGetter() {
+            if (getter == null && readMethod != null) {
+                getter = ReflectUtils.findGetter(readMethod);
+            }
+            return getter;
+        }
+
+        /**
+         * Get the accessor of the write method, it is created on the first call.
+         * @return The setter or null if the property is not writable
+         */
+        public Setter<Object, Object> getSetter() {
+            if (setter == null && writeType != null) {
+                setter = ReflectUtils.findSetter(writeMethod);
+            }
+            return setter;
+        }
+
+        /**
+         * Get the parameter type of the write method.
+         * @return The type or null if the property is not writable
+         */
+        public Class<?> getWriteType() {
+
+            return writeType;
+        }
+
+    }
+
+}
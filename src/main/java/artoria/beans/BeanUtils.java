@@ -63,7 +63,10 @@ public class BeanUtils {
 
     public static BeanMap createBeanMap() {
         try {
-            BeanMap beanMap = ReflectUtils.newInstance(getMapType());
+            Class<? extends BeanMap> mapType = getMapType();
+            // Avoid the reflection for the default bean map.
+            BeanMap beanMap = mapType == SimpleBeanMap.class
+                    ? new SimpleBeanMap() : ReflectUtils.newInstance(mapType);
             beanMap.setTypeConverter(CONVERTER_AGENT);
             return beanMap;
         }
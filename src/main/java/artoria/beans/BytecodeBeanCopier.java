@@ -0,0 +1,207 @@
+package artoria.beans;
+
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
+import artoria.convert.TypeConverter;
+import artoria.exception.ExceptionUtils;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.reflect.ClassFileWriter;
+import artoria.reflect.ReflectUtils;
+import artoria.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bean copier which generates a copier class for each pair of source and target class.
+ * The properties whose types already match are copied by the generated class
+ * with plain getter and setter calls (no reflection and no type conversion),
+ * the others are still converted and copied by reflection.
+ * Unlike {@link SimpleBeanCopier}, the converter is only applied to the properties whose types do not match,
+ * so a converter which changes the values of the same type has no effect on the matched properties.
+ * The classes which are not public are copied totally by reflection.
+ * The plans are kept by the weak keys and the soft values (the plan references the classes),
+ * so they are cleared when the memory is tight and then the classes can be unloaded.
+ * @author Kahle
+ */
+public class BytecodeBeanCopier implements BeanCopier {
+    private static final String GENERATED_CLASS_NAME = "artoria.beans.GeneratedPropertyCopier$$";
+    private static final AtomicInteger GENERATED_COUNTER = new AtomicInteger();
+    private static Logger log = LoggerFactory.getLogger(BytecodeBeanCopier.class);
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, CopyPlan>> plans =
+            new ConcurrentReferenceMap<Class<?>, ConcurrentMap<Class<?>, CopyPlan>>(ReferenceMap.Type.WEAK, ReferenceMap.Type.SOFT);
+    private Boolean ignoreException = true;
+
+    public Boolean getIgnoreException() {
+
+        return ignoreException;
+    }
+
+    public void setIgnoreException(Boolean ignoreException) {
+        Assert.notNull(ignoreException, "Parameter \"ignoreException\" must not null. ");
+        this.ignoreException = ignoreException;
+    }
+
+    private static boolean isMatched(Class<?> sourceType, Class<?> targetType) {
+        if (targetType.isPrimitive()) {
+            return targetType.equals(sourceType);
+        }
+        return targetType.isAssignableFrom(sourceType);
+    }
+
+    private CopyPlan getPlan(Class<?> fromClass, Class<?> toClass) {
+        ConcurrentMap<Class<?>, CopyPlan> toPlans = plans.get(fromClass);
+        if (toPlans == null) {
+            toPlans = new ConcurrentReferenceMap<Class<?>, CopyPlan>(ReferenceMap.Type.WEAK, ReferenceMap.Type.SOFT);
+            ConcurrentMap<Class<?>, CopyPlan> old = plans.putIfAbsent(fromClass, toPlans);
+            if (old != null) { toPlans = old; }
+        }
+        CopyPlan plan = toPlans.get(toClass);
+        if (plan != null) { return plan; }
+        plan = createPlan(fromClass, toClass);
+        CopyPlan old = toPlans.putIfAbsent(toClass, plan);
+        return old != null ? old : plan;
+    }
+
+    private CopyPlan createPlan(Class<?> fromClass, Class<?> toClass) {
+        Map<String, Method> fromMths = ReflectUtils.findReadMethods(fromClass);
+        Map<String, Method> toMths = ReflectUtils.findWriteMethods(toClass);
+        List<Method[]> matched = new ArrayList<Method[]>();
+        List<Method[]> converted = new ArrayList<Method[]>();
+        for (Map.Entry<String, Method> entry : fromMths.entrySet()) {
+            Method destMth = toMths.get(entry.getKey());
+            if (destMth == null) { continue; }
+            Method srcMth = entry.getValue();
+            Class<?>[] types = destMth.getParameterTypes();
+            if (types.length != 1) { continue; }
+            Method[] pair = new Method[] { srcMth, destMth };
+            if (isMatched(srcMth.getReturnType(), types[0])) {
+                matched.add(pair);
+            }
+            else {
+                converted.add(pair);
+            }
+        }
+        PropertyCopier copier = null;
+        boolean accessible = Modifier.isPublic(fromClass.getModifiers())
+                && Modifier.isPublic(toClass.getModifiers());
+        if (accessible && !matched.isEmpty()) {
+            try {
+                copier = generate(fromClass, toClass, matched);
+            }
+            catch (Exception e) {
+                log.debug("Failed to generate the copier from \"" + fromClass.getName()
+                        + "\" to \"" + toClass.getName() + "\". ", e);
+            }
+        }
+        if (copier == null) {
+            converted.addAll(matched);
+            matched.clear();
+        }
+        return new CopyPlan(copier, matched, converted);
+    }
+
+    private PropertyCopier generate(Class<?> fromClass, Class<?> toClass, List<Method[]> matched) throws Exception {
+        String className = GENERATED_CLASS_NAME + GENERATED_COUNTER.incrementAndGet();
+        ClassFileWriter writer = new ClassFileWriter(className, Object.class, PropertyCopier.class);
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        for (Method[] property : matched) {
+            // ((To) to).setXxx(((From) from).getXxx());
+            code.writeByte(ClassFileWriter.ALOAD_2);
+            writer.unboxOrCast(code, toClass);
+            code.writeByte(ClassFileWriter.ALOAD_1);
+            writer.unboxOrCast(code, fromClass);
+            writer.invoke(code, fromClass, property[0]);
+            writer.invoke(code, toClass, property[1]);
+            int returnSize = ClassFileWriter.sizeOf(property[1].getReturnType());
+            if (returnSize == 1) { code.writeByte(ClassFileWriter.POP); }
+            if (returnSize == 2) { code.writeByte(ClassFileWriter.POP2); }
+        }
+        code.writeByte(ClassFileWriter.RETURN);
+        writer.addMethod("copy", "(Ljava/lang/Object;Ljava/lang/Object;)V", 3, 3, codeBytes.toByteArray());
+        Class<?> clazz = ClassFileWriter.defineClass(className, writer.toByteArray(), fromClass, toClass);
+        return (PropertyCopier) clazz.newInstance();
+    }
+
+    private void copyByReflection(Object from, Object to, TypeConverter converter, List<Method[]> properties) {
+        for (Method[] property : properties) {
+            Method srcMth = property[0];
+            Method destMth = property[1];
+            Class<?> type = destMth.getParameterTypes()[0];
+            try {
+                Object input = srcMth.invoke(from);
+                if (input == null && type.isPrimitive()) {
+                    throw new NullPointerException();
+                }
+                if (converter != null) {
+                    input = converter.convert(input, type);
+                }
+                destMth.invoke(to, input);
+            }
+            catch (Exception e) {
+                if (ignoreException) {
+                    log.debug("Execution \"copy\" error. ", e);
+                }
+                else {
+                    throw ExceptionUtils.wrap(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void copy(Object from, Object to, TypeConverter converter) {
+        Assert.notNull(from, "Parameter \"from\" must is not null. ");
+        Assert.notNull(to, "Parameter \"to\" must is not null. ");
+        CopyPlan plan = getPlan(from.getClass(), to.getClass());
+        if (plan.copier != null) {
+            try {
+                plan.copier.copy(from, to);
+            }
+            catch (Exception e) {
+                if (!ignoreException) { throw ExceptionUtils.wrap(e); }
+                // Copy them one by one, so only the failed properties are skipped.
+                copyByReflection(from, to, null, plan.matched);
+            }
+        }
+        copyByReflection(from, to, converter, plan.converted);
+    }
+
+    /**
+     * The interface of the generated copier classes,
+     * it is public because the generated classes are in another class loader.
+     */
+    public interface PropertyCopier {
+
+        /**
+         * Copy the properties whose types are matched.
+         * @param from The bean will be copied
+         * @param to The bean will be given
+         */
+        void copy(Object from, Object to);
+
+    }
+
+    private static class CopyPlan {
+        private final PropertyCopier copier;
+        private final List<Method[]> matched;
+        private final List<Method[]> converted;
+
+        private CopyPlan(PropertyCopier copier, List<Method[]> matched, List<Method[]> converted) {
+            this.converted = converted;
+            this.matched = matched;
+            this.copier = copier;
+        }
+
+    }
+
+}
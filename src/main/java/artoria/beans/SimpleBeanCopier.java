@@ -4,14 +4,10 @@ import artoria.convert.TypeConverter;
 import artoria.exception.ExceptionUtils;
 import artoria.logging.Logger;
 import artoria.logging.LoggerFactory;
-import artoria.reflect.ReflectUtils;
-import artoria.util.ArrayUtils;
+import artoria.reflect.Getter;
+import artoria.reflect.Setter;
 import artoria.util.Assert;
 
-import java.lang.reflect.Method;
-import java.util.Map;
-
-import static artoria.common.Constants.ZERO;
 
 /**
  * Bean copier simple implement by jdk.
@@ -36,27 +32,25 @@ public class SimpleBeanCopier implements BeanCopier {
         Assert.notNull(from, "Parameter \"from\" must is not null. ");
         Assert.notNull(to, "Parameter \"to\" must is not null. ");
         boolean hasCvt = converter != null;
-        Class<?> fromClass = from.getClass();
-        Class<?> toClass = to.getClass();
-        Map<String, Method> fromMths = ReflectUtils.findReadMethods(fromClass);
-        Map<String, Method> toMths = ReflectUtils.findWriteMethods(toClass);
-        for (Map.Entry<String, Method> entry : fromMths.entrySet()) {
-            String name = entry.getKey();
-            Method destMth = toMths.get(name);
-            if (destMth == null) { continue; }
-            Method srcMth = entry.getValue();
-            Class<?>[] types = destMth.getParameterTypes();
+        BeanDescriptor fromDescriptor = BeanDescriptor.forClass(from.getClass());
+        BeanDescriptor toDescriptor = BeanDescriptor.forClass(to.getClass());
+        for (BeanDescriptor.Property fromProperty : fromDescriptor.getProperties()) {
+            Getter<Object, Object> getter = fromProperty.getGetter();
+            if (getter == null) { continue; }
+            BeanDescriptor.Property toProperty = toDescriptor.getProperty(fromProperty.getName());
+            Setter<Object, Object> setter = toProperty != null ? toProperty.getSetter() : null;
+            if (setter == null) { continue; }
+            Class<?> type = toProperty.getWriteType();
             try {
-                boolean haveType = ArrayUtils.isNotEmpty(types);
-                Object input = srcMth.invoke(from);
-                if (input == null && haveType
-                        && types[ZERO].isPrimitive()) {
+                boolean haveType = type != null;
+                Object input = getter.get(from);
+                if (input == null && haveType && type.isPrimitive()) {
                     throw new NullPointerException();
                 }
                 if (hasCvt && haveType) {
-                    input = converter.convert(input, types[ZERO]);
+                    input = converter.convert(input, type);
                 }
-                destMth.invoke(to, input);
+                setter.set(to, input);
             }
             catch (Exception e) {
                 if (ignoreException) {
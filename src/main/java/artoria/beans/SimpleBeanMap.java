@@ -4,16 +4,13 @@ import artoria.convert.TypeConverter;
 import artoria.exception.ExceptionUtils;
 import artoria.logging.Logger;
 import artoria.logging.LoggerFactory;
-import artoria.reflect.ReflectUtils;
-import artoria.util.ArrayUtils;
+import artoria.reflect.Getter;
+import artoria.reflect.Setter;
 import artoria.util.Assert;
 import artoria.util.ObjectUtils;
 import artoria.util.StringUtils;
 
-import java.lang.reflect.Method;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import static artoria.common.Constants.*;
@@ -24,10 +21,8 @@ import static artoria.common.Constants.*;
  */
 public class SimpleBeanMap extends BeanMap {
     private static Logger log = LoggerFactory.getLogger(SimpleBeanMap.class);
-    private Map<String, Method> readMethods = new HashMap<String, Method>();
-    private Map<String, Method> writeMethods = new HashMap<String, Method>();
     private Boolean ignoreException = true;
-    private Class<?> beanClass;
+    private BeanDescriptor descriptor;
 
     public SimpleBeanMap() {
     }
@@ -50,12 +45,10 @@ public class SimpleBeanMap extends BeanMap {
     @Override
     public void setBean(Object bean) {
         super.setBean(bean);
-        if (beanClass != null && beanClass.equals(bean.getClass())) {
+        if (descriptor != null && descriptor.getBeanClass().equals(bean.getClass())) {
             return;
         }
-        beanClass = bean.getClass();
-        readMethods.putAll(ReflectUtils.findReadMethods(beanClass));
-        writeMethods.putAll(ReflectUtils.findWriteMethods(beanClass));
+        descriptor = BeanDescriptor.forClass(bean.getClass());
     }
 
     @Override
@@ -66,10 +59,11 @@ public class SimpleBeanMap extends BeanMap {
             keyString = keyString.substring(THREE);
             keyString = StringUtils.uncapitalize(keyString);
         }
-        Method method = readMethods.get(keyString);
-        if (method == null) { return null; }
+        BeanDescriptor.Property property = descriptor != null ? descriptor.getProperty(keyString) : null;
+        Getter<Object, Object> getter = property != null ? property.getGetter() : null;
+        if (getter == null) { return null; }
         try {
-            return method.invoke(bean);
+            return getter.get(bean);
         }
         catch (Exception e) {
             if (ignoreException) {
@@ -90,22 +84,23 @@ public class SimpleBeanMap extends BeanMap {
             keyString = keyString.substring(THREE);
             keyString = StringUtils.uncapitalize(keyString);
         }
-        Method method = writeMethods.get(keyString);
-        if (method == null) { return null; }
-        Class<?>[] types = method.getParameterTypes();
+        BeanDescriptor.Property property = descriptor != null ? descriptor.getProperty(keyString) : null;
+        Setter<Object, Object> setter = property != null ? property.getSetter() : null;
+        if (setter == null) { return null; }
+        Class<?> type = property.getWriteType();
         TypeConverter cvt = getTypeConverter();
         try {
-            boolean haveType = ArrayUtils.isNotEmpty(types);
-            if (value == null && haveType
-                    && types[ZERO].isPrimitive()) {
+            boolean haveType = type != null;
+            if (value == null && haveType && type.isPrimitive()) {
                 throw new NullPointerException();
             }
             if (cvt != null && haveType) {
-                value = cvt.convert(value, types[ZERO]);
+                value = cvt.convert(value, type);
             }
             // The return always null.
             // If want not null, must invoke getter first.
-            return method.invoke(bean, value);
+            setter.set(bean, value);
+            return null;
         }
         catch (Exception e) {
             if (ignoreException) {
@@ -120,8 +115,8 @@ public class SimpleBeanMap extends BeanMap {
 
     @Override
     public Set<Object> keySet() {
-        Set<String> keys = readMethods.keySet();
-        return ObjectUtils.cast(Collections.unmodifiableSet(keys));
+        if (descriptor == null) { return Collections.emptySet(); }
+        return ObjectUtils.cast(descriptor.getReadableNames());
     }
 
 }
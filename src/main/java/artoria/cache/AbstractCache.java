@@ -0,0 +1,285 @@
+package artoria.cache;
+
+import artoria.util.MapUtils;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+import static artoria.common.Constants.ONE;
+
+/**
+ * Abstract cache, provide the loading by the cache loader.
+ * The concurrent loads of the same key share a single call of the cache loader.
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+public abstract class AbstractCache<K, V> implements Cache<K, V> {
+    private static final StatsCounter DISABLED_STATS_COUNTER = new DisabledStatsCounter();
+    private final ConcurrentMap<K, LoadingFuture<V>> loadings;
+    private final CacheLoader<K, V> cacheLoader;
+    private final StatsCounter statsCounter;
+    private final String name;
+
+    protected AbstractCache(String name, Configuration<K, V> configuration) {
+        boolean recordStats = configuration != null
+                && Boolean.TRUE.equals(configuration.getRecordStats());
+        this.statsCounter = recordStats ? new SimpleStatsCounter() : DISABLED_STATS_COUNTER;
+        this.loadings = new ConcurrentHashMap<K, LoadingFuture<V>>();
+        this.cacheLoader = configuration != null ? configuration.getCacheLoader() : null;
+        this.name = name;
+    }
+
+    /**
+     * Gets a value from the storage of the cache, it will not call the cache loader.
+     * @param key The key whose associated value is to be returned
+     * @return The element, or null, if it does not exist
+     */
+    protected abstract V getValue(K key);
+
+    /**
+     * Gets a value and its write time, it is used to promote the value from the second level of the tiered cache.
+     * @param key The key whose associated value is to be returned
+     * @return The value and its write time (negative if it is not kept), or null if it does not exist
+     */
+    Map.Entry<V, Long> getTimedValue(K key) {
+        V val = this.getValue(key);
+        return val != null ? new AbstractMap.SimpleImmutableEntry<V, Long>(val, -1L) : null;
+    }
+
+    /**
+     * Puts the value promoted from the second level of the tiered cache if it is absent,
+     * the write time is kept so the value expires (or refreshes) as it was written.
+     * @param key The key
+     * @param value The value
+     * @param writeTime The write time of the value (negative if it is not kept)
+     */
+    void promote(K key, V value, long writeTime) {
+
+        this.putIfAbsent(key, value);
+    }
+
+    protected CacheLoader<K, V> getCacheLoader() {
+
+        return cacheLoader;
+    }
+
+    protected StatsCounter getStatsCounter() {
+
+        return statsCounter;
+    }
+
+    /**
+     * The errors are thrown directly, and the checked exceptions (thrown sneakily by the loader) are wrapped.
+     */
+    private static RuntimeException propagate(Throwable t) {
+        if (t instanceof Error) { throw (Error) t; }
+        if (t instanceof RuntimeException) { return (RuntimeException) t; }
+        return new CacheException("Failed to load the value. ", t);
+    }
+
+    private V callLoader(K key) {
+        long startTime = System.nanoTime();
+        try {
+            V val = cacheLoader.load(key);
+            statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+            return val;
+        }
+        catch (Throwable t) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            throw propagate(t);
+        }
+    }
+
+    private Map<K, V> callLoader(Iterable<? extends K> keys) {
+        long startTime = System.nanoTime();
+        try {
+            Map<K, V> loadMap = cacheLoader.loadAll(keys);
+            statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+            return loadMap;
+        }
+        catch (Throwable t) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            throw propagate(t);
+        }
+    }
+
+    protected V loadValue(K key, boolean coverExisted) {
+        LoadingFuture<V> future = loadings.get(key);
+        if (future != null) {
+            return future.get();
+        }
+        LoadingFuture<V> newFuture = new LoadingFuture<V>();
+        if ((future = loadings.putIfAbsent(key, newFuture)) != null) {
+            return future.get();
+        }
+        try {
+            V val;
+            // The previous load may be completed between the check and the registration.
+            if (coverExisted || (val = this.getValue(key)) == null) {
+                val = this.callLoader(key);
+                this.put(key, val);
+            }
+            newFuture.set(val);
+            return val;
+        }
+        catch (Throwable t) {
+            // The waiters must always be woken up, even by an error.
+            newFuture.setException(t);
+            throw propagate(t);
+        }
+        finally {
+            loadings.remove(key, newFuture);
+        }
+    }
+
+    @Override
+    public String getName() {
+
+        return name;
+    }
+
+    @Override
+    public V get(K key) {
+        V val;
+        if ((val = this.getValue(key)) != null) {
+            statsCounter.recordHits(ONE);
+            return val;
+        }
+        statsCounter.recordMisses(ONE);
+        if (cacheLoader != null && key != null) {
+            val = this.loadValue(key, false);
+        }
+        return val;
+    }
+
+    @Override
+    public void load(K key, boolean coverExisted) {
+        if (cacheLoader == null) { return; }
+        if (this.containsKey(key) && !coverExisted) {
+            return;
+        }
+        this.loadValue(key, coverExisted);
+    }
+
+    @Override
+    public void load(Iterable<? extends K> keys, boolean coverExisted) {
+        if (cacheLoader == null) { return; }
+        Map<K, LoadingFuture<V>> waits = new LinkedHashMap<K, LoadingFuture<V>>();
+        Map<K, LoadingFuture<V>> owns = new LinkedHashMap<K, LoadingFuture<V>>();
+        for (K key : keys) {
+            if (key == null) { continue; }
+            if (this.containsKey(key) && !coverExisted) {
+                continue;
+            }
+            LoadingFuture<V> newFuture = new LoadingFuture<V>();
+            LoadingFuture<V> future = loadings.putIfAbsent(key, newFuture);
+            if (future != null) {
+                waits.put(key, future);
+            }
+            else {
+                owns.put(key, newFuture);
+            }
+        }
+        if (MapUtils.isNotEmpty(owns)) {
+            try {
+                Map<K, V> loadMap = this.callLoader(owns.keySet());
+                for (Map.Entry<K, LoadingFuture<V>> entry : owns.entrySet()) {
+                    K key = entry.getKey();
+                    V val = loadMap != null ? loadMap.get(key) : null;
+                    boolean loaded = loadMap != null && loadMap.containsKey(key);
+                    if (loaded && (coverExisted || !this.containsKey(key))) {
+                        this.put(key, val);
+                    }
+                    entry.getValue().set(val);
+                }
+            }
+            catch (Throwable t) {
+                for (LoadingFuture<V> future : owns.values()) {
+                    future.setException(t);
+                }
+                throw propagate(t);
+            }
+            finally {
+                for (Map.Entry<K, LoadingFuture<V>> entry : owns.entrySet()) {
+                    loadings.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        for (LoadingFuture<V> future : waits.values()) {
+            future.get();
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+
+        return statsCounter.snapshot();
+    }
+
+    private static class DisabledStatsCounter implements StatsCounter {
+
+        @Override
+        public void recordHits(int count) {
+        }
+
+        @Override
+        public void recordMisses(int count) {
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+        }
+
+        @Override
+        public void recordEviction() {
+        }
+
+        @Override
+        public CacheStats snapshot() {
+
+            return CacheStats.empty();
+        }
+
+    }
+
+    private static class LoadingFuture<V> {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private Throwable exception;
+        private V value;
+
+        private void set(V value) {
+            this.value = value;
+            latch.countDown();
+        }
+
+        private void setException(Throwable exception) {
+            this.exception = exception;
+            latch.countDown();
+        }
+
+        private V get() {
+            try {
+                latch.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CacheException("Interrupted while waiting for the loading. ", e);
+            }
+            if (exception != null) {
+                throw new CacheException("Failed to load the value. ", exception);
+            }
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,717 @@
+package artoria.cache;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.thread.SimpleThreadFactory;
+import artoria.time.Clock;
+import artoria.time.SystemClock;
+import artoria.util.Assert;
+import artoria.util.CollectionUtils;
+import artoria.util.MapUtils;
+import artoria.util.ObjectUtils;
+import artoria.util.ShutdownHookUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static artoria.common.Constants.SIXTY;
+import static artoria.common.Constants.TWO;
+
+/**
+ * Cache bounded by the maximum size, the maximum weight or the time to live.
+ * The eviction policy is W-TinyLFU, new entries are admitted into a small lru window,
+ * the main space is a segmented lru (probation and protected), and a window victim
+ * only replaces a main victim when the frequency sketch says it is used more often.
+ * The expired entries are reclaimed by a timer wheel, and the entries that need to
+ * refresh are still served while they are reloaded by an executor in the background.
+ * The reads are lock free and recorded into a lossy buffer, the writes and
+ * the buffered reads are applied to the policy under a lock.
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+public class BoundedCache<K, V> extends AbstractCache<K, V> {
+    private static final int READ_BUFFER_THRESHOLD = 32;
+    private static final int READ_BUFFER_MAXIMUM = 256;
+    private static final int SKETCH_MAXIMUM = 1 << 16;
+    private static final double WINDOW_PERCENT = 0.01d;
+    private static final double PROTECTED_PERCENT = 0.8d;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int DEAD = -1;
+    private static Logger log = LoggerFactory.getLogger(BoundedCache.class);
+    private final ConcurrentMap<K, Node<K, V>> data;
+    private final ConcurrentMap<K, Node<K, V>> refreshes;
+    private final AtomicBoolean refreshingAll;
+    private final Queue<Node<K, V>> readBuffer;
+    private final AtomicInteger readBufferSize;
+    private final List<Node<K, V>> expiredBuffer;
+    private final Lock evictionLock;
+    private final FrequencySketch<K> sketch;
+    private final TimerWheel<K, V> timerWheel;
+    private final AccessOrderDeque<K, V> window;
+    private final AccessOrderDeque<K, V> probation;
+    private final AccessOrderDeque<K, V> protect;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final long maximumWeight;
+    private final long maximumSize;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final long refreshAfterWrite;
+    private final Weigher<K, V> weigher;
+    private final Executor executor;
+    private final Clock clock;
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+    private long count;
+
+    <C extends Configuration<K, V>> BoundedCache(String name, C configuration) {
+        super(name, configuration);
+        Assert.notNull(configuration, "Parameter \"configuration\" must not null. ");
+        Long maximumSize = configuration.getMaximumSize();
+        Long maximumWeight = configuration.getMaximumWeight();
+        Weigher<K, V> weigher = configuration.getWeigher();
+        Long expireAfterWrite = configuration.getExpireAfterWrite();
+        Long expireAfterAccess = configuration.getExpireAfterAccess();
+        Long refreshAfterWrite = configuration.getRefreshAfterWrite();
+        Executor executor = configuration.getRefreshExecutor();
+        boolean hasMaximumSize = maximumSize != null;
+        boolean hasMaximumWeight = maximumWeight != null && weigher != null;
+        this.expireAfterWrite = expireAfterWrite != null ? expireAfterWrite : 0L;
+        this.expireAfterAccess = expireAfterAccess != null ? expireAfterAccess : 0L;
+        this.refreshAfterWrite = refreshAfterWrite != null ? refreshAfterWrite : 0L;
+        Assert.isTrue(hasMaximumSize || hasMaximumWeight || isExpiring() || this.refreshAfterWrite > 0
+                , "The maximum size, the maximum weight (with weigher) or the expiration must be set. ");
+        this.maximumSize = hasMaximumSize ? maximumSize : Long.MAX_VALUE;
+        this.maximumWeight = hasMaximumWeight ? maximumWeight : Long.MAX_VALUE;
+        this.weigher = hasMaximumWeight ? weigher : null;
+        long capacity = hasMaximumWeight ? this.maximumWeight : this.maximumSize;
+        this.windowMaximum = Math.max(1L, (long) (capacity * WINDOW_PERCENT));
+        this.protectedMaximum = (long) ((capacity - windowMaximum) * PROTECTED_PERCENT);
+        this.sketch = new FrequencySketch<K>(
+                hasMaximumSize ? this.maximumSize : Math.min(capacity, SKETCH_MAXIMUM)
+        );
+        this.clock = new SystemClock();
+        this.timerWheel = new TimerWheel<K, V>(clock.getTime());
+        this.executor = executor != null ? executor : DefaultExecutorHolder.EXECUTOR;
+        this.data = new ConcurrentHashMap<K, Node<K, V>>();
+        this.refreshes = new ConcurrentHashMap<K, Node<K, V>>();
+        this.refreshingAll = new AtomicBoolean();
+        this.readBuffer = new ConcurrentLinkedQueue<Node<K, V>>();
+        this.readBufferSize = new AtomicInteger();
+        this.expiredBuffer = new ArrayList<Node<K, V>>();
+        this.evictionLock = new ReentrantLock();
+        this.window = new AccessOrderDeque<K, V>();
+        this.probation = new AccessOrderDeque<K, V>();
+        this.protect = new AccessOrderDeque<K, V>();
+    }
+
+    private int weigh(K key, V value) {
+        if (weigher == null) { return 1; }
+        int weight = weigher.weigh(key, value);
+        Assert.isTrue(weight >= 0, "The weight of entry must >= 0. ");
+        return weight;
+    }
+
+    private boolean isOverflow() {
+
+        return count > maximumSize || totalWeight > maximumWeight;
+    }
+
+    private boolean isExpiring() {
+
+        return expireAfterWrite > 0 || expireAfterAccess > 0;
+    }
+
+    private long expireTime(Node<K, V> node) {
+        long expireTime = Long.MAX_VALUE;
+        if (expireAfterWrite > 0) {
+            expireTime = node.writeTime + expireAfterWrite;
+        }
+        if (expireAfterAccess > 0) {
+            expireTime = Math.min(expireTime, node.accessTime + expireAfterAccess);
+        }
+        return expireTime;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+
+        return isExpiring() && expireTime(node) <= now;
+    }
+
+    private Node<K, V> getAliveNode(K key, long now) {
+        if (key == null) { return null; }
+        Node<K, V> node = data.get(key);
+        return node != null && !isExpired(node, now) ? node : null;
+    }
+
+    private void scheduleExpiration(Node<K, V> node) {
+        if (!isExpiring() || node.queue == DEAD) { return; }
+        node.variableTime = expireTime(node);
+        timerWheel.reschedule(node);
+    }
+
+    private void scheduleRefresh(Node<K, V> node) {
+        if (getCacheLoader() == null) { return; }
+        if (refreshes.putIfAbsent(node.key, node) != null) { return; }
+        try {
+            executor.execute(new RefreshTask(node, node.writeTime));
+        }
+        catch (RejectedExecutionException e) {
+            // The executor is busy, the entry will be refreshed on the next read.
+            refreshes.remove(node.key, node);
+        }
+    }
+
+    private void afterRead(Node<K, V> node) {
+        if (readBufferSize.get() < READ_BUFFER_MAXIMUM) {
+            // The buffer is lossy, drop the read if it is full.
+            readBuffer.offer(node);
+            if (readBufferSize.incrementAndGet() < READ_BUFFER_THRESHOLD) {
+                return;
+            }
+        }
+        if (evictionLock.tryLock()) {
+            try {
+                maintenance(clock.getTime());
+            }
+            finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void maintenance(long now) {
+        Node<K, V> node;
+        while ((node = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            onAccess(node, now);
+        }
+        expireEntries(now);
+    }
+
+    private void expireEntries(long now) {
+        if (!isExpiring()) { return; }
+        timerWheel.advance(now, expiredBuffer);
+        for (Node<K, V> node : expiredBuffer) {
+            if (isExpired(node, now)) {
+                evictNode(node);
+            }
+            else {
+                // The access time was updated after the entry was scheduled.
+                scheduleExpiration(node);
+            }
+        }
+        expiredBuffer.clear();
+    }
+
+    private void onAccess(Node<K, V> node, long now) {
+        if (node.queue == DEAD) { return; }
+        if (isExpired(node, now)) {
+            evictNode(node);
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queue == WINDOW) {
+            window.moveToBack(node);
+        }
+        else if (node.queue == PROBATION) {
+            probation.unlink(node);
+            node.queue = PROTECTED;
+            protect.linkLast(node);
+            protectedWeight += node.weight;
+            demoteFromProtected();
+        }
+        else {
+            protect.moveToBack(node);
+        }
+        if (expireAfterAccess > 0) {
+            scheduleExpiration(node);
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeight > protectedMaximum) {
+            Node<K, V> node = protect.first();
+            if (node == null) { break; }
+            protect.unlink(node);
+            protectedWeight -= node.weight;
+            node.queue = PROBATION;
+            probation.linkLast(node);
+        }
+    }
+
+    private void evict() {
+        // Move the overflow of the window into the probation as candidates.
+        while (windowWeight > windowMaximum) {
+            Node<K, V> node = window.first();
+            if (node == null) { break; }
+            window.unlink(node);
+            windowWeight -= node.weight;
+            node.queue = PROBATION;
+            probation.linkLast(node);
+        }
+        // The candidate (probation tail) competes with the victim (probation head).
+        while (isOverflow()) {
+            Node<K, V> victim = probation.first();
+            Node<K, V> candidate = probation.last();
+            if (victim == null) {
+                victim = protect.first() != null ? protect.first() : window.first();
+                candidate = null;
+            }
+            if (victim == null) { break; }
+            if (candidate != null && candidate != victim
+                    && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                victim = candidate;
+            }
+            evictNode(victim);
+        }
+    }
+
+    private void evictNode(Node<K, V> node) {
+        if (node.queue == DEAD) { return; }
+        removeNode(node);
+        getStatsCounter().recordEviction();
+    }
+
+    private void removeNode(Node<K, V> node) {
+        if (node.queue == DEAD) { return; }
+        if (node.queue == WINDOW) {
+            window.unlink(node);
+            windowWeight -= node.weight;
+        }
+        else if (node.queue == PROBATION) {
+            probation.unlink(node);
+        }
+        else {
+            protect.unlink(node);
+            protectedWeight -= node.weight;
+        }
+        timerWheel.deschedule(node);
+        node.queue = DEAD;
+        data.remove(node.key, node);
+        totalWeight -= node.weight;
+        count--;
+    }
+
+    private V doPut(K key, V value, boolean onlyIfAbsent, long now) {
+        int weight = weigh(key, value);
+        Node<K, V> node = data.get(key);
+        if (node != null && isExpired(node, now)) {
+            evictNode(node);
+            node = null;
+        }
+        if (node != null) {
+            V oldValue = node.value;
+            if (!onlyIfAbsent) {
+                int delta = weight - node.weight;
+                node.value = value;
+                node.weight = weight;
+                node.writeTime = now;
+                node.accessTime = now;
+                totalWeight += delta;
+                if (node.queue == WINDOW) { windowWeight += delta; }
+                else if (node.queue == PROTECTED) { protectedWeight += delta; }
+                scheduleExpiration(node);
+            }
+            onAccess(node, now);
+            evict();
+            return oldValue;
+        }
+        node = new Node<K, V>(key, value, weight);
+        node.writeTime = now;
+        node.accessTime = now;
+        data.put(key, node);
+        sketch.ensureCapacity(count + 1);
+        sketch.increment(key);
+        node.queue = WINDOW;
+        window.linkLast(node);
+        windowWeight += weight;
+        totalWeight += weight;
+        count++;
+        scheduleExpiration(node);
+        evict();
+        return null;
+    }
+
+    private V doRemove(K key, long now) {
+        Node<K, V> node = data.get(key);
+        if (node == null) { return null; }
+        V value = isExpired(node, now) ? null : node.value;
+        removeNode(node);
+        return value;
+    }
+
+    public long getMaximumSize() {
+
+        return maximumSize;
+    }
+
+    public long getMaximumWeight() {
+
+        return maximumWeight;
+    }
+
+    /**
+     * Performs any pending maintenance operations, such as reclaiming the expired entries.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance(clock.getTime());
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    protected V getValue(K key) {
+        if (key == null) { return null; }
+        long now = clock.getTime();
+        Node<K, V> node = getAliveNode(key, now);
+        if (node == null) { return null; }
+        V value = node.value;
+        if (expireAfterAccess > 0) {
+            node.accessTime = now;
+        }
+        if (refreshAfterWrite > 0 && now - node.writeTime >= refreshAfterWrite) {
+            scheduleRefresh(node);
+        }
+        afterRead(node);
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+
+        this.putAndGet(key, value);
+    }
+
+    @Override
+    public V putAndGet(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            return this.removeAndGet(key);
+        }
+        evictionLock.lock();
+        try {
+            long now = clock.getTime();
+            maintenance(now);
+            return doPut(key, value, false, now);
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            return this.get(key);
+        }
+        evictionLock.lock();
+        try {
+            long now = clock.getTime();
+            maintenance(now);
+            return doPut(key, value, true, now);
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    void promote(K key, V value, long writeTime) {
+        if (writeTime < 0) {
+            this.putIfAbsent(key, value);
+            return;
+        }
+        evictionLock.lock();
+        try {
+            long now = clock.getTime();
+            maintenance(now);
+            if (expireAfterWrite > 0 && writeTime + expireAfterWrite <= now) { return; }
+            if (doPut(key, value, true, now) != null) { return; }
+            Node<K, V> node = data.get(key);
+            if (node == null || node.value != value) { return; }
+            // Keep the write time, so the entry is not given a new time to live.
+            node.writeTime = writeTime;
+            scheduleExpiration(node);
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        if (MapUtils.isEmpty(map)) {
+            return;
+        }
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (entry == null) { continue; }
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        if (key == null) { return false; }
+        evictionLock.lock();
+        try {
+            return doRemove(key, clock.getTime()) != null;
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        if (key == null) { return false; }
+        evictionLock.lock();
+        try {
+            Node<K, V> node = getAliveNode(key, clock.getTime());
+            if (node == null || !ObjectUtils.equals(node.value, oldValue)) {
+                return false;
+            }
+            removeNode(node);
+            return true;
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<? extends K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return;
+        }
+        for (K key : keys) {
+            this.remove(key);
+        }
+    }
+
+    @Override
+    public V removeAndGet(K key) {
+        if (key == null) { return null; }
+        evictionLock.lock();
+        try {
+            return doRemove(key, clock.getTime());
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+
+        return getAliveNode(key, clock.getTime()) != null;
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance(clock.getTime());
+            for (Node<K, V> node : data.values()) {
+                removeNode(node);
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return data.size();
+    }
+
+    /**
+     * Reload all keys by the cache loader in the background,
+     * the current values are still served until the reload completed.
+     */
+    @Override
+    public void refresh() {
+        if (getCacheLoader() == null) {
+            return;
+        }
+        if (MapUtils.isEmpty(data)) {
+            return;
+        }
+        if (!refreshingAll.compareAndSet(false, true)) {
+            return;
+        }
+        Runnable task = new RefreshAllTask();
+        try {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    @Override
+    public Object getOriginal() {
+
+        return data;
+    }
+
+    static class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile long writeTime;
+        volatile long accessTime;
+        long variableTime;
+        int weight;
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+        Node<K, V> prevInWheel;
+        Node<K, V> nextInWheel;
+
+        Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+    }
+
+    private static class AccessOrderDeque<K, V> {
+        private final Node<K, V> head;
+
+        private AccessOrderDeque() {
+            this.head = new Node<K, V>(null, null, 0);
+            head.prev = head;
+            head.next = head;
+        }
+
+        private Node<K, V> first() {
+
+            return head.next != head ? head.next : null;
+        }
+
+        private Node<K, V> last() {
+
+            return head.prev != head ? head.prev : null;
+        }
+
+        private void linkLast(Node<K, V> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        private void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            if (head.prev == node) { return; }
+            unlink(node);
+            linkLast(node);
+        }
+
+    }
+
+    private static class DefaultExecutorHolder {
+        private static final int QUEUE_CAPACITY = 1024;
+        private static final ExecutorService EXECUTOR;
+
+        static {
+            int threads = Math.max(TWO, Runtime.getRuntime().availableProcessors());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads
+                    , SIXTY, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY)
+                    , new SimpleThreadFactory("cache-refresh", true));
+            executor.allowCoreThreadTimeOut(true);
+            ShutdownHookUtils.addExecutorService(executor);
+            EXECUTOR = executor;
+        }
+
+    }
+
+    private class RefreshTask implements Runnable {
+        private final Node<K, V> node;
+        private final long writeTime;
+
+        private RefreshTask(Node<K, V> node, long writeTime) {
+            this.writeTime = writeTime;
+            this.node = node;
+        }
+
+        @Override
+        public void run() {
+            try {
+                V value = getCacheLoader().load(node.key);
+                evictionLock.lock();
+                try {
+                    // Discard the result if the entry was removed or written while loading.
+                    if (node.queue == DEAD || node.writeTime != writeTime) { return; }
+                    long now = clock.getTime();
+                    if (value == null) { removeNode(node); }
+                    else { doPut(node.key, value, false, now); }
+                }
+                finally {
+                    evictionLock.unlock();
+                }
+            }
+            catch (Exception e) {
+                log.warn("Failed to refresh the entry of cache \"" + getName() + "\". ", e);
+            }
+            finally {
+                refreshes.remove(node.key, node);
+            }
+        }
+
+    }
+
+    private class RefreshAllTask implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                Set<K> keySet = new HashSet<K>(data.keySet());
+                Map<K, V> loadMap = getCacheLoader().loadAll(keySet);
+                if (MapUtils.isEmpty(loadMap)) { return; }
+                for (Map.Entry<K, V> entry : loadMap.entrySet()) {
+                    if (entry == null || entry.getValue() == null) { continue; }
+                    evictionLock.lock();
+                    try {
+                        // Do not resurrect the entries that were removed while loading.
+                        if (!data.containsKey(entry.getKey())) { continue; }
+                        doPut(entry.getKey(), entry.getValue(), false, clock.getTime());
+                    }
+                    finally {
+                        evictionLock.unlock();
+                    }
+                }
+            }
+            catch (Exception e) {
+                log.warn("Failed to refresh the cache \"" + getName() + "\". ", e);
+            }
+            finally {
+                refreshingAll.set(false);
+            }
+        }
+
+    }
+
+}
@@ -127,6 +127,12 @@ public interface Cache<K, V> {
      */
     void refresh();
 
+    /**
+     * Return a current snapshot of this cache's statistics.
+     * @return The cache statistics, all zero if the recording is disabled
+     */
+    CacheStats getStats();
+
     /**
      * Gets original operation object.
      * @return Original operation object
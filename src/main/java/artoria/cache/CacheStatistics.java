@@ -0,0 +1,91 @@
+package artoria.cache;
+
+import artoria.util.Assert;
+
+/**
+ * The cache statistics exposed by jmx, it looks up the cache by name on every read.
+ * @author Kahle
+ */
+public class CacheStatistics implements CacheStatisticsMBean {
+    static final String ALL_CACHES = "*";
+    private final SimpleCacheManager cacheManager;
+    private final String cacheName;
+
+    public CacheStatistics(SimpleCacheManager cacheManager, String cacheName) {
+        Assert.notNull(cacheManager, "Parameter \"cacheManager\" must not null. ");
+        Assert.notBlank(cacheName, "Parameter \"cacheName\" must not blank. ");
+        this.cacheManager = cacheManager;
+        this.cacheName = cacheName;
+    }
+
+    private CacheStats getStats() {
+        if (ALL_CACHES.equals(cacheName)) {
+            return cacheManager.getStats();
+        }
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        return cache != null ? cache.getStats() : CacheStats.empty();
+    }
+
+    @Override
+    public String getCacheName() {
+
+        return cacheName;
+    }
+
+    @Override
+    public long getSize() {
+        if (ALL_CACHES.equals(cacheName)) {
+            long size = 0;
+            for (String name : cacheManager.getCacheNames()) {
+                Cache<Object, Object> cache = cacheManager.getCache(name);
+                size += cache != null ? cache.size() : 0;
+            }
+            return size;
+        }
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public long getHitCount() {
+
+        return getStats().getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+
+        return getStats().getMissCount();
+    }
+
+    @Override
+    public double getHitRate() {
+
+        return getStats().getHitRate();
+    }
+
+    @Override
+    public long getLoadSuccessCount() {
+
+        return getStats().getLoadSuccessCount();
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+
+        return getStats().getLoadFailureCount();
+    }
+
+    @Override
+    public double getAverageLoadPenalty() {
+
+        return getStats().getAverageLoadPenalty();
+    }
+
+    @Override
+    public long getEvictionCount() {
+
+        return getStats().getEvictionCount();
+    }
+
+}
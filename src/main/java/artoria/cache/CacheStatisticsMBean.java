@@ -0,0 +1,63 @@
+package artoria.cache;
+
+/**
+ * The management interface of the cache statistics.
+ * @author Kahle
+ */
+public interface CacheStatisticsMBean {
+
+    /**
+     * Return the name of the cache, or "*" if it is the sum of all caches.
+     * @return The name of the cache
+     */
+    String getCacheName();
+
+    /**
+     * Return the number of key-value mappings in the cache.
+     * @return The number of key-value mappings
+     */
+    long getSize();
+
+    /**
+     * Return the number of times the lookup methods have returned a cached value.
+     * @return The hit count
+     */
+    long getHitCount();
+
+    /**
+     * Return the number of times the lookup methods have returned an uncached value.
+     * @return The miss count
+     */
+    long getMissCount();
+
+    /**
+     * Return the ratio of cache requests which were hits.
+     * @return The hit rate
+     */
+    double getHitRate();
+
+    /**
+     * Return the number of times the cache loader completed successfully.
+     * @return The load success count
+     */
+    long getLoadSuccessCount();
+
+    /**
+     * Return the number of times the cache loader threw an exception.
+     * @return The load failure count
+     */
+    long getLoadFailureCount();
+
+    /**
+     * Return the average time (in nanoseconds) spent loading new values.
+     * @return The average load penalty
+     */
+    double getAverageLoadPenalty();
+
+    /**
+     * Return the number of entries that have been evicted or cleared by gc.
+     * @return The eviction count
+     */
+    long getEvictionCount();
+
+}
@@ -0,0 +1,154 @@
+package artoria.cache;
+
+import java.io.Serializable;
+
+/**
+ * Statistics about the performance of a cache, it is an immutable snapshot.
+ * @author Kahle
+ */
+public class CacheStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0);
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final long evictionCount;
+
+    public static CacheStats empty() {
+
+        return EMPTY;
+    }
+
+    public CacheStats(long hitCount, long missCount, long loadSuccessCount
+            , long loadFailureCount, long totalLoadTime, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Return the number of times the lookup methods have returned a cached value.
+     * @return The hit count
+     */
+    public long getHitCount() {
+
+        return hitCount;
+    }
+
+    /**
+     * Return the number of times the lookup methods have returned an uncached value.
+     * @return The miss count
+     */
+    public long getMissCount() {
+
+        return missCount;
+    }
+
+    /**
+     * Return the number of times the lookup methods have returned either a cached or uncached value.
+     * @return The request count
+     */
+    public long getRequestCount() {
+
+        return hitCount + missCount;
+    }
+
+    /**
+     * Return the ratio of cache requests which were hits, or 1.0 if there were no requests.
+     * @return The hit rate
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0d : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Return the ratio of cache requests which were misses, or 0.0 if there were no requests.
+     * @return The miss rate
+     */
+    public double getMissRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 0.0d : (double) missCount / requestCount;
+    }
+
+    /**
+     * Return the number of times the cache loader was called and completed successfully.
+     * @return The load success count
+     */
+    public long getLoadSuccessCount() {
+
+        return loadSuccessCount;
+    }
+
+    /**
+     * Return the number of times the cache loader was called and threw an exception.
+     * @return The load failure count
+     */
+    public long getLoadFailureCount() {
+
+        return loadFailureCount;
+    }
+
+    /**
+     * Return the total number of nanoseconds the cache has spent loading new values.
+     * @return The total load time
+     */
+    public long getTotalLoadTime() {
+
+        return totalLoadTime;
+    }
+
+    /**
+     * Return the average time (in nanoseconds) spent loading new values.
+     * @return The average load penalty
+     */
+    public double getAverageLoadPenalty() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0d : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * Return the number of entries that have been evicted or cleared by gc.
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+
+        return evictionCount;
+    }
+
+    /**
+     * Return a new statistics instance which is the sum of this and the other.
+     * @param other The other statistics
+     * @return The sum statistics
+     */
+    public CacheStats plus(CacheStats other) {
+        if (other == null) { return this; }
+        return new CacheStats(
+                hitCount + other.hitCount,
+                missCount + other.missCount,
+                loadSuccessCount + other.loadSuccessCount,
+                loadFailureCount + other.loadFailureCount,
+                totalLoadTime + other.totalLoadTime,
+                evictionCount + other.evictionCount
+        );
+    }
+
+    @Override
+    public String toString() {
+
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+}
@@ -0,0 +1,37 @@
+package artoria.cache;
+
+/**
+ * The cache implement type, used by cache manager to create cache.
+ * @author Kahle
+ */
+public enum CacheType {
+
+    /**
+     * Cache backed by soft references, the heap size is decided by gc.
+     */
+    SIMPLE,
+
+    /**
+     * Cache bounded by the maximum size, the maximum weight or the time to live,
+     * the expiration and the refresh policies are only supported by it.
+     */
+    BOUNDED,
+
+    /**
+     * Cache which stores the serialized values in the direct memory,
+     * bounded by the maximum memory.
+     */
+    OFF_HEAP,
+
+    /**
+     * Cache of two levels, a bounded cache on the heap in front of an off heap cache.
+     */
+    TIERED,
+
+    /**
+     * Cache which stores the entries in a file of the storage path,
+     * the entries are still there after the restart.
+     */
+    DISK
+
+}
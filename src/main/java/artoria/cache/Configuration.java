@@ -1,6 +1,10 @@
 package artoria.cache;
 
+import artoria.serialize.Deserializer;
+import artoria.serialize.Serializer;
+
 import java.io.Serializable;
+import java.util.concurrent.Executor;
 
 /**
  * Cache configuration.
@@ -28,4 +32,83 @@ public interface Configuration<K, V> extends Serializable {
      */
     CacheLoader<K, V> getCacheLoader();
 
+    /**
+     * Return the cache implement type.
+     * @return Cache type or null if use default
+     */
+    CacheType getCacheType();
+
+    /**
+     * Return the maximum number of entries the cache may contain.
+     * @return Maximum size or null if not limited
+     */
+    Long getMaximumSize();
+
+    /**
+     * Return the maximum weight of entries the cache may contain.
+     * @return Maximum weight or null if not limited
+     */
+    Long getMaximumWeight();
+
+    /**
+     * Get weigher to calculate the weights of cache entries.
+     * @return A weigher object or null if not have
+     */
+    Weigher<K, V> getWeigher();
+
+    /**
+     * Return the time to live (in milliseconds) since the entry was written.
+     * @return Expire after write time or null if never expire
+     */
+    Long getExpireAfterWrite();
+
+    /**
+     * Return the time to live (in milliseconds) since the entry was last accessed.
+     * @return Expire after access time or null if never expire
+     */
+    Long getExpireAfterAccess();
+
+    /**
+     * Return the time (in milliseconds) after which the entry is reloaded
+     * in the background since it was written, the stale value is still served.
+     * @return Refresh after write time or null if never refresh
+     */
+    Long getRefreshAfterWrite();
+
+    /**
+     * Get the executor to reload the entries in the background.
+     * @return An executor object or null if use default
+     */
+    Executor getRefreshExecutor();
+
+    /**
+     * Return the maximum memory (in bytes) the off heap cache may allocate.
+     * @return Maximum memory or null if not set
+     */
+    Long getMaximumMemory();
+
+    /**
+     * Return the directory where the disk cache stores its file.
+     * @return Storage path or null if not set
+     */
+    String getStoragePath();
+
+    /**
+     * Get the serializer to write the entries outside the heap.
+     * @return A serializer object or null if use default
+     */
+    Serializer<Object> getSerializer();
+
+    /**
+     * Get the deserializer to read the entries outside the heap.
+     * @return A deserializer object or null if use default
+     */
+    Deserializer<Object> getDeserializer();
+
+    /**
+     * Whether to record the statistics of the cache.
+     * @return True if record the statistics
+     */
+    Boolean getRecordStats();
+
 }
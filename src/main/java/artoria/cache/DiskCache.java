@@ -0,0 +1,557 @@
+package artoria.cache;
+
+import artoria.lifecycle.Destroyable;
+import artoria.lifecycle.Initializable;
+import artoria.lifecycle.LifecycleException;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.serialize.Deserializer;
+import artoria.serialize.SerializeUtils;
+import artoria.serialize.Serializer;
+import artoria.util.Assert;
+import artoria.util.CloseUtils;
+import artoria.util.CollectionUtils;
+import artoria.util.MapUtils;
+import artoria.util.ObjectUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Cache that stores the entries in an append only file, so it survives the restarts.
+ * Each record is "crc32, type, key length, value length, key, value",
+ * the removals are written as records without value (tombstones).
+ * The memory only holds the index of the keys and the record offsets.
+ * The file is compacted when the overwritten and removed records take more
+ * space than the live records, the live records are copied to a new file
+ * which then replaces the old one. It is checked on each write (there is no timer),
+ * and it can also be run by calling "compact" directly.
+ * On startup the file is scanned to rebuild the index, the records after
+ * a torn or corrupted record (left by a crash) are truncated.
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+public class DiskCache<K, V> extends AbstractCache<K, V> implements Initializable, Destroyable {
+    private static final long MINIMUM_COMPACTION_GARBAGE = 1024 * 1024;
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String BACKUP_SUFFIX = ".backup";
+    private static final String FILE_SUFFIX = ".cache";
+    private static final int HEADER_LENGTH = 13;
+    private static final byte TYPE_PUT = 0;
+    private static final byte TYPE_REMOVE = 1;
+    private static Logger log = LoggerFactory.getLogger(DiskCache.class);
+    private final Map<K, Location> index;
+    private final Deserializer<Object> deserializer;
+    private final Serializer<Object> serializer;
+    private final ReadWriteLock lock;
+    private final File compactFile;
+    private final File backupFile;
+    private final File file;
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private long garbageLength;
+    private long fileLength;
+
+    <C extends Configuration<K, V>> DiskCache(String name, C configuration) {
+        super(name, configuration);
+        Assert.notNull(configuration, "Parameter \"configuration\" must not null. ");
+        String storagePath = configuration.getStoragePath();
+        Assert.notBlank(storagePath, "The storage path must be set. ");
+        Deserializer<Object> deserializer = configuration.getDeserializer();
+        Serializer<Object> serializer = configuration.getSerializer();
+        this.deserializer = deserializer != null ? deserializer : SerializeUtils.getDeserializer();
+        this.serializer = serializer != null ? serializer : SerializeUtils.getSerializer();
+        String fileName = name.replaceAll("[^\\w.-]", "_");
+        this.file = new File(storagePath, fileName + FILE_SUFFIX);
+        this.compactFile = new File(storagePath, fileName + FILE_SUFFIX + COMPACT_SUFFIX);
+        this.backupFile = new File(storagePath, fileName + FILE_SUFFIX + BACKUP_SUFFIX);
+        this.index = new ConcurrentHashMap<K, Location>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    private byte[] serialize(Object object) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            serializer.serialize(object, outputStream);
+            return outputStream.toByteArray();
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to serialize the entry of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    private Object deserialize(byte[] bytes) throws IOException {
+
+        return deserializer.deserialize(new ByteArrayInputStream(bytes));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) { throw new EOFException(); }
+        }
+        buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static ByteBuffer newRecord(byte type, byte[] keyBytes, byte[] valueBytes) {
+        int valueLength = valueBytes != null ? valueBytes.length : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + keyBytes.length + valueLength);
+        buffer.position(4);
+        buffer.put(type);
+        buffer.putInt(keyBytes.length);
+        buffer.putInt(valueLength);
+        buffer.put(keyBytes);
+        if (valueBytes != null) { buffer.put(valueBytes); }
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), 4, buffer.capacity() - 4);
+        buffer.putInt(0, (int) crc32.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private void openFile() throws IOException {
+        File parent = file.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create the directory \"" + parent + "\". ");
+        }
+        // The crash (or failure) happened between the renames of the compaction,
+        // the compact file is complete when the old file has been moved away.
+        if (!file.exists() && compactFile.exists() && !compactFile.renameTo(file)) {
+            throw new IOException("Failed to rename the file \"" + compactFile + "\". ");
+        }
+        if (!file.exists() && backupFile.exists() && !backupFile.renameTo(file)) {
+            throw new IOException("Failed to rename the file \"" + backupFile + "\". ");
+        }
+        if (compactFile.exists() && !compactFile.delete()) {
+            throw new IOException("Failed to delete the file \"" + compactFile + "\". ");
+        }
+        if (backupFile.exists() && !backupFile.delete()) {
+            throw new IOException("Failed to delete the file \"" + backupFile + "\". ");
+        }
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+    }
+
+    /**
+     * Replace the file by the compact file. The rename replaces the file directly where it is supported,
+     * otherwise the file is moved to the backup first, and it is moved back if the compact file can not be renamed.
+     * @return Whether the file is replaced
+     */
+    private boolean replaceFile() {
+        if (compactFile.renameTo(file)) { return true; }
+        if (!file.renameTo(backupFile)) { return false; }
+        if (compactFile.renameTo(file)) {
+            if (!backupFile.delete()) {
+                log.warn("Failed to delete the file \"{}\". ", backupFile);
+            }
+            return true;
+        }
+        if (!backupFile.renameTo(file)) {
+            // Both are kept, the compact file is used when the file is opened.
+            log.warn("Failed to restore the file \"{}\" from \"{}\". ", file, backupFile);
+        }
+        return false;
+    }
+
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        CRC32 crc32 = new CRC32();
+        while (position + HEADER_LENGTH <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int crc = header.getInt();
+            byte type = header.get();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            long recordLength = (long) HEADER_LENGTH + keyLength + valueLength;
+            if ((type != TYPE_PUT && type != TYPE_REMOVE)
+                    || keyLength <= 0 || valueLength < 0
+                    || position + recordLength > size) { break; }
+            ByteBuffer body = ByteBuffer.allocate(keyLength + valueLength);
+            readFully(channel, body, position + HEADER_LENGTH);
+            crc32.reset();
+            crc32.update(header.array(), 4, HEADER_LENGTH - 4);
+            crc32.update(body.array(), 0, body.capacity());
+            if ((int) crc32.getValue() != crc) { break; }
+            byte[] keyBytes = new byte[keyLength];
+            body.get(keyBytes);
+            K key = ObjectUtils.cast(deserialize(keyBytes));
+            Location old = type == TYPE_PUT
+                    ? index.put(key, new Location(position, (int) recordLength, valueLength))
+                    : index.remove(key);
+            if (old != null) { garbageLength += old.recordLength; }
+            if (type == TYPE_REMOVE) { garbageLength += recordLength; }
+            position += recordLength;
+        }
+        if (position < size) {
+            log.warn("Truncate the broken tail of the file \"{}\" from {} to {}. ", file, size, position);
+            channel.truncate(position);
+        }
+        fileLength = position;
+    }
+
+    private byte[] readValue(Location location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(location.valueLength);
+        readFully(channel, buffer, location.position + location.recordLength - location.valueLength);
+        return buffer.array();
+    }
+
+    private V readValue(K key) {
+        Location location = index.get(key);
+        if (location == null) { return null; }
+        try {
+            return ObjectUtils.cast(deserialize(readValue(location)));
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to read the entry of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        long position = fileLength;
+        writeFully(channel, record, position);
+        fileLength += record.capacity();
+        return position;
+    }
+
+    private void doPut(K key, byte[] keyBytes, byte[] valueBytes) {
+        try {
+            ByteBuffer record = newRecord(TYPE_PUT, keyBytes, valueBytes);
+            long position = append(record);
+            Location location = new Location(position, record.capacity(), valueBytes.length);
+            Location old = index.put(key, location);
+            if (old != null) { garbageLength += old.recordLength; }
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to write the entry of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    private boolean doRemove(K key) {
+        Location old = index.get(key);
+        if (old == null) { return false; }
+        try {
+            ByteBuffer record = newRecord(TYPE_REMOVE, serialize(key), null);
+            append(record);
+            index.remove(key);
+            garbageLength += old.recordLength + record.capacity();
+            return true;
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to write the entry of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (garbageLength < MINIMUM_COMPACTION_GARBAGE
+                || garbageLength < fileLength - garbageLength) { return; }
+        try {
+            compact();
+        }
+        catch (CacheException e) {
+            log.warn("Failed to compact the file of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    /**
+     * Copy the live records to a new file, and replace the old file by it.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        RandomAccessFile newFile = null;
+        try {
+            newFile = new RandomAccessFile(compactFile, "rw");
+            newFile.setLength(0);
+            FileChannel newChannel = newFile.getChannel();
+            Map<K, Location> newIndex = new HashMap<K, Location>(index.size());
+            long position = 0;
+            for (Map.Entry<K, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(location.recordLength);
+                readFully(channel, record, location.position);
+                writeFully(newChannel, record, position);
+                newIndex.put(entry.getKey()
+                        , new Location(position, location.recordLength, location.valueLength));
+                position += location.recordLength;
+            }
+            newChannel.force(true);
+            CloseUtils.closeQuietly(newFile);
+            newFile = null;
+            CloseUtils.closeQuietly(randomAccessFile);
+            // The index is switched only if the file is replaced,
+            // otherwise the old file and the old index are still used.
+            boolean replaced = replaceFile();
+            if (replaced) {
+                log.debug("Compact the file \"{}\" from {} to {}. ", file, fileLength, position);
+                index.putAll(newIndex);
+                garbageLength = 0;
+                fileLength = position;
+            }
+            openFile();
+            if (!replaced) {
+                throw new IOException("Failed to replace the file \"" + file + "\". ");
+            }
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to compact the file of cache \"" + getName() + "\". ", e);
+        }
+        finally {
+            CloseUtils.closeQuietly(newFile);
+            lock.writeLock().unlock();
+        }
+    }
+
+    public File getFile() {
+
+        return file;
+    }
+
+    @Override
+    public void initialize() throws LifecycleException {
+        lock.writeLock().lock();
+        try {
+            openFile();
+            recover();
+        }
+        catch (IOException e) {
+            throw new LifecycleException("Failed to open the file of cache \"" + getName() + "\". ", e);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected V getValue(K key) {
+        if (key == null) { return null; }
+        lock.readLock().lock();
+        try {
+            return readValue(key);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            this.remove(key);
+            return;
+        }
+        byte[] keyBytes = serialize(key);
+        byte[] valueBytes = serialize(value);
+        lock.writeLock().lock();
+        try {
+            doPut(key, keyBytes, valueBytes);
+            compactIfNeeded();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public V putAndGet(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            return this.removeAndGet(key);
+        }
+        byte[] keyBytes = serialize(key);
+        byte[] valueBytes = serialize(value);
+        lock.writeLock().lock();
+        try {
+            V old = readValue(key);
+            doPut(key, keyBytes, valueBytes);
+            compactIfNeeded();
+            return old;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            return this.getValue(key);
+        }
+        byte[] keyBytes = serialize(key);
+        byte[] valueBytes = serialize(value);
+        lock.writeLock().lock();
+        try {
+            V old = readValue(key);
+            if (old == null) {
+                doPut(key, keyBytes, valueBytes);
+                compactIfNeeded();
+            }
+            return old;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        if (MapUtils.isEmpty(map)) {
+            return;
+        }
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (entry == null) { continue; }
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        if (key == null) { return false; }
+        lock.writeLock().lock();
+        try {
+            boolean removed = doRemove(key);
+            compactIfNeeded();
+            return removed;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        if (key == null) { return false; }
+        lock.writeLock().lock();
+        try {
+            V curValue = readValue(key);
+            if (curValue == null || !ObjectUtils.equals(curValue, oldValue)) {
+                return false;
+            }
+            boolean removed = doRemove(key);
+            compactIfNeeded();
+            return removed;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<? extends K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return;
+        }
+        for (K key : keys) {
+            this.remove(key);
+        }
+    }
+
+    @Override
+    public V removeAndGet(K key) {
+        if (key == null) { return null; }
+        lock.writeLock().lock();
+        try {
+            V old = readValue(key);
+            doRemove(key);
+            compactIfNeeded();
+            return old;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+
+        return key != null && index.containsKey(key);
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            channel.truncate(0);
+            index.clear();
+            garbageLength = 0;
+            fileLength = 0;
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to clear the file of cache \"" + getName() + "\". ", e);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return index.size();
+    }
+
+    @Override
+    public void refresh() {
+        CacheLoader<K, V> cacheLoader = this.getCacheLoader();
+        if (cacheLoader == null) {
+            return;
+        }
+        if (MapUtils.isEmpty(index)) {
+            return;
+        }
+        Set<K> keySet = new HashSet<K>(index.keySet());
+        Map<K, V> loadMap = cacheLoader.loadAll(keySet);
+        this.putAll(loadMap);
+    }
+
+    @Override
+    public Object getOriginal() {
+
+        return index;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) { return; }
+            channel.force(true);
+            CloseUtils.closeQuietly(randomAccessFile);
+            channel = null;
+            index.clear();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static class Location {
+        private final long position;
+        private final int recordLength;
+        private final int valueLength;
+
+        private Location(long position, int recordLength, int valueLength) {
+            this.recordLength = recordLength;
+            this.valueLength = valueLength;
+            this.position = position;
+        }
+
+    }
+
+}
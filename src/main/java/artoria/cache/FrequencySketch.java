@@ -0,0 +1,124 @@
+package artoria.cache;
+
+/**
+ * A probabilistic multi-set for estimating the popularity of an element within a time window.
+ * It is a count-min sketch with four bits counters, and the counters will be halved
+ * periodically, so the history is aged and the recently popular elements can be admitted.
+ * @param <E> The type of element
+ * @author Kahle
+ */
+class FrequencySketch<E> {
+    private static final long[] SEED = new long[] {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int SAMPLE_FACTOR = 10;
+    private final int maximumCapacity;
+    private int sampleSize;
+    private int tableMask;
+    private long[] table;
+    private int size;
+
+    /**
+     * The table starts small and grows with the size of the cache by {@link #ensureCapacity(long)},
+     * so a large maximum size does not allocate the full table up front.
+     * @param maximumSize The maximum number of elements which the table is grown for
+     */
+    FrequencySketch(long maximumSize) {
+        int maximum = (int) Math.max(Math.min(maximumSize, MAXIMUM_CAPACITY), 1);
+        this.maximumCapacity = ceilingPowerOfTwo(maximum);
+        resize(Math.min(INITIAL_CAPACITY, maximumCapacity));
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+
+    private void resize(int capacity) {
+        // The counters are dropped, they are rebuilt soon by the following accesses.
+        table = new long[capacity];
+        tableMask = capacity - 1;
+        sampleSize = SAMPLE_FACTOR * capacity;
+        size = 0;
+    }
+
+    /**
+     * Grows the table if it is too small for the number of elements, up to the maximum size.
+     * @param expectedSize The current number of elements
+     */
+    void ensureCapacity(long expectedSize) {
+        if (expectedSize <= table.length || table.length >= maximumCapacity) { return; }
+        int expected = (int) Math.min(expectedSize, maximumCapacity);
+        resize(ceilingPowerOfTwo(expected));
+    }
+
+    private int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += (hash >>> 32);
+        return ((int) hash) & tableMask;
+    }
+
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = (0xfL << offset);
+        if ((table[i] & mask) != mask) {
+            table[i] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    /**
+     * Returns the estimated number of occurrences of an element, up to the maximum (15).
+     * @param element The element to count occurrences of
+     * @return The estimated number of occurrences of the element
+     */
+    int frequency(E element) {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the element if it does not exceed the maximum (15).
+     * @param element The element to add
+     */
+    void increment(E element) {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            added |= incrementAt(index, start + i);
+        }
+        if (added && (++size == sampleSize)) {
+            reset();
+        }
+    }
+
+}
@@ -0,0 +1,586 @@
+package artoria.cache;
+
+import artoria.lifecycle.Destroyable;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.serialize.Deserializer;
+import artoria.serialize.SerializeUtils;
+import artoria.serialize.Serializer;
+import artoria.time.Clock;
+import artoria.time.SystemClock;
+import artoria.util.Assert;
+import artoria.util.CollectionUtils;
+import artoria.util.MapUtils;
+import artoria.util.ObjectUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache that stores the serialized values outside the java heap.
+ * The memory is allocated as direct byte buffer pages up to the maximum memory,
+ * the pages are split into the chunks of the slab classes (like memcached),
+ * and each value is stored in a chunk of the smallest class that can hold it.
+ * When the memory is exhausted, the least recently used entry of the same class
+ * is evicted, or a page is taken from the class which has the most pages.
+ * The keys and the index are still on the heap.
+ * The write time and the access time of each entry are kept in the index,
+ * so the expiration of the configuration is also applied (when the entry is read).
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+public class OffHeapCache<K, V> extends AbstractCache<K, V> implements Destroyable {
+    private static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+    private static final int MINIMUM_CHUNK_SIZE = 64;
+    private static final double GROWTH_FACTOR = 1.25d;
+    private static Logger log = LoggerFactory.getLogger(OffHeapCache.class);
+    private final Map<K, Slot<K>> index;
+    private final SlabClass<K>[] slabClasses;
+    private final Deserializer<Object> deserializer;
+    private final Serializer<Object> serializer;
+    private final Lock lock;
+    private final long maximumMemory;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final int pageSize;
+    private final Clock clock;
+    private long allocatedMemory;
+
+    @SuppressWarnings("unchecked")
+    <C extends Configuration<K, V>> OffHeapCache(String name, C configuration) {
+        super(name, configuration);
+        Assert.notNull(configuration, "Parameter \"configuration\" must not null. ");
+        Long maximumMemory = configuration.getMaximumMemory();
+        Assert.notNull(maximumMemory, "The maximum memory must be set. ");
+        Assert.isTrue(maximumMemory >= MINIMUM_CHUNK_SIZE
+                , "The maximum memory must >= " + MINIMUM_CHUNK_SIZE + ". ");
+        Deserializer<Object> deserializer = configuration.getDeserializer();
+        Serializer<Object> serializer = configuration.getSerializer();
+        this.deserializer = deserializer != null ? deserializer : SerializeUtils.getDeserializer();
+        this.serializer = serializer != null ? serializer : SerializeUtils.getSerializer();
+        Long expireAfterWrite = configuration.getExpireAfterWrite();
+        Long expireAfterAccess = configuration.getExpireAfterAccess();
+        this.expireAfterWrite = expireAfterWrite != null ? expireAfterWrite : 0L;
+        this.expireAfterAccess = expireAfterAccess != null ? expireAfterAccess : 0L;
+        this.clock = new SystemClock();
+        this.maximumMemory = maximumMemory;
+        this.pageSize = (int) Math.min(DEFAULT_PAGE_SIZE, maximumMemory);
+        List<SlabClass<K>> list = new ArrayList<SlabClass<K>>();
+        for (double size = MINIMUM_CHUNK_SIZE; size < pageSize; size *= GROWTH_FACTOR) {
+            // Align the chunk size to 8 bytes.
+            int chunkSize = ((int) size + 7) & ~7;
+            if (chunkSize >= pageSize) { break; }
+            list.add(new SlabClass<K>(chunkSize, pageSize / chunkSize));
+        }
+        list.add(new SlabClass<K>(pageSize, 1));
+        this.slabClasses = (SlabClass<K>[]) list.toArray(new SlabClass<?>[list.size()]);
+        this.index = new HashMap<K, Slot<K>>();
+        this.lock = new ReentrantLock();
+    }
+
+    private byte[] serialize(V value) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            serializer.serialize(value, outputStream);
+            return outputStream.toByteArray();
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to serialize the value of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    private V deserialize(byte[] bytes) {
+        if (bytes == null) { return null; }
+        try {
+            return ObjectUtils.cast(deserializer.deserialize(new ByteArrayInputStream(bytes)));
+        }
+        catch (IOException e) {
+            throw new CacheException("Failed to deserialize the value of cache \"" + getName() + "\". ", e);
+        }
+    }
+
+    private SlabClass<K> slabClassFor(int length) {
+        for (SlabClass<K> slabClass : slabClasses) {
+            if (slabClass.chunkSize >= length) { return slabClass; }
+        }
+        return null;
+    }
+
+    private boolean isExpired(Slot<K> slot, long now) {
+        if (expireAfterWrite > 0 && slot.writeTime + expireAfterWrite <= now) {
+            return true;
+        }
+        return expireAfterAccess > 0 && slot.accessTime + expireAfterAccess <= now;
+    }
+
+    /**
+     * Get the slot of the key, the expired slot is released.
+     */
+    private Slot<K> getAliveSlot(K key, long now) {
+        Slot<K> slot = index.get(key);
+        if (slot == null || !isExpired(slot, now)) { return slot; }
+        release(slot);
+        return null;
+    }
+
+    private byte[] read(Slot<K> slot) {
+        byte[] bytes = new byte[slot.length];
+        ByteBuffer page = slot.slabClass.pageOf(slot.chunk);
+        page.position(slot.slabClass.offsetOf(slot.chunk));
+        page.get(bytes, 0, slot.length);
+        return bytes;
+    }
+
+    private void write(Slot<K> slot, byte[] bytes) {
+        ByteBuffer page = slot.slabClass.pageOf(slot.chunk);
+        page.position(slot.slabClass.offsetOf(slot.chunk));
+        page.put(bytes, 0, bytes.length);
+    }
+
+    private void release(Slot<K> slot) {
+        slot.slabClass.unlink(slot);
+        slot.slabClass.freeChunks.push(slot.chunk);
+        index.remove(slot.key);
+    }
+
+    private boolean stealPage(SlabClass<K> requester) {
+        SlabClass<K> donor = null;
+        for (SlabClass<K> slabClass : slabClasses) {
+            if (slabClass == requester) { continue; }
+            if (donor == null || slabClass.pages.size() > donor.pages.size()) {
+                donor = slabClass;
+            }
+        }
+        if (donor == null || donor.pages.isEmpty()) { return false; }
+        // Always take the last page, so the chunk numbers of the other pages are not changed.
+        int pageIndex = donor.pages.size() - 1;
+        int firstChunk = pageIndex * donor.chunksPerPage;
+        List<Slot<K>> victims = new ArrayList<Slot<K>>();
+        for (Slot<K> slot = donor.head.next; slot != donor.head; slot = slot.next) {
+            if (slot.chunk >= firstChunk) { victims.add(slot); }
+        }
+        for (Slot<K> slot : victims) {
+            release(slot);
+            getStatsCounter().recordEviction();
+        }
+        donor.freeChunks.removeFrom(firstChunk);
+        ByteBuffer page = donor.pages.remove(pageIndex);
+        requester.addPage(page);
+        return true;
+    }
+
+    private int allocate(SlabClass<K> slabClass) {
+        if (!slabClass.freeChunks.isEmpty()) {
+            return slabClass.freeChunks.pop();
+        }
+        if (allocatedMemory + pageSize <= maximumMemory) {
+            slabClass.addPage(ByteBuffer.allocateDirect(pageSize));
+            allocatedMemory += pageSize;
+            return slabClass.freeChunks.pop();
+        }
+        Slot<K> eldest = slabClass.head.next;
+        if (eldest != slabClass.head) {
+            release(eldest);
+            getStatsCounter().recordEviction();
+            return slabClass.freeChunks.pop();
+        }
+        if (stealPage(slabClass)) {
+            return slabClass.freeChunks.pop();
+        }
+        return -1;
+    }
+
+    private byte[] doPut(K key, byte[] bytes, boolean onlyIfAbsent, boolean returnOld) {
+        long now = clock.getTime();
+        Slot<K> old = getAliveSlot(key, now);
+        if (old != null && onlyIfAbsent) {
+            old.slabClass.moveToBack(old);
+            old.accessTime = now;
+            return read(old);
+        }
+        byte[] oldBytes = old != null && returnOld ? read(old) : null;
+        if (old != null) { release(old); }
+        SlabClass<K> slabClass = slabClassFor(bytes.length);
+        if (slabClass == null) {
+            log.debug("The value of key \"{}\" is larger than the page size and is not cached. ", key);
+            return oldBytes;
+        }
+        int chunk = allocate(slabClass);
+        if (chunk < 0) { return oldBytes; }
+        Slot<K> slot = new Slot<K>(key, slabClass, chunk, bytes.length);
+        slot.writeTime = now;
+        slot.accessTime = now;
+        write(slot, bytes);
+        slabClass.linkLast(slot);
+        index.put(key, slot);
+        return oldBytes;
+    }
+
+    public long getMaximumMemory() {
+
+        return maximumMemory;
+    }
+
+    public long getAllocatedMemory() {
+        lock.lock();
+        try {
+            return allocatedMemory;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected V getValue(K key) {
+        Map.Entry<V, Long> entry = getTimedValue(key);
+        return entry != null ? entry.getKey() : null;
+    }
+
+    @Override
+    Map.Entry<V, Long> getTimedValue(K key) {
+        if (key == null) { return null; }
+        byte[] bytes;
+        long writeTime;
+        lock.lock();
+        try {
+            long now = clock.getTime();
+            Slot<K> slot = getAliveSlot(key, now);
+            if (slot == null) { return null; }
+            slot.slabClass.moveToBack(slot);
+            slot.accessTime = now;
+            writeTime = slot.writeTime;
+            bytes = read(slot);
+        }
+        finally {
+            lock.unlock();
+        }
+        return new AbstractMap.SimpleImmutableEntry<V, Long>(deserialize(bytes), writeTime);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            this.remove(key);
+            return;
+        }
+        byte[] bytes = serialize(value);
+        lock.lock();
+        try {
+            doPut(key, bytes, false, false);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V putAndGet(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            return this.removeAndGet(key);
+        }
+        byte[] bytes = serialize(value);
+        byte[] oldBytes;
+        lock.lock();
+        try {
+            oldBytes = doPut(key, bytes, false, true);
+        }
+        finally {
+            lock.unlock();
+        }
+        return deserialize(oldBytes);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        if (value == null) {
+            return this.getValue(key);
+        }
+        byte[] bytes = serialize(value);
+        byte[] oldBytes;
+        lock.lock();
+        try {
+            oldBytes = doPut(key, bytes, true, true);
+        }
+        finally {
+            lock.unlock();
+        }
+        return deserialize(oldBytes);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        if (MapUtils.isEmpty(map)) {
+            return;
+        }
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (entry == null) { continue; }
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        if (key == null) { return false; }
+        lock.lock();
+        try {
+            Slot<K> slot = getAliveSlot(key, clock.getTime());
+            if (slot == null) { return false; }
+            release(slot);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        if (key == null) { return false; }
+        lock.lock();
+        try {
+            Slot<K> slot = getAliveSlot(key, clock.getTime());
+            if (slot == null || !ObjectUtils.equals(deserialize(read(slot)), oldValue)) {
+                return false;
+            }
+            release(slot);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<? extends K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return;
+        }
+        for (K key : keys) {
+            this.remove(key);
+        }
+    }
+
+    @Override
+    public V removeAndGet(K key) {
+        if (key == null) { return null; }
+        byte[] bytes;
+        lock.lock();
+        try {
+            Slot<K> slot = getAliveSlot(key, clock.getTime());
+            if (slot == null) { return null; }
+            bytes = read(slot);
+            release(slot);
+        }
+        finally {
+            lock.unlock();
+        }
+        return deserialize(bytes);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) { return false; }
+        lock.lock();
+        try {
+            return getAliveSlot(key, clock.getTime()) != null;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (Slot<K> slot : new ArrayList<Slot<K>>(index.values())) {
+                release(slot);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void refresh() {
+        CacheLoader<K, V> cacheLoader = this.getCacheLoader();
+        if (cacheLoader == null) {
+            return;
+        }
+        Set<K> keySet;
+        lock.lock();
+        try {
+            if (index.isEmpty()) { return; }
+            keySet = new HashSet<K>(index.keySet());
+        }
+        finally {
+            lock.unlock();
+        }
+        Map<K, V> loadMap = cacheLoader.loadAll(keySet);
+        this.putAll(loadMap);
+    }
+
+    @Override
+    public Object getOriginal() {
+
+        return index;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        lock.lock();
+        try {
+            index.clear();
+            for (SlabClass<K> slabClass : slabClasses) {
+                slabClass.reset();
+            }
+            // The direct memory is freed when the buffers are garbage collected.
+            allocatedMemory = 0;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Slot<K> {
+        private final K key;
+        private final SlabClass<K> slabClass;
+        private final int chunk;
+        private final int length;
+        private long writeTime;
+        private long accessTime;
+        private Slot<K> prev;
+        private Slot<K> next;
+
+        private Slot(K key, SlabClass<K> slabClass, int chunk, int length) {
+            this.slabClass = slabClass;
+            this.length = length;
+            this.chunk = chunk;
+            this.key = key;
+        }
+
+    }
+
+    private static class SlabClass<K> {
+        private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+        private final ChunkStack freeChunks = new ChunkStack();
+        private final Slot<K> head = new Slot<K>(null, null, -1, 0);
+        private final int chunksPerPage;
+        private final int chunkSize;
+
+        private SlabClass(int chunkSize, int chunksPerPage) {
+            this.chunksPerPage = chunksPerPage;
+            this.chunkSize = chunkSize;
+            head.prev = head;
+            head.next = head;
+        }
+
+        private ByteBuffer pageOf(int chunk) {
+
+            return pages.get(chunk / chunksPerPage);
+        }
+
+        private int offsetOf(int chunk) {
+
+            return (chunk % chunksPerPage) * chunkSize;
+        }
+
+        private void addPage(ByteBuffer page) {
+            int firstChunk = pages.size() * chunksPerPage;
+            pages.add(page);
+            // Push in reverse order, so the chunks are used from the start of the page.
+            for (int i = chunksPerPage - 1; i >= 0; i--) {
+                freeChunks.push(firstChunk + i);
+            }
+        }
+
+        private void linkLast(Slot<K> slot) {
+            slot.prev = head.prev;
+            slot.next = head;
+            head.prev.next = slot;
+            head.prev = slot;
+        }
+
+        private void unlink(Slot<K> slot) {
+            slot.prev.next = slot.next;
+            slot.next.prev = slot.prev;
+            slot.prev = null;
+            slot.next = null;
+        }
+
+        private void moveToBack(Slot<K> slot) {
+            if (head.prev == slot) { return; }
+            unlink(slot);
+            linkLast(slot);
+        }
+
+        private void reset() {
+            pages.clear();
+            freeChunks.clear();
+            head.prev = head;
+            head.next = head;
+        }
+
+    }
+
+    private static class ChunkStack {
+        private int[] elements = new int[16];
+        private int size;
+
+        private boolean isEmpty() {
+
+            return size == 0;
+        }
+
+        private void push(int chunk) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size << 1);
+            }
+            elements[size++] = chunk;
+        }
+
+        private int pop() {
+
+            return elements[--size];
+        }
+
+        private void removeFrom(int firstChunk) {
+            int newSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (elements[i] < firstChunk) {
+                    elements[newSize++] = elements[i];
+                }
+            }
+            size = newSize;
+        }
+
+        private void clear() {
+
+            size = 0;
+        }
+
+    }
+
+}
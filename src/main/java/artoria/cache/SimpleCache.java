@@ -1,14 +1,15 @@
 package artoria.cache;
 
+import artoria.collection.ConcurrentReferenceMap;
 import artoria.collection.ReferenceMap;
 import artoria.util.CollectionUtils;
 import artoria.util.MapUtils;
-import artoria.util.ObjectUtils;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Cache simple implement by jdk.
@@ -16,58 +17,47 @@ import java.util.concurrent.ConcurrentHashMap;
  * @param <V> The type of value
  * @author Kahle
  */
-public class SimpleCache<K, V> implements Cache<K, V> {
-    private final Map<K, V> cache;
-    private final String name;
-    private CacheLoader<K, V> cacheLoader;
+public class SimpleCache<K, V> extends AbstractCache<K, V> {
+    private final ConcurrentMap<K, V> cache;
 
     <C extends Configuration<K, V>> SimpleCache(String name, C configuration) {
+        super(name, configuration);
         ReferenceMap.Type type = ReferenceMap.Type.SOFT;
-        this.cache = new ReferenceMap<K, V>(
-                new ConcurrentHashMap<K, ReferenceMap.ValueCell<K, V>>(),
-                type
-        );
-        this.name = name;
-        if (configuration != null) {
-            this.cacheLoader = configuration.getCacheLoader();
-        }
-    }
-
-    @Override
-    public String getName() {
+        this.cache = new ConcurrentReferenceMap<K, V>(type) {
+            @Override
+            protected void onCollected(K key) {
 
-        return name;
+                getStatsCounter().recordEviction();
+            }
+        };
     }
 
     @Override
-    public V get(K key) {
-        V val;
-        if ((val = cache.get(key)) == null) {
-            this.load(key, false);
-            val = cache.get(key);
-        }
-        return val;
+    protected V getValue(K key) {
+
+        return cache.get(key);
     }
 
     @Override
     public void put(K key, V value) {
 
-        cache.put(key, value);
+        this.putAndGet(key, value);
     }
 
     @Override
     public V putAndGet(K key, V value) {
-
+        if (value == null) {
+            return cache.remove(key);
+        }
         return cache.put(key, value);
     }
 
     @Override
     public V putIfAbsent(K key, V value) {
-        V val;
-        if ((val = cache.get(key)) == null) {
-            val = cache.put(key, value);
+        if (value == null) {
+            return cache.get(key);
         }
-        return val;
+        return cache.putIfAbsent(key, value);
     }
 
     @Override
@@ -75,7 +65,10 @@ public class SimpleCache<K, V> implements Cache<K, V> {
         if (MapUtils.isEmpty(map)) {
             return;
         }
-        cache.putAll(map);
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (entry == null) { continue; }
+            this.put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
@@ -88,12 +81,7 @@ public class SimpleCache<K, V> implements Cache<K, V> {
     @Override
     public boolean remove(K key, V oldValue) {
         if (key == null) { return false; }
-        Object curValue = cache.get(key);
-        boolean flag = !ObjectUtils.equals(curValue, oldValue);
-        flag = flag || (curValue == null && !cache.containsKey(key));
-        if (flag) { return false; }
-        cache.remove(key);
-        return true;
+        return cache.remove(key, oldValue);
     }
 
     @Override
@@ -130,42 +118,18 @@ public class SimpleCache<K, V> implements Cache<K, V> {
         return cache.size();
     }
 
-    @Override
-    public void load(K key, boolean coverExisted) {
-        if (cacheLoader == null) { return; }
-        if (cache.containsKey(key) && !coverExisted) {
-            return;
-        }
-        V val = cacheLoader.load(key);
-        this.put(key, val);
-    }
-
-    @Override
-    public void load(Iterable<? extends K> keys, boolean coverExisted) {
-        if (cacheLoader == null) { return; }
-        Map<K, V> loadMap = cacheLoader.loadAll(keys);
-        for (Map.Entry<K, V> entry : loadMap.entrySet()) {
-            if (entry == null) { continue; }
-            K key = entry.getKey();
-            V val = entry.getValue();
-            if (cache.containsKey(key) && !coverExisted) {
-                continue;
-            }
-            this.put(key, val);
-        }
-    }
-
     @Override
     public void refresh() {
+        CacheLoader<K, V> cacheLoader = this.getCacheLoader();
         if (cacheLoader == null) {
             return;
         }
         if (MapUtils.isEmpty(cache)) {
             return;
         }
-        Set<K> keySet = cache.keySet();
+        Set<K> keySet = new HashSet<K>(cache.keySet());
         Map<K, V> loadMap = cacheLoader.loadAll(keySet);
-        cache.putAll(loadMap);
+        this.putAll(loadMap);
     }
 
     @Override
@@ -2,10 +2,16 @@ package artoria.cache;
 
 import artoria.lifecycle.Destroyable;
 import artoria.lifecycle.LifecycleUtils;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
 import artoria.util.Assert;
 import artoria.util.MapUtils;
 import artoria.util.StringUtils;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -15,7 +21,72 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author Kahle
  */
 public class SimpleCacheManager implements CacheManager, Destroyable {
-    protected final Map<String, Cache> manager = new ConcurrentHashMap<String, Cache>();
+    private static Logger log = LoggerFactory.getLogger(SimpleCacheManager.class);
+    protected final Map<String, Cache<?, ?>> manager = new ConcurrentHashMap<String, Cache<?, ?>>();
+    private volatile Boolean managementEnabled = false;
+
+    private ObjectName objectName(String cacheName) throws Exception {
+        String managerId = Integer.toHexString(System.identityHashCode(this));
+        return new ObjectName("artoria.cache:type=CacheStatistics,manager="
+                + managerId + ",name=" + ObjectName.quote(cacheName));
+    }
+
+    private void registerMBean(String cacheName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(cacheName);
+            if (server.isRegistered(objectName)) { return; }
+            CacheStatistics statistics = new CacheStatistics(this, cacheName);
+            server.registerMBean(new StandardMBean(statistics, CacheStatisticsMBean.class), objectName);
+        }
+        catch (Exception e) {
+            log.warn("Failed to register the statistics mbean of cache \"" + cacheName + "\". ", e);
+        }
+    }
+
+    private void unregisterMBean(String cacheName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(cacheName);
+            if (!server.isRegistered(objectName)) { return; }
+            server.unregisterMBean(objectName);
+        }
+        catch (Exception e) {
+            log.warn("Failed to unregister the statistics mbean of cache \"" + cacheName + "\". ", e);
+        }
+    }
+
+    public Boolean getManagementEnabled() {
+
+        return managementEnabled;
+    }
+
+    /**
+     * Whether to expose the statistics of the caches (and the sum of them) as jmx mbeans.
+     * @param managementEnabled True if expose the statistics
+     */
+    public void setManagementEnabled(Boolean managementEnabled) {
+        Assert.notNull(managementEnabled, "Parameter \"managementEnabled\" must not null. ");
+        this.managementEnabled = managementEnabled;
+        for (String cacheName : manager.keySet()) {
+            if (managementEnabled) { registerMBean(cacheName); }
+            else { unregisterMBean(cacheName); }
+        }
+        if (managementEnabled) { registerMBean(CacheStatistics.ALL_CACHES); }
+        else { unregisterMBean(CacheStatistics.ALL_CACHES); }
+    }
+
+    /**
+     * Return the sum of the statistics of all managed caches.
+     * @return The sum statistics
+     */
+    public CacheStats getStats() {
+        CacheStats stats = CacheStats.empty();
+        for (Cache<?, ?> cache : manager.values()) {
+            stats = stats.plus(cache.getStats());
+        }
+        return stats;
+    }
 
     @Override
     public <K, V> Cache<K, V> getCache(String name) {
@@ -27,10 +98,27 @@ public class SimpleCacheManager implements CacheManager, Destroyable {
     public <K, V> Cache<K, V> getCache(String name, Class<K> keyType, Class<V> valueType) {
         Assert.notBlank(name, "Parameter \"name\" must not blank. ");
         @SuppressWarnings("unchecked")
-        Cache<K, V> cache = manager.get(name);
+        Cache<K, V> cache = (Cache<K, V>) manager.get(name);
         return cache;
     }
 
+    protected <K, V> Cache<K, V> newCache(String name, Configuration<K, V> configuration) {
+        CacheType cacheType = configuration != null ? configuration.getCacheType() : null;
+        if (cacheType == null) { cacheType = CacheType.SIMPLE; }
+        switch (cacheType) {
+            case BOUNDED: return new BoundedCache<K, V>(name, configuration);
+            case OFF_HEAP: return new OffHeapCache<K, V>(name, configuration);
+            case DISK: return new DiskCache<K, V>(name, configuration);
+            case TIERED: {
+                BoundedCache<K, V> firstLevel = new BoundedCache<K, V>(name, configuration);
+                OffHeapCache<K, V> secondLevel = new OffHeapCache<K, V>(name, configuration);
+                return new TieredCache<K, V>(name, configuration, firstLevel, secondLevel);
+            }
+            case SIMPLE:
+            default: return new SimpleCache<K, V>(name, configuration);
+        }
+    }
+
     @Override
     public <K, V> Cache<K, V> createCache(String name) {
 
@@ -41,11 +129,12 @@ public class SimpleCacheManager implements CacheManager, Destroyable {
     public <K, V> Cache<K, V> createCache(String name, Configuration<K, V> configuration) {
         Assert.notBlank(name, "Parameter \"name\" must not blank. ");
         @SuppressWarnings("unchecked")
-        Cache<K, V> cache = manager.get(name);
+        Cache<K, V> cache = (Cache<K, V>) manager.get(name);
         Assert.isNull(cache, "Parameter \"name\" already exist in this cache manager. ");
-        cache = new SimpleCache<K, V>(name, configuration);
+        cache = this.newCache(name, configuration);
         LifecycleUtils.initialize(cache);
         manager.put(name, cache);
+        if (managementEnabled) { registerMBean(name); }
         return cache;
     }
 
@@ -54,8 +143,9 @@ public class SimpleCacheManager implements CacheManager, Destroyable {
         if (StringUtils.isBlank(name)) {
             return;
         }
-        Cache cache = manager.remove(name);
+        Cache<?, ?> cache = manager.remove(name);
         if (cache == null) { return; }
+        if (managementEnabled) { unregisterMBean(name); }
         LifecycleUtils.destroy(cache);
     }
 
@@ -67,11 +157,13 @@ public class SimpleCacheManager implements CacheManager, Destroyable {
 
     @Override
     public void destroy() throws Exception {
+        if (managementEnabled) { unregisterMBean(CacheStatistics.ALL_CACHES); }
         if (MapUtils.isEmpty(manager)) {
             return;
         }
-        for (Map.Entry<String, Cache> entry : manager.entrySet()) {
-            Cache value = entry.getValue();
+        for (Map.Entry<String, Cache<?, ?>> entry : manager.entrySet()) {
+            Cache<?, ?> value = entry.getValue();
+            if (managementEnabled) { unregisterMBean(entry.getKey()); }
             LifecycleUtils.destroy(value);
         }
         manager.clear();
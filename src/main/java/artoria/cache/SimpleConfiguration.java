@@ -1,7 +1,11 @@
 package artoria.cache;
 
+import artoria.serialize.Deserializer;
+import artoria.serialize.Serializer;
 import artoria.util.Assert;
 
+import java.util.concurrent.Executor;
+
 /**
  * Cache configuration simple implement by jdk.
  * @param <K> The type of key
@@ -9,7 +13,20 @@ import artoria.util.Assert;
  * @author Kahle
  */
 public class SimpleConfiguration<K, V> implements Configuration<K, V> {
+    private CacheType cacheType = CacheType.SIMPLE;
     private CacheLoader<K, V> cacheLoader;
+    private Deserializer<Object> deserializer;
+    private Serializer<Object> serializer;
+    private Weigher<K, V> weigher;
+    private Executor refreshExecutor;
+    private Long refreshAfterWrite;
+    private Long expireAfterAccess;
+    private Long expireAfterWrite;
+    private Boolean recordStats = false;
+    private String storagePath;
+    private Long maximumMemory;
+    private Long maximumWeight;
+    private Long maximumSize;
     private Class<V> valueType;
     private Class<K> keyType;
 
@@ -43,4 +60,147 @@ public class SimpleConfiguration<K, V> implements Configuration<K, V> {
         this.cacheLoader = cacheLoader;
     }
 
+    @Override
+    public CacheType getCacheType() {
+
+        return cacheType;
+    }
+
+    public void setCacheType(CacheType cacheType) {
+        Assert.notNull(cacheType, "Parameter \"cacheType\" must not null. ");
+        this.cacheType = cacheType;
+    }
+
+    @Override
+    public Long getMaximumSize() {
+
+        return maximumSize;
+    }
+
+    public void setMaximumSize(Long maximumSize) {
+        Assert.isTrue(maximumSize == null || maximumSize >= 0, "Parameter \"maximumSize\" must >= 0. ");
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Long getMaximumWeight() {
+
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(Long maximumWeight) {
+        Assert.isTrue(maximumWeight == null || maximumWeight >= 0, "Parameter \"maximumWeight\" must >= 0. ");
+        this.maximumWeight = maximumWeight;
+    }
+
+    @Override
+    public Weigher<K, V> getWeigher() {
+
+        return weigher;
+    }
+
+    public void setWeigher(Weigher<K, V> weigher) {
+        Assert.notNull(weigher, "Parameter \"weigher\" must not null. ");
+        this.weigher = weigher;
+    }
+
+    @Override
+    public Long getExpireAfterWrite() {
+
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Long expireAfterWrite) {
+        Assert.isTrue(expireAfterWrite == null || expireAfterWrite > 0, "Parameter \"expireAfterWrite\" must > 0. ");
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    @Override
+    public Long getExpireAfterAccess() {
+
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Long expireAfterAccess) {
+        Assert.isTrue(expireAfterAccess == null || expireAfterAccess > 0, "Parameter \"expireAfterAccess\" must > 0. ");
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    @Override
+    public Long getRefreshAfterWrite() {
+
+        return refreshAfterWrite;
+    }
+
+    public void setRefreshAfterWrite(Long refreshAfterWrite) {
+        Assert.isTrue(refreshAfterWrite == null || refreshAfterWrite > 0, "Parameter \"refreshAfterWrite\" must > 0. ");
+        this.refreshAfterWrite = refreshAfterWrite;
+    }
+
+    @Override
+    public Executor getRefreshExecutor() {
+
+        return refreshExecutor;
+    }
+
+    public void setRefreshExecutor(Executor refreshExecutor) {
+        Assert.notNull(refreshExecutor, "Parameter \"refreshExecutor\" must not null. ");
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Long getMaximumMemory() {
+
+        return maximumMemory;
+    }
+
+    public void setMaximumMemory(Long maximumMemory) {
+        Assert.isTrue(maximumMemory == null || maximumMemory > 0, "Parameter \"maximumMemory\" must > 0. ");
+        this.maximumMemory = maximumMemory;
+    }
+
+    @Override
+    public String getStoragePath() {
+
+        return storagePath;
+    }
+
+    public void setStoragePath(String storagePath) {
+        Assert.notBlank(storagePath, "Parameter \"storagePath\" must not blank. ");
+        this.storagePath = storagePath;
+    }
+
+    @Override
+    public Serializer<Object> getSerializer() {
+
+        return serializer;
+    }
+
+    public void setSerializer(Serializer<Object> serializer) {
+        Assert.notNull(serializer, "Parameter \"serializer\" must not null. ");
+        this.serializer = serializer;
+    }
+
+    @Override
+    public Deserializer<Object> getDeserializer() {
+
+        return deserializer;
+    }
+
+    public void setDeserializer(Deserializer<Object> deserializer) {
+        Assert.notNull(deserializer, "Parameter \"deserializer\" must not null. ");
+        this.deserializer = deserializer;
+    }
+
+    @Override
+    public Boolean getRecordStats() {
+
+        return recordStats;
+    }
+
+    public void setRecordStats(Boolean recordStats) {
+        Assert.notNull(recordStats, "Parameter \"recordStats\" must not null. ");
+        this.recordStats = recordStats;
+    }
+
 }
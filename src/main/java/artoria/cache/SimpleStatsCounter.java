@@ -0,0 +1,106 @@
+package artoria.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static artoria.common.Constants.ONE;
+import static artoria.common.Constants.THIRTY_TWO;
+import static artoria.common.Constants.TWO;
+
+/**
+ * Stats counter simple implement by jdk.
+ * The counters are striped by thread, so the recording will not contend on the hot path.
+ * @author Kahle
+ */
+public class SimpleStatsCounter implements StatsCounter {
+    private static final int STRIPES;
+    private final StripedCounter hitCount = new StripedCounter();
+    private final StripedCounter missCount = new StripedCounter();
+    private final StripedCounter loadSuccessCount = new StripedCounter();
+    private final StripedCounter loadFailureCount = new StripedCounter();
+    private final StripedCounter totalLoadTime = new StripedCounter();
+    private final StripedCounter evictionCount = new StripedCounter();
+
+    static {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Math.min(processors * TWO, THIRTY_TWO);
+        STRIPES = Integer.highestOneBit(Math.max(stripes, ONE));
+    }
+
+    @Override
+    public void recordHits(int count) {
+
+        hitCount.add(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+
+        missCount.add(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        loadSuccessCount.add(ONE);
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        loadFailureCount.add(ONE);
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordEviction() {
+
+        evictionCount.add(ONE);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+
+        return new CacheStats(
+                hitCount.sum(),
+                missCount.sum(),
+                loadSuccessCount.sum(),
+                loadFailureCount.sum(),
+                totalLoadTime.sum(),
+                evictionCount.sum()
+        );
+    }
+
+    @Override
+    public String toString() {
+
+        return snapshot().toString();
+    }
+
+    private static class StripedCounter {
+        /**
+         * Each cell is padded to 64 bytes to avoid the false sharing.
+         */
+        private static final int PADDING = 8;
+        private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+        private int index() {
+            long id = Thread.currentThread().getId();
+            int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+            return ((hash >>> 16) & (STRIPES - 1)) * PADDING;
+        }
+
+        private void add(long x) {
+
+            cells.addAndGet(index(), x);
+        }
+
+        private long sum() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+
+    }
+
+}
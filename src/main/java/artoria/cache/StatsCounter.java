@@ -0,0 +1,44 @@
+package artoria.cache;
+
+/**
+ * Accumulates statistics during the operation of a cache.
+ * @author Kahle
+ */
+public interface StatsCounter {
+
+    /**
+     * Records cache hits.
+     * @param count The number of hits to record
+     */
+    void recordHits(int count);
+
+    /**
+     * Records cache misses.
+     * @param count The number of misses to record
+     */
+    void recordMisses(int count);
+
+    /**
+     * Records the successful load of a new entry.
+     * @param loadTime The number of nanoseconds the cache spent loading
+     */
+    void recordLoadSuccess(long loadTime);
+
+    /**
+     * Records the failed load of a new entry.
+     * @param loadTime The number of nanoseconds the cache spent loading
+     */
+    void recordLoadFailure(long loadTime);
+
+    /**
+     * Records the eviction of an entry from the cache.
+     */
+    void recordEviction();
+
+    /**
+     * Returns a snapshot of this counter's values.
+     * @return A snapshot of this counter's values
+     */
+    CacheStats snapshot();
+
+}
@@ -0,0 +1,171 @@
+package artoria.cache;
+
+import artoria.lifecycle.Destroyable;
+import artoria.lifecycle.LifecycleUtils;
+import artoria.util.Assert;
+import artoria.util.CollectionUtils;
+import artoria.util.MapUtils;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cache of two levels, the values are written through to the both levels.
+ * The value found only in the second level is promoted to the first level.
+ * Usually the first level is a small cache on the heap,
+ * and the second level is a large cache outside the heap.
+ * The promoted value keeps its write time in the second level, so it is not given
+ * a new time to live, and it is refreshed if it is due (when the first level supports it).
+ * The value refreshed by the first level in the background is not written to the second level,
+ * the old value in the second level still expires at its own write time.
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+public class TieredCache<K, V> extends AbstractCache<K, V> implements Destroyable {
+    private final AbstractCache<K, V> secondLevel;
+    private final AbstractCache<K, V> firstLevel;
+
+    public TieredCache(String name, Configuration<K, V> configuration
+            , AbstractCache<K, V> firstLevel, AbstractCache<K, V> secondLevel) {
+        super(name, configuration);
+        Assert.notNull(firstLevel, "Parameter \"firstLevel\" must not null. ");
+        Assert.notNull(secondLevel, "Parameter \"secondLevel\" must not null. ");
+        this.secondLevel = secondLevel;
+        this.firstLevel = firstLevel;
+    }
+
+    public AbstractCache<K, V> getFirstLevel() {
+
+        return firstLevel;
+    }
+
+    public AbstractCache<K, V> getSecondLevel() {
+
+        return secondLevel;
+    }
+
+    @Override
+    protected V getValue(K key) {
+        V val = firstLevel.getValue(key);
+        if (val != null) { return val; }
+        Map.Entry<V, Long> entry = secondLevel.getTimedValue(key);
+        if (entry == null) { return null; }
+        val = entry.getKey();
+        firstLevel.promote(key, val, entry.getValue());
+        // Read it again, so the refresh of the first level is scheduled if it is due.
+        V promoted = firstLevel.getValue(key);
+        return promoted != null ? promoted : val;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        secondLevel.put(key, value);
+        firstLevel.put(key, value);
+    }
+
+    @Override
+    public V putAndGet(K key, V value) {
+        V secondOld = secondLevel.putAndGet(key, value);
+        V firstOld = firstLevel.putAndGet(key, value);
+        return firstOld != null ? firstOld : secondOld;
+    }
+
+    /**
+     * It is atomic in each level, but not across the two levels. A concurrent put of the same key
+     * between the writes of the two levels may leave the levels holding different values,
+     * until the entry of the first level is evicted or expired.
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        V val = this.getValue(key);
+        if (val != null) { return val; }
+        val = secondLevel.putIfAbsent(key, value);
+        if (val != null) { return val; }
+        firstLevel.put(key, value);
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        if (MapUtils.isEmpty(map)) {
+            return;
+        }
+        secondLevel.putAll(map);
+        firstLevel.putAll(map);
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean removed = firstLevel.remove(key);
+        return secondLevel.remove(key) || removed;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        boolean removed = firstLevel.remove(key, oldValue);
+        return secondLevel.remove(key, oldValue) || removed;
+    }
+
+    @Override
+    public void remove(Collection<? extends K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return;
+        }
+        firstLevel.remove(keys);
+        secondLevel.remove(keys);
+    }
+
+    @Override
+    public V removeAndGet(K key) {
+        V firstOld = firstLevel.removeAndGet(key);
+        V secondOld = secondLevel.removeAndGet(key);
+        return firstOld != null ? firstOld : secondOld;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+
+        return firstLevel.containsKey(key) || secondLevel.containsKey(key);
+    }
+
+    @Override
+    public void clear() {
+        firstLevel.clear();
+        secondLevel.clear();
+    }
+
+    /**
+     * Return the size of the second level, the entries of the first level
+     * are usually also in the second level.
+     * @return The size of the second level
+     */
+    @Override
+    public int size() {
+
+        return secondLevel.size();
+    }
+
+    /**
+     * Reload the entries of the second level, and drop the first level,
+     * so the stale values will not be served by the first level.
+     */
+    @Override
+    public void refresh() {
+        secondLevel.refresh();
+        firstLevel.clear();
+    }
+
+    @Override
+    public Object getOriginal() {
+
+        return secondLevel.getOriginal();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        LifecycleUtils.destroy(firstLevel);
+        LifecycleUtils.destroy(secondLevel);
+    }
+
+}
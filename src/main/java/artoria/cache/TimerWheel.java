@@ -0,0 +1,135 @@
+package artoria.cache;
+
+import java.util.Collection;
+
+/**
+ * A hierarchical timer wheel to add, remove, and fire expiration events in amortized O(1) time.
+ * The expiration events are deferred until the timer is advanced, the entries in the buckets
+ * that the time passed over are expired or rescheduled into a lower wheel.
+ * It is not thread safe, the caller should hold the eviction lock.
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+class TimerWheel<K, V> {
+    private static final int[] BUCKETS = new int[] { 64, 64, 32, 4, 1 };
+    private static final long[] SPANS = new long[] {
+            // 1.02s, 1.09m, 1.17h, 1.55d, 6.21d, 6.21d
+            1L << 10, 1L << 16, 1L << 22, 1L << 27, 1L << 29, 1L << 29
+    };
+    private static final long[] SHIFT = new long[] {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4])
+    };
+    private final BoundedCache.Node<K, V>[][] wheel;
+    private long time;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long time) {
+        this.wheel = (BoundedCache.Node<K, V>[][]) new BoundedCache.Node<?, ?>[BUCKETS.length][];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = (BoundedCache.Node<K, V>[]) new BoundedCache.Node<?, ?>[BUCKETS[i]];
+            for (int j = 0; j < wheel[i].length; j++) {
+                BoundedCache.Node<K, V> sentinel = new BoundedCache.Node<K, V>(null, null, 0);
+                sentinel.prevInWheel = sentinel;
+                sentinel.nextInWheel = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+        this.time = time;
+    }
+
+    private BoundedCache.Node<K, V> findBucket(long expireTime) {
+        long duration = expireTime - time;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = (expireTime >>> SHIFT[i]);
+                int index = (int) (ticks & (wheel[i].length - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    private void expire(int index, long previousTicks, long delta, Collection<BoundedCache.Node<K, V>> expired) {
+        BoundedCache.Node<K, V>[] timerWheel = wheel[index];
+        int mask = timerWheel.length - 1;
+        int steps = (int) Math.min(1 + delta, timerWheel.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+        for (int i = start; i < end; i++) {
+            BoundedCache.Node<K, V> sentinel = timerWheel[i & mask];
+            BoundedCache.Node<K, V> node = sentinel.nextInWheel;
+            sentinel.prevInWheel = sentinel;
+            sentinel.nextInWheel = sentinel;
+            while (node != sentinel) {
+                BoundedCache.Node<K, V> next = node.nextInWheel;
+                node.prevInWheel = null;
+                node.nextInWheel = null;
+                if (node.variableTime - time <= 0) {
+                    expired.add(node);
+                }
+                else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Advances the timer and collects the entries that have expired.
+     * @param currentTime The current time in milliseconds
+     * @param expired The collection to receive the expired entries
+     */
+    void advance(long currentTime, Collection<BoundedCache.Node<K, V>> expired) {
+        long previousTime = time;
+        time = currentTime;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = (previousTime >>> SHIFT[i]);
+            long currentTicks = (currentTime >>> SHIFT[i]);
+            if ((currentTicks - previousTicks) <= 0L) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, expired);
+        }
+    }
+
+    /**
+     * Schedules a timer event for the node by its variable time.
+     * @param node The entry in the cache
+     */
+    void schedule(BoundedCache.Node<K, V> node) {
+        BoundedCache.Node<K, V> sentinel = findBucket(node.variableTime);
+        node.prevInWheel = sentinel.prevInWheel;
+        node.nextInWheel = sentinel;
+        sentinel.prevInWheel.nextInWheel = node;
+        sentinel.prevInWheel = node;
+    }
+
+    /**
+     * Reschedules an active timer event for the node.
+     * @param node The entry in the cache
+     */
+    void reschedule(BoundedCache.Node<K, V> node) {
+        deschedule(node);
+        schedule(node);
+    }
+
+    /**
+     * Removes a timer event for this entry if present.
+     * @param node The entry in the cache
+     */
+    void deschedule(BoundedCache.Node<K, V> node) {
+        if (node.nextInWheel == null) { return; }
+        node.nextInWheel.prevInWheel = node.prevInWheel;
+        node.prevInWheel.nextInWheel = node.nextInWheel;
+        node.nextInWheel = null;
+        node.prevInWheel = null;
+    }
+
+}
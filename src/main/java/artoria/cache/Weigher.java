@@ -0,0 +1,19 @@
+package artoria.cache;
+
+/**
+ * Calculates the weights of cache entries.
+ * @param <K> The type of key
+ * @param <V> The type of value
+ * @author Kahle
+ */
+public interface Weigher<K, V> {
+
+    /**
+     * Returns the weight of a cache entry, it must be non-negative.
+     * @param key The key to weigh
+     * @param value The value to weigh
+     * @return The weight of the entry
+     */
+    int weigh(K key, V value);
+
+}
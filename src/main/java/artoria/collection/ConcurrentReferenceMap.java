@@ -0,0 +1,503 @@
+package artoria.collection;
+
+import artoria.util.Assert;
+import artoria.util.ObjectUtils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent map which keys and values can be wrapped as weak and soft references.
+ * The cleared references are drained in small batches by the writes
+ * (and by one of every few reads), instead of draining all of them on every call.
+ * The keys wrapped as references are compared by equals (like weak hash map).
+ * The views of this map are live and do not copy the entries,
+ * the entries whose key or value was cleared are skipped.
+ * @author Kahle
+ */
+public class ConcurrentReferenceMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int READ_DRAIN_MASK = 0x3F;
+    private static final int MAXIMUM_DRAIN = 32;
+    private final ConcurrentMap<Object, ValueReference<K, V>> internalMap;
+    private final ReferenceQueue<Object> queue;
+    private final AtomicBoolean draining;
+    private final AtomicInteger reads;
+    private final ReferenceMap.Type valueType;
+    private final ReferenceMap.Type keyType;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    public ConcurrentReferenceMap(ReferenceMap.Type valueType) {
+
+        this(ReferenceMap.Type.STRONG, valueType);
+    }
+
+    public ConcurrentReferenceMap(ReferenceMap.Type keyType, ReferenceMap.Type valueType) {
+        Assert.notNull(keyType, "Parameter \"keyType\" must not null. ");
+        Assert.notNull(valueType, "Parameter \"valueType\" must not null. ");
+        this.internalMap = new ConcurrentHashMap<Object, ValueReference<K, V>>();
+        this.queue = new ReferenceQueue<Object>();
+        this.draining = new AtomicBoolean();
+        this.reads = new AtomicInteger();
+        this.valueType = valueType;
+        this.keyType = keyType;
+    }
+
+    private Object newKey(K key) {
+        switch (keyType) {
+            case WEAK: return new WeakKeyReference<K>(key, queue);
+            case SOFT: return new SoftKeyReference<K>(key, queue);
+            default: return key;
+        }
+    }
+
+    private ValueReference<K, V> newValue(Object internalKey, V value) {
+        switch (valueType) {
+            case WEAK: return new WeakValueReference<K, V>(internalKey, value, queue);
+            case SOFT: return new SoftValueReference<K, V>(internalKey, value, queue);
+            default: return new StrongValueReference<K, V>(internalKey, value);
+        }
+    }
+
+    private Object lookupKey(Object key) {
+
+        return keyType == ReferenceMap.Type.STRONG ? key : new LookupKey(key);
+    }
+
+    private K unwrapKey(Object internalKey) {
+        if (keyType == ReferenceMap.Type.STRONG) {
+            return ObjectUtils.cast(internalKey);
+        }
+        return ObjectUtils.<KeyReference<K>>cast(internalKey).get();
+    }
+
+    private void afterRead() {
+        if ((reads.incrementAndGet() & READ_DRAIN_MASK) == 0) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        if (!draining.compareAndSet(false, true)) { return; }
+        try {
+            Reference<?> reference;
+            for (int i = 0; i < MAXIMUM_DRAIN && (reference = queue.poll()) != null; i++) {
+                expunge(reference);
+            }
+        }
+        finally {
+            draining.set(false);
+        }
+    }
+
+    private void expunge(Reference<?> reference) {
+        if (reference instanceof ValueReference) {
+            ValueReference<K, V> valueReference = ObjectUtils.cast(reference);
+            Object internalKey = valueReference.getInternalKey();
+            // Only remove the entry if it was not replaced by a newer value.
+            if (internalMap.remove(internalKey, valueReference)) {
+                onCollected(unwrapKey(internalKey));
+            }
+        }
+        else if (internalMap.remove(reference) != null) {
+            onCollected(null);
+        }
+    }
+
+    /**
+     * Drain all the cleared references and remove their entries.
+     */
+    public void purge() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            expunge(reference);
+        }
+    }
+
+    /**
+     * Called after an entry was removed because its key or value was garbage collected.
+     * @param key The key of the removed entry, or null if the key was garbage collected
+     */
+    protected void onCollected(K key) {
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) { return null; }
+        afterRead();
+        ValueReference<K, V> reference = internalMap.get(lookupKey(key));
+        return reference != null ? reference.get() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        Assert.notNull(value, "Parameter \"value\" must not null. ");
+        drain();
+        Object internalKey = lookupKey(key);
+        ValueReference<K, V> oldReference = internalMap.get(internalKey);
+        // Reuse the key reference of the existing entry, the new one is created only if absent.
+        internalKey = oldReference != null ? oldReference.getInternalKey() : newKey(key);
+        oldReference = internalMap.put(internalKey, newValue(internalKey, value));
+        return oldReference != null ? oldReference.get() : null;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        Assert.notNull(value, "Parameter \"value\" must not null. ");
+        drain();
+        Object internalKey = newKey(key);
+        ValueReference<K, V> newReference = newValue(internalKey, value);
+        for (;;) {
+            ValueReference<K, V> oldReference = internalMap.putIfAbsent(internalKey, newReference);
+            if (oldReference == null) { return null; }
+            V oldValue = oldReference.get();
+            if (oldValue != null) { return oldValue; }
+            // The old value was cleared but not drained yet, take its place.
+            if (internalMap.replace(oldReference.getInternalKey(), oldReference, newValue(
+                    oldReference.getInternalKey(), value))) { return null; }
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) { return null; }
+        drain();
+        ValueReference<K, V> reference = internalMap.remove(lookupKey(key));
+        return reference != null ? reference.get() : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (key == null || value == null) { return false; }
+        drain();
+        Object internalKey = lookupKey(key);
+        ValueReference<K, V> reference = internalMap.get(internalKey);
+        if (reference == null || !value.equals(reference.get())) { return false; }
+        return internalMap.remove(reference.getInternalKey(), reference);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        Assert.notNull(newValue, "Parameter \"newValue\" must not null. ");
+        if (oldValue == null) { return false; }
+        drain();
+        ValueReference<K, V> reference = internalMap.get(lookupKey(key));
+        if (reference == null || !oldValue.equals(reference.get())) { return false; }
+        Object internalKey = reference.getInternalKey();
+        return internalMap.replace(internalKey, reference, newValue(internalKey, newValue));
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Assert.notNull(key, "Parameter \"key\" must not null. ");
+        Assert.notNull(value, "Parameter \"value\" must not null. ");
+        drain();
+        for (;;) {
+            ValueReference<K, V> reference = internalMap.get(lookupKey(key));
+            V oldValue = reference != null ? reference.get() : null;
+            if (oldValue == null) { return null; }
+            Object internalKey = reference.getInternalKey();
+            if (internalMap.replace(internalKey, reference, newValue(internalKey, value))) {
+                return oldValue;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+
+        internalMap.clear();
+    }
+
+    /**
+     * Return the number of entries, it may include the entries
+     * whose key or value was cleared but not drained yet.
+     * @return The number of entries
+     */
+    @Override
+    public int size() {
+        drain();
+        return internalMap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        drain();
+        return internalMap.isEmpty();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof Map.Entry)) { return false; }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+            V value = ConcurrentReferenceMap.this.get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            if (!(object instanceof Map.Entry)) { return false; }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+            return ConcurrentReferenceMap.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public int size() {
+
+            return ConcurrentReferenceMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+
+            ConcurrentReferenceMap.this.clear();
+        }
+
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final Iterator<Map.Entry<Object, ValueReference<K, V>>> iterator;
+        private Map.Entry<K, V> next;
+        private Map.Entry<K, V> last;
+
+        private EntryIterator() {
+
+            this.iterator = internalMap.entrySet().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && iterator.hasNext()) {
+                Map.Entry<Object, ValueReference<K, V>> entry = iterator.next();
+                K key = unwrapKey(entry.getKey());
+                V value = entry.getValue().get();
+                // Skip the entries whose key or value was cleared.
+                if (key != null && value != null) {
+                    next = new WriteThroughEntry(key, value);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) { throw new NoSuchElementException(); }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) { throw new IllegalStateException(); }
+            ConcurrentReferenceMap.this.remove(last.getKey());
+            last = null;
+        }
+
+    }
+
+    private class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private WriteThroughEntry(K key, V value) {
+
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            ConcurrentReferenceMap.this.put(getKey(), value);
+            return super.setValue(value);
+        }
+
+    }
+
+    private interface KeyReference<K> {
+
+        /**
+         * Get the key, or null if it was cleared.
+         * @return The key
+         */
+        K get();
+
+    }
+
+    private interface ValueReference<K, V> {
+
+        /**
+         * Get the value, or null if it was cleared.
+         * @return The value
+         */
+        V get();
+
+        /**
+         * Get the key of the internal map which this value belongs to.
+         * @return The internal key
+         */
+        Object getInternalKey();
+
+    }
+
+    private static class LookupKey {
+        private final Object key;
+        private final int hash;
+
+        private LookupKey(Object key) {
+            this.hash = key.hashCode();
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (object == this) { return true; }
+            if (!(object instanceof KeyReference)) { return false; }
+            return key.equals(((KeyReference<?>) object).get());
+        }
+
+    }
+
+    private static boolean keyEquals(KeyReference<?> reference, Object object) {
+        if (object == reference) { return true; }
+        Object key = reference.get();
+        if (key == null) { return false; }
+        if (object instanceof LookupKey) {
+            return key.equals(((LookupKey) object).key);
+        }
+        return object instanceof KeyReference && key.equals(((KeyReference<?>) object).get());
+    }
+
+    private static class WeakKeyReference<K> extends WeakReference<K> implements KeyReference<K> {
+        private final int hash;
+
+        private WeakKeyReference(K key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            return keyEquals(this, object);
+        }
+
+    }
+
+    private static class SoftKeyReference<K> extends SoftReference<K> implements KeyReference<K> {
+        private final int hash;
+
+        private SoftKeyReference(K key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+
+            return keyEquals(this, object);
+        }
+
+    }
+
+    private static class StrongValueReference<K, V> implements ValueReference<K, V> {
+        private final Object internalKey;
+        private final V value;
+
+        private StrongValueReference(Object internalKey, V value) {
+            this.internalKey = internalKey;
+            this.value = value;
+        }
+
+        @Override
+        public V get() {
+
+            return value;
+        }
+
+        @Override
+        public Object getInternalKey() {
+
+            return internalKey;
+        }
+
+    }
+
+    private static class WeakValueReference<K, V> extends WeakReference<V> implements ValueReference<K, V> {
+        private final Object internalKey;
+
+        private WeakValueReference(Object internalKey, V value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.internalKey = internalKey;
+        }
+
+        @Override
+        public Object getInternalKey() {
+
+            return internalKey;
+        }
+
+    }
+
+    private static class SoftValueReference<K, V> extends SoftReference<V> implements ValueReference<K, V> {
+        private final Object internalKey;
+
+        private SoftValueReference(Object internalKey, V value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.internalKey = internalKey;
+        }
+
+        @Override
+        public Object getInternalKey() {
+
+            return internalKey;
+        }
+
+    }
+
+}
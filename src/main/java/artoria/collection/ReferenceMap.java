@@ -33,6 +33,7 @@ public class ReferenceMap<K, V> implements Map<K, V> {
         switch (type) {
             case WEAK: return new WeakValueCell<K, V>(key, value, queue);
             case SOFT: return new SoftValueCell<K, V>(key, value, queue);
+            case STRONG: return new StrongValueCell<K, V>(key, value);
             default: return new WeakValueCell<K, V>(key, value, queue);
         }
     }
@@ -40,10 +41,21 @@ public class ReferenceMap<K, V> implements Map<K, V> {
     private void processQueue() {
         ValueCell<K, V> valueCell;
         while ((valueCell = ObjectUtils.cast(queue.poll())) != null) {
-            internalMap.remove(valueCell.getKey());
+            K key = valueCell.getKey();
+            // Only remove the entry if it was not replaced by a newer value.
+            if (internalMap.get(key) != valueCell) { continue; }
+            internalMap.remove(key);
+            onCollected(key);
         }
     }
 
+    /**
+     * Called after an entry was removed because its value was garbage collected.
+     * @param key The key of the removed entry
+     */
+    protected void onCollected(K key) {
+    }
+
     @Override
     public V get(Object key) {
         processQueue();
@@ -55,7 +67,9 @@ public class ReferenceMap<K, V> implements Map<K, V> {
             // The wrapped value was garbage collected,
             // So remove this entry from the backing internalMap.
             K keyCast = ObjectUtils.cast(key);
-            internalMap.remove(keyCast);
+            if (internalMap.remove(keyCast) != null) {
+                onCollected(keyCast);
+            }
         }
         return result;
     }
@@ -176,7 +190,12 @@ public class ReferenceMap<K, V> implements Map<K, V> {
         /**
          * Reference type soft.
          */
-        SOFT
+        SOFT,
+
+        /**
+         * Not wrapped as reference, never be garbage collected.
+         */
+        STRONG
 
     }
 
@@ -196,6 +215,29 @@ public class ReferenceMap<K, V> implements Map<K, V> {
 
     }
 
+    private static class StrongValueCell<K, V> implements ValueCell<K, V> {
+        private final V value;
+        private final K key;
+
+        private StrongValueCell(K key, V value) {
+            this.value = value;
+            this.key = key;
+        }
+
+        @Override
+        public V get() {
+
+            return value;
+        }
+
+        @Override
+        public K getKey() {
+
+            return key;
+        }
+
+    }
+
     private static class WeakValueCell<K, V> extends WeakReference<V> implements ValueCell<K, V> {
         private final K key;
 
@@ -1,28 +1,50 @@
 package artoria.convert;
 
-import artoria.exception.ExceptionUtils;
-import artoria.reflect.ReflectUtils;
 import artoria.time.DateUtils;
 import artoria.util.Assert;
 import artoria.util.ClassUtils;
-import artoria.util.StringUtils;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import static artoria.common.Constants.ONE_THOUSAND;
 
 /**
- * Number converter.
+ * Number converter, the numeric types are converted directly by a table of the types.
+ * If the overflow check is enabled, the narrowing which overflows will throw {@link ArithmeticException},
+ * otherwise it is the same as the primitive casting (the fraction is always discarded).
  * @author Kahle
  */
 public class NumberConverter implements TypeConverter {
-    private static final String INTEGER = "Integer";
-    private static final String VALUE = "Value";
-    private static final String INT = "int";
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int INTEGER = 3;
+    private static final int LONG = 4;
+    private static final int FLOAT = 5;
+    private static final int DOUBLE = 6;
+    private static final int BIG_INTEGER = 7;
+    private static final int BIG_DECIMAL = 8;
+    private static final double LONG_MIN_DOUBLE = -0x1p63;
+    private static final double LONG_MAX_DOUBLE_EXCLUSIVE = 0x1p63;
+    private static final Map<Class<?>, Integer> NUMBER_TYPES;
     private Boolean unixTimestamp = false;
+    private Boolean overflowCheck = false;
+
+    static {
+        Map<Class<?>, Integer> types = new HashMap<Class<?>, Integer>();
+        types.put(Byte.class, BYTE);
+        types.put(Short.class, SHORT);
+        types.put(Integer.class, INTEGER);
+        types.put(Long.class, LONG);
+        types.put(Float.class, FLOAT);
+        types.put(Double.class, DOUBLE);
+        types.put(BigInteger.class, BIG_INTEGER);
+        types.put(BigDecimal.class, BIG_DECIMAL);
+        NUMBER_TYPES = types;
+    }
 
     public NumberConverter() {
     }
@@ -32,6 +54,11 @@ public class NumberConverter implements TypeConverter {
         setUnixTimestamp(unixTimestamp);
     }
 
+    public NumberConverter(Boolean unixTimestamp, Boolean overflowCheck) {
+        setUnixTimestamp(unixTimestamp);
+        setOverflowCheck(overflowCheck);
+    }
+
     public Boolean getUnixTimestamp() {
 
         return unixTimestamp;
@@ -42,25 +69,157 @@ public class NumberConverter implements TypeConverter {
         this.unixTimestamp = unixTimestamp;
     }
 
-    protected Object numberToNumber(Object source, Class<?> target) {
-        if (BigInteger.class.isAssignableFrom(target)) {
-            return new BigInteger(source.toString());
+    public Boolean getOverflowCheck() {
+
+        return overflowCheck;
+    }
+
+    public void setOverflowCheck(Boolean overflowCheck) {
+        Assert.notNull(overflowCheck, "Parameter \"overflowCheck\" must not null. ");
+        this.overflowCheck = overflowCheck;
+    }
+
+    private static ArithmeticException overflow(Object source, String target) {
+
+        return new ArithmeticException("Number \"" + source + "\" is out of the range of " + target + ". ");
+    }
+
+    private static Number toNumber(Object source) {
+        Assert.notNull(source, "Parameter \"source\" must not null. ");
+        if (source instanceof Number) {
+            return (Number) source;
         }
-        if (BigDecimal.class.isAssignableFrom(target)) {
-            return new BigDecimal(source.toString());
+        if (source instanceof String) {
+            String str = ((String) source).trim();
+            Assert.notEmpty(str, "Parameter \"source\" must not blank. ");
+            return isInteger(str) ? (Number) Long.parseLong(str) : new BigDecimal(str);
         }
-        // handle : byte, short, int, long, float, double
-        Class<?> clazz = source.getClass();
-        String name = target.getSimpleName();
-        name = INTEGER.equals(name) ? INT : name;
-        name = StringUtils.uncapitalize(name);
-        name = name + VALUE;
-        try {
-            Method method = ReflectUtils.findMethod(clazz, name);
-            return method.invoke(source);
-        }
-        catch (Exception e) {
-            throw ExceptionUtils.wrap(e);
+        throw new IllegalArgumentException("Parameter \"source\" must String or Number. ");
+    }
+
+    private static boolean isInteger(String str) {
+        // The numbers which have more than 18 digits may overflow the long.
+        int length = str.length(), start = 0;
+        char first = str.charAt(0);
+        if (first == '-') { start = 1; }
+        if (length == start || length - start > 18) { return false; }
+        for (int i = start; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') { return false; }
+        }
+        return true;
+    }
+
+    protected long checkedNarrow(Number number, long min, long max, String target) {
+        long value;
+        if (number instanceof BigInteger || number instanceof BigDecimal) {
+            BigInteger bigInteger = number instanceof BigInteger
+                    ? (BigInteger) number : ((BigDecimal) number).toBigInteger();
+            if (bigInteger.bitLength() > 63) { throw overflow(number, target); }
+            value = bigInteger.longValue();
+        }
+        else if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            if (!(d >= LONG_MIN_DOUBLE && d < LONG_MAX_DOUBLE_EXCLUSIVE)) {
+                throw overflow(number, target);
+            }
+            value = (long) d;
+        }
+        else {
+            value = number.longValue();
+        }
+        if (value < min || value > max) { throw overflow(number, target); }
+        return value;
+    }
+
+    protected double narrowToDouble(Number number, boolean isFloat) {
+        double value = isFloat ? number.floatValue() : number.doubleValue();
+        if (!overflowCheck || !Double.isInfinite(value)) { return value; }
+        boolean isBig = number instanceof BigInteger || number instanceof BigDecimal;
+        if (isBig || !Double.isInfinite(number.doubleValue())) {
+            throw overflow(number, isFloat ? "float" : "double");
+        }
+        return value;
+    }
+
+    protected BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) { return (BigDecimal) number; }
+        if (number instanceof BigInteger) { return new BigDecimal((BigInteger) number); }
+        if (number instanceof Double || number instanceof Float) {
+            // The string keeps the value as it is printed, such as "0.1" rather than "0.1000000000000000055...".
+            return new BigDecimal(number.toString());
+        }
+        if (number instanceof Long || number instanceof Integer
+                || number instanceof Short || number instanceof Byte) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    protected BigInteger toBigInteger(Number number) {
+        if (number instanceof BigInteger) { return (BigInteger) number; }
+        if (number instanceof BigDecimal) { return ((BigDecimal) number).toBigInteger(); }
+        if (number instanceof Long || number instanceof Integer
+                || number instanceof Short || number instanceof Byte) {
+            return BigInteger.valueOf(number.longValue());
+        }
+        return toBigDecimal(number).toBigInteger();
+    }
+
+    /**
+     * Convert the number or the numeric string to the primitive long directly without boxing.
+     * @param source The number or the numeric string
+     * @return The long value
+     */
+    public long convertToLong(Object source) {
+        Number number = toNumber(source);
+        return overflowCheck ? checkedNarrow(number
+                , Long.MIN_VALUE, Long.MAX_VALUE, "long") : number.longValue();
+    }
+
+    public int convertToInt(Object source) {
+        Number number = toNumber(source);
+        return overflowCheck ? (int) checkedNarrow(number
+                , Integer.MIN_VALUE, Integer.MAX_VALUE, "int") : number.intValue();
+    }
+
+    public short convertToShort(Object source) {
+        Number number = toNumber(source);
+        return overflowCheck ? (short) checkedNarrow(number
+                , Short.MIN_VALUE, Short.MAX_VALUE, "short") : number.shortValue();
+    }
+
+    public byte convertToByte(Object source) {
+        Number number = toNumber(source);
+        return overflowCheck ? (byte) checkedNarrow(number
+                , Byte.MIN_VALUE, Byte.MAX_VALUE, "byte") : number.byteValue();
+    }
+
+    public double convertToDouble(Object source) {
+
+        return narrowToDouble(toNumber(source), false);
+    }
+
+    public float convertToFloat(Object source) {
+
+        return (float) narrowToDouble(toNumber(source), true);
+    }
+
+    protected Object numberToNumber(Object source, Class<?> target) {
+        Integer type = NUMBER_TYPES.get(target);
+        // The other number types are unknown, such as AtomicLong.
+        if (type == null) { return source; }
+        Number number = (Number) source;
+        switch (type) {
+            case BYTE: return convertToByte(number);
+            case SHORT: return convertToShort(number);
+            case INTEGER: return convertToInt(number);
+            case LONG: return convertToLong(number);
+            case FLOAT: return convertToFloat(number);
+            case DOUBLE: return convertToDouble(number);
+            case BIG_INTEGER: return toBigInteger(number);
+            case BIG_DECIMAL: return toBigDecimal(number);
+            default: return source;
         }
     }
 
@@ -23,13 +23,11 @@ public class StringConverter implements TypeConverter {
             // So hand on NumberConverter
             return TypeConvertUtils.convert(bInt, target);
         }
-        try {
-            Date date = DateUtils.parse(srcStr);
+        // Every registered pattern of the same shape is tried, and the first which matches is used.
+        Date date = DateUtils.tryParse(srcStr);
+        if (date != null) {
             return TypeConvertUtils.convert(date, target);
         }
-        catch (Exception e) {
-            // Do nothing.
-        }
         return source;
     }
 
@@ -1,21 +1,31 @@
 package artoria.convert;
 
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
 import artoria.logging.Logger;
 import artoria.logging.LoggerFactory;
 import artoria.util.ArrayUtils;
 import artoria.util.Assert;
 import artoria.util.ClassUtils;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Type convert tools.
+ * The converters which will be tried for each pair of source class and target class
+ * are resolved only once, the resolved plans are dropped when the converters changed.
+ * The plans are weakly keyed by the classes and do not reference them,
+ * so they do not prevent the classes from being unloaded.
  * @author Kahle
  */
 public class TypeConvertUtils {
     private static final Map<Class<?>, TypeConverter> CONVERTERS;
+    private static volatile ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, ConvertPlan>> plans = newPlans();
     private static Logger log = LoggerFactory.getLogger(TypeConvertUtils.class);
 
     static {
@@ -30,6 +40,7 @@ public class TypeConvertUtils {
         Assert.notNull(clazz, "Parameter \"clazz\" must not null. ");
         TypeConverter remove = CONVERTERS.remove(clazz);
         if (remove != null) {
+            TypeConvertUtils.clearPlans();
             String removeClassName = remove.getClass().getName();
             String clazzName = clazz.getName();
             log.info("Unregister \"{}\" to \"{}\". ", removeClassName, clazzName);
@@ -44,35 +55,84 @@ public class TypeConvertUtils {
         String clazzName = clazz.getName();
         log.info("Register \"{}\" to \"{}\". ", converterClassName, clazzName);
         CONVERTERS.put(clazz, converter);
+        TypeConvertUtils.clearPlans();
     }
 
-    public static Object convert(Object source, Class<?> target) {
-        if (source == null) { return null; }
-        Class<?> clazz = source.getClass();
-        target = ClassUtils.getWrapper(target);
-        clazz = ClassUtils.getWrapper(clazz);
-        if (target.isAssignableFrom(clazz)) { return source; }
+    private static <V> ConcurrentMap<Class<?>, V> newPlans() {
+
+        return new ConcurrentReferenceMap<Class<?>, V>(ReferenceMap.Type.WEAK, ReferenceMap.Type.STRONG);
+    }
+
+    private static void clearPlans() {
+        // Replace rather than clear, so a plan resolved with
+        // the old converters is put into the map which is discarded.
+        plans = newPlans();
+    }
+
+    private static ConvertPlan createPlan(Class<?> clazz, Class<?> target) {
+        Class<?> wrapper = ClassUtils.getWrapper(target);
+        if (wrapper.isAssignableFrom(ClassUtils.getWrapper(clazz))) {
+            return new ConvertPlan(true, new TypeConverter[0]);
+        }
+        // The same order as the converters are tried : the class, its interfaces, and then its superclass.
+        List<TypeConverter> converters = new ArrayList<TypeConverter>();
+        Class<?> current = ClassUtils.getWrapper(clazz);
         do {
-            TypeConverter converter = CONVERTERS.get(clazz);
-            if (converter != null) {
-                source = converter.convert(source, target);
-                if (source == null) { return null; }
-                if (target.isAssignableFrom(source.getClass())) {
-                    return source;
-                }
-            }
-            Class<?>[] interfaces = clazz.getInterfaces();
+            TypeConverter converter = CONVERTERS.get(current);
+            if (converter != null) { converters.add(converter); }
+            Class<?>[] interfaces = current.getInterfaces();
             if (ArrayUtils.isEmpty(interfaces)) { continue; }
             for (Class<?> inter : interfaces) {
                 converter = CONVERTERS.get(inter);
-                if (converter == null) { continue; }
-                source = converter.convert(source, target);
-                if (target.isAssignableFrom(source.getClass())) {
-                    return source;
-                }
+                if (converter != null) { converters.add(converter); }
+            }
+        } while ((current = current.getSuperclass()) != null);
+        TypeConverter[] array = converters.toArray(new TypeConverter[converters.size()]);
+        return new ConvertPlan(false, array);
+    }
+
+    private static ConvertPlan getPlan(Class<?> clazz, Class<?> target) {
+        ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, ConvertPlan>> plans = TypeConvertUtils.plans;
+        ConcurrentMap<Class<?>, ConvertPlan> targetPlans = plans.get(clazz);
+        if (targetPlans == null) {
+            targetPlans = newPlans();
+            ConcurrentMap<Class<?>, ConvertPlan> old = plans.putIfAbsent(clazz, targetPlans);
+            if (old != null) { targetPlans = old; }
+        }
+        ConvertPlan plan = targetPlans.get(target);
+        if (plan == null) {
+            // A pair which has no converter is also kept, as a plan with empty converters.
+            plan = createPlan(clazz, target);
+            targetPlans.put(target, plan);
+        }
+        return plan;
+    }
+
+    public static Object convert(Object source, Class<?> target) {
+        if (source == null) { return null; }
+        Assert.notNull(target, "Parameter \"target\" must not null. ");
+        ConvertPlan plan = getPlan(source.getClass(), target);
+        if (plan.assignable) { return source; }
+        Class<?> wrapper = ClassUtils.getWrapper(target);
+        for (TypeConverter converter : plan.converters) {
+            source = converter.convert(source, wrapper);
+            if (source == null) { return null; }
+            if (wrapper.isAssignableFrom(source.getClass())) {
+                return source;
             }
-        } while ((clazz = clazz.getSuperclass()) != null);
+        }
         return source;
     }
 
+    private static class ConvertPlan {
+        private final boolean assignable;
+        private final TypeConverter[] converters;
+
+        private ConvertPlan(boolean assignable, TypeConverter[] converters) {
+            this.converters = converters;
+            this.assignable = assignable;
+        }
+
+    }
+
 }
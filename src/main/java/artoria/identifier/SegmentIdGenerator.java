@@ -0,0 +1,285 @@
+package artoria.identifier;
+
+import artoria.jdbc.DatabaseAtom;
+import artoria.jdbc.DatabaseClient;
+import artoria.jdbc.DatabaseException;
+import artoria.lifecycle.Destroyable;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.thread.SimpleThreadFactory;
+import artoria.util.Assert;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static artoria.common.Constants.*;
+
+/**
+ * Id generator implement by the segments leased from the database.
+ * A segment (a range of ids) is leased by increasing the "max_id" of the row in a transaction,
+ * and the ids are handed out from the memory. When a tenth of the current segment is used,
+ * the next segment is leased asynchronously, so the generating usually does not wait for the database.
+ * The size of the segment is doubled when a segment is used up in less than the segment duration,
+ * and is halved when it takes more than twice the segment duration.
+ * The segments are always leased on the loader thread, so the lease is never a part of
+ * the transaction bound to the caller's thread.
+ * <pre>
+ * create table t_id_segment (
+ *     name varchar(64) not null primary key,
+ *     max_id bigint not null
+ * );
+ * insert into t_id_segment (name, max_id) values ('order', 0);
+ * </pre>
+ * @author Kahle
+ */
+public class SegmentIdGenerator implements LongIdentifierGenerator, Destroyable {
+    private static final long DEFAULT_SEGMENT_DURATION = 15L * SIXTY * ONE_THOUSAND;
+    private static final int DEFAULT_MIN_STEP = 1000;
+    private static final int DEFAULT_MAX_STEP = 1000000;
+    private static Logger log = LoggerFactory.getLogger(SegmentIdGenerator.class);
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+    private final Object lock = new Object();
+    private final Runnable loader;
+    private final ThreadPoolExecutor executor;
+    private final DatabaseClient databaseClient;
+    private final String updateSql;
+    private final String selectSql;
+    private final String name;
+    private final int minStep;
+    private final int maxStep;
+    private final long segmentDuration;
+    private volatile Segment current;
+    private volatile Segment next;
+    private int step;
+    private long lastLoadTime;
+    private Exception failure;
+
+    public SegmentIdGenerator(DatabaseClient databaseClient, String tableName, String name) {
+
+        this(databaseClient, tableName, name, DEFAULT_MIN_STEP, DEFAULT_MAX_STEP, DEFAULT_SEGMENT_DURATION);
+    }
+
+    public SegmentIdGenerator(DatabaseClient databaseClient, String tableName, String name
+            , int minStep, int maxStep, long segmentDuration) {
+        Assert.notNull(databaseClient, "Parameter \"databaseClient\" must not null. ");
+        Assert.notBlank(tableName, "Parameter \"tableName\" must not blank. ");
+        Assert.notBlank(name, "Parameter \"name\" must not blank. ");
+        Assert.isTrue(minStep > ZERO, "Parameter \"minStep\" must > 0. ");
+        Assert.isTrue(maxStep >= minStep, "Parameter \"maxStep\" must >= \"minStep\". ");
+        Assert.isTrue(segmentDuration > ZERO, "Parameter \"segmentDuration\" must > 0. ");
+        this.updateSql = "update " + tableName + " set max_id = max_id + ? where name = ?";
+        this.selectSql = "select max_id from " + tableName + " where name = ?";
+        this.databaseClient = databaseClient;
+        this.name = name;
+        this.minStep = minStep;
+        this.maxStep = maxStep;
+        this.segmentDuration = segmentDuration;
+        this.step = minStep;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(ONE, ONE, SIXTY, TimeUnit.SECONDS
+                , new LinkedBlockingQueue<Runnable>(), new SimpleThreadFactory("segment-id-loader", true));
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+        this.loader = new Runnable() {
+            @Override
+            public void run() {
+                Segment segment = null;
+                Exception exception = null;
+                try {
+                    segment = load();
+                }
+                catch (Exception e) {
+                    log.error("Failed to lease the segment \"" + SegmentIdGenerator.this.name + "\". ", e);
+                    exception = e;
+                }
+                synchronized (lock) {
+                    if (segment != null) { next = segment; }
+                    failure = exception;
+                    loading.set(false);
+                    lock.notifyAll();
+                }
+            }
+        };
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Get the size of the segment that will be leased next time.
+     * @return The size of the next segment
+     */
+    public int getStep() {
+        synchronized (lock) {
+            return step;
+        }
+    }
+
+    /**
+     * Compute the size of the segment by the time the last segment was used,
+     * it is called under the lock.
+     * @return The size of the segment
+     */
+    private int nextStep() {
+        long now = System.currentTimeMillis();
+        if (lastLoadTime > ZERO) {
+            long elapsed = now - lastLoadTime;
+            if (elapsed < segmentDuration) {
+                step = (int) Math.min((long) step * TWO, maxStep);
+            }
+            else if (elapsed >= segmentDuration * TWO) {
+                step = Math.max(step / TWO, minStep);
+            }
+        }
+        lastLoadTime = now;
+        return step;
+    }
+
+    /**
+     * Lease a segment from the database.
+     * @return The leased segment
+     */
+    private Segment load() {
+        final int step;
+        synchronized (lock) {
+            step = nextStep();
+        }
+        final long[] maxId = new long[ONE];
+        try {
+            databaseClient.transaction(new DatabaseAtom() {
+                @Override
+                public boolean run() throws SQLException {
+                    int count = databaseClient.executeUpdate(updateSql, step, name);
+                    if (count == ZERO) {
+                        throw new DatabaseException("The segment \"" + name + "\" is not found. ");
+                    }
+                    List<Map<String, Object>> list = databaseClient.executeQuery(selectSql, name);
+                    maxId[ZERO] = ((Number) list.get(ZERO).values().iterator().next()).longValue();
+                    return true;
+                }
+            });
+        }
+        catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+        return new Segment(maxId[ZERO] - step + ONE, maxId[ZERO]);
+    }
+
+    /**
+     * Lease the next segment on the loader thread if it is not leased or being leased.
+     * @return False if the loader is shut down (the generator is destroyed), otherwise true
+     */
+    private boolean lease() {
+        if (next != null || !loading.compareAndSet(false, true)) { return true; }
+        try {
+            executor.execute(loader);
+            return true;
+        }
+        catch (RejectedExecutionException e) {
+            synchronized (lock) {
+                loading.set(false);
+                lock.notifyAll();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Switch to the next segment when the current one is used up, if the next segment is
+     * being leased, wait for it, otherwise (the first time or the prefetch failed) lease it
+     * on the loader thread and wait for it.
+     * @param exhausted The used up segment
+     */
+    private void switchSegment(Segment exhausted) {
+        synchronized (lock) {
+            boolean leased = false;
+            while (current == exhausted) {
+                if (next != null) {
+                    current = next;
+                    next = null;
+                }
+                else if (loading.get()) {
+                    try {
+                        lock.wait();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new DatabaseException("Interrupted while leasing the segment \"" + name + "\". ", e);
+                    }
+                }
+                else if (leased) {
+                    throw new DatabaseException("Failed to lease the segment \"" + name + "\". ", failure);
+                }
+                else if (lease()) {
+                    leased = true;
+                }
+                else {
+                    throw new IllegalStateException("The generator of the segment \"" + name + "\" is destroyed. ");
+                }
+            }
+        }
+    }
+
+    /**
+     * Generate the next id without boxing.
+     * @return The next id
+     */
+    public long nextId() {
+        for (;;) {
+            Segment segment = current;
+            if (segment != null) {
+                long id = segment.cursor.getAndIncrement();
+                if (id <= segment.max) {
+                    if (id == segment.prefetchAt) { lease(); }
+                    return id;
+                }
+            }
+            switchSegment(segment);
+        }
+    }
+
+    @Override
+    public Object nextIdentifier() {
+
+        return nextId();
+    }
+
+    @Override
+    public Long nextLongIdentifier() {
+
+        return nextId();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        // The lease that is dropped before it runs never resets the flag itself.
+        if (!executor.shutdownNow().isEmpty()) {
+            synchronized (lock) {
+                loading.set(false);
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static class Segment {
+        private final AtomicLong cursor;
+        private final long max;
+        private final long prefetchAt;
+
+        Segment(long min, long max) {
+            this.cursor = new AtomicLong(min);
+            this.max = max;
+            this.prefetchAt = min + (max - min) / TEN;
+        }
+
+    }
+
+}
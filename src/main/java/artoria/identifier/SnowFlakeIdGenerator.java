@@ -2,12 +2,18 @@ package artoria.identifier;
 
 import artoria.time.Clock;
 import artoria.time.SystemClock;
+import artoria.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 import static artoria.common.Constants.ONE;
 import static artoria.common.Constants.ZERO;
 
 /**
- * Id generator implement by snow flake id simple.
+ * Id generator implement by snow flake id simple, it is lock free,
+ * the timestamp and the sequence are changed together by the compare and set.
+ * In the borrowing mode, it never blocks or throws when the clock moved backwards
+ * or more than 4096 ids are generated in a millisecond.
  * @author Kahle
  */
 public class SnowFlakeIdGenerator implements LongIdentifierGenerator {
@@ -53,25 +59,33 @@ public class SnowFlakeIdGenerator implements LongIdentifierGenerator {
      */
     private static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
     /**
-     * The timestamp when the snow flake id was last generated.
+     * The timestamp and the sequence when the snow flake id was last generated,
+     * packed as "timestamp << 12 | sequence" (the timestamp is -1 at the beginning),
+     * so they can be changed together by one compare and set.
      */
-    private long lastTimestamp = -1L;
+    private final AtomicLong state = new AtomicLong(-1L << SEQUENCE_BITS);
     /**
-     * Sequence in millisecond (0~4095).
+     * The data center id and the work machine id moved to their positions.
      */
-    private long sequence = 0L;
+    private final long node;
     /**
      * Data center id (0~31).
      */
-    private long dataCenterId;
+    private final long dataCenterId;
     /**
      * Work machine id (0~31).
      */
-    private long workerId;
+    private final long workerId;
     /**
      * The clock used to get the current timestamp.
      */
-    private Clock clock;
+    private final Clock clock;
+    /**
+     * Whether borrow the timestamp from a logical clock, when the clock moved backwards
+     * or the sequence overflow in milliseconds, the last timestamp is advanced instead of
+     * throwing an exception or blocking, so the logical clock may run ahead of the wall time.
+     */
+    private final boolean borrowing;
 
     /**
      * No-parameter constructor method.
@@ -88,6 +102,18 @@ public class SnowFlakeIdGenerator implements LongIdentifierGenerator {
      * @param clock The clock
      */
     public SnowFlakeIdGenerator(long dataCenterId, long workerId, Clock clock) {
+
+        this(dataCenterId, workerId, clock, false);
+    }
+
+    /**
+     * Constructor method.
+     * @param dataCenterId Data center id
+     * @param workerId Work machine id
+     * @param clock The clock
+     * @param borrowing Whether borrow the timestamp from a logical clock
+     */
+    public SnowFlakeIdGenerator(long dataCenterId, long workerId, Clock clock, boolean borrowing) {
         if (dataCenterId > MAX_DATA_CENTER_ID || dataCenterId < ZERO) {
             throw new IllegalArgumentException(
                     "Data center id can't be greater than " + MAX_DATA_CENTER_ID + " or less than 0"
@@ -103,9 +129,11 @@ public class SnowFlakeIdGenerator implements LongIdentifierGenerator {
                     "The clock can't be null"
             );
         }
+        this.node = (dataCenterId << DATA_CENTER_ID_LEFT_SHIFT) | (workerId << WORKER_ID_LEFT_SHIFT);
         this.dataCenterId = dataCenterId;
         this.workerId = workerId;
         this.clock = clock;
+        this.borrowing = borrowing;
     }
 
     /**
@@ -116,48 +144,129 @@ public class SnowFlakeIdGenerator implements LongIdentifierGenerator {
     protected long waitUntilNextMillis(long lastTimestamp) {
         long currentTimestamp = clock.getTime();
         while (currentTimestamp <= lastTimestamp) {
+            Thread.yield();
             currentTimestamp = clock.getTime();
         }
         return currentTimestamp;
     }
 
+    /**
+     * Reserve at most "count" sequences in the same millisecond by one compare and set.
+     * The number of reserved sequences is "min(count, 4096 - sequence of the returned state)".
+     * @param count The maximum number of sequences to reserve (1~4096)
+     * @return The packed timestamp and sequence of the first reserved one
+     */
+    private long reserve(int count) {
+        for (;;) {
+            long current = state.get();
+            long lastTimestamp = current >> SEQUENCE_BITS;
+            long currentTimestamp = clock.getTime();
+            long first;
+            if (currentTimestamp > lastTimestamp) {
+                // The timestamp changes and the sequence is reset in milliseconds.
+                first = currentTimestamp << SEQUENCE_BITS;
+            }
+            else if (borrowing) {
+                // The sequence overflow carries into the timestamp, so the next millisecond is borrowed.
+                first = current + ONE;
+            }
+            else if (currentTimestamp < lastTimestamp) {
+                // If the current time is less than the timestamp generated by the last id.
+                // An exception should be thrown when the system clock has gone back.
+                throw new IllegalStateException(
+                        "Clock moved backwards. Refusing to generate id for "
+                                + (lastTimestamp - currentTimestamp) + " milliseconds"
+                );
+            }
+            else if ((current & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                // Sequence overflow in milliseconds, block to the next millisecond.
+                waitUntilNextMillis(lastTimestamp);
+                continue;
+            }
+            else {
+                first = current + ONE;
+            }
+            long reserved = Math.min(count, SEQUENCE_MASK + ONE - (first & SEQUENCE_MASK));
+            if (state.compareAndSet(current, first + reserved - ONE)) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * Computes the snow flake id by shifting and or operations.
+     * @param packed The packed timestamp and sequence
+     * @return The snow flake id
+     */
+    private long toId(long packed) {
+        long timestamp = packed >> SEQUENCE_BITS;
+        return ((timestamp - TIME_OFFSET) << TIMESTAMP_LEFT_SHIFT) | node | (packed & SEQUENCE_MASK);
+    }
+
+    public long getDataCenterId() {
+
+        return dataCenterId;
+    }
+
+    public long getWorkerId() {
+
+        return workerId;
+    }
+
+    public boolean isBorrowing() {
+
+        return borrowing;
+    }
+
+    /**
+     * Get how far the timestamp of the last generated id is ahead of the wall time.
+     * It is only positive in the borrowing mode (after the clock moved backwards or a burst).
+     * @return The milliseconds ahead of the wall time, or 0
+     */
+    public long getAheadMillis() {
+        long ahead = (state.get() >> SEQUENCE_BITS) - clock.getTime();
+        return ahead > ZERO ? ahead : ZERO;
+    }
+
+    /**
+     * Generate the next snow flake id without locking and boxing.
+     * @return The next snow flake id
+     */
+    public long nextId() {
+
+        return toId(reserve(ONE));
+    }
+
+    /**
+     * Generate the next snow flake ids, the sequences in the same millisecond
+     * are reserved together, so it costs one compare and set for every 4096 ids at most.
+     * @param count The number of ids
+     * @return The next snow flake ids in ascending order
+     */
+    public long[] nextIds(int count) {
+        Assert.isTrue(count >= ZERO, "Parameter \"count\" must >= 0. ");
+        long[] ids = new long[count];
+        int index = ZERO;
+        while (index < count) {
+            long first = reserve(Math.min(count - index, (int) SEQUENCE_MASK + ONE));
+            long last = Math.min(first + count - index - ONE, first | SEQUENCE_MASK);
+            for (long packed = first; packed <= last; packed++) {
+                ids[index++] = toId(packed);
+            }
+        }
+        return ids;
+    }
+
     @Override
     public Object nextIdentifier() {
 
-        return nextLongIdentifier();
+        return nextId();
     }
 
     @Override
-    public synchronized Long nextLongIdentifier() {
-        long currentTimestamp = clock.getTime();
-        // If the current time is less than the timestamp generated by the last id.
-        // An exception should be thrown when the system clock has gone back.
-        if (currentTimestamp < lastTimestamp) {
-            throw new IllegalStateException(
-                    "Clock moved backwards. Refusing to generate id for "
-                            + (lastTimestamp - currentTimestamp) + " milliseconds"
-            );
-        }
-        // If it is generated at the same time.
-        // The millisecond sequence is performed.
-        if (lastTimestamp == currentTimestamp) {
-            sequence = (sequence + ONE) & SEQUENCE_MASK;
-            // Sequence overflow in milliseconds.
-            if (sequence == ZERO) {
-                // Block to the next millisecond and get the new timestamp.
-                currentTimestamp = waitUntilNextMillis(lastTimestamp);
-            }
-        }
-        else {
-            // The timestamp changes and the sequence is reset in milliseconds.
-            sequence = ZERO;
-        }
-        lastTimestamp = currentTimestamp;
-        // Computes the result by shifting and or operations.
-        return ((currentTimestamp - TIME_OFFSET) << TIMESTAMP_LEFT_SHIFT)
-                | (dataCenterId << DATA_CENTER_ID_LEFT_SHIFT)
-                | (workerId << WORKER_ID_LEFT_SHIFT)
-                | sequence;
+    public Long nextLongIdentifier() {
+
+        return nextId();
     }
 
 }
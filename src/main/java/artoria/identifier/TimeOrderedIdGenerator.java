@@ -0,0 +1,158 @@
+package artoria.identifier;
+
+import artoria.time.Clock;
+import artoria.time.SystemClock;
+import artoria.util.Assert;
+
+import java.security.SecureRandom;
+
+/**
+ * Id generator implement by the time ordered uuid (the version 7 layout),
+ * the first 48 bits are the unix timestamp in milliseconds and the rest are random,
+ * so the ids generated later are greater (in the milliseconds precision) in all formats.
+ * The random bits come from a thread local generator (seeded once by the secure random),
+ * and the id is written into a char array directly.
+ * @author Kahle
+ */
+public class TimeOrderedIdGenerator implements StringIdentifierGenerator {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char[] CROCKFORD_DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final char[] BASE62_DIGITS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final SecureRandom SEED_RANDOM = new SecureRandom();
+    private static final ThreadLocal<long[]> RANDOM_STATE = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            synchronized (SEED_RANDOM) {
+                return new long[] { SEED_RANDOM.nextLong() };
+            }
+        }
+    };
+    private final Format format;
+    private final Clock clock;
+
+    public TimeOrderedIdGenerator() {
+
+        this(Format.HEX);
+    }
+
+    public TimeOrderedIdGenerator(Format format) {
+
+        this(format, new SystemClock());
+    }
+
+    public TimeOrderedIdGenerator(Format format, Clock clock) {
+        Assert.notNull(format, "Parameter \"format\" must not null. ");
+        Assert.notNull(clock, "Parameter \"clock\" must not null. ");
+        this.format = format;
+        this.clock = clock;
+    }
+
+    /**
+     * The next random long of the current thread (split mix 64).
+     * @return The random long
+     */
+    private static long nextRandom() {
+        long[] state = RANDOM_STATE.get();
+        long z = (state[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String toHex(long msb, long lsb, boolean minus) {
+        char[] chars = new char[minus ? 36 : 32];
+        int index = chars.length;
+        for (int i = 0; i < 16; i++) {
+            if (minus && i == 12) { chars[--index] = '-'; }
+            chars[--index] = HEX_DIGITS[(int) (lsb & 15)];
+            lsb >>>= 4;
+        }
+        for (int i = 0; i < 16; i++) {
+            if (minus && (i == 0 || i == 4 || i == 8)) { chars[--index] = '-'; }
+            chars[--index] = HEX_DIGITS[(int) (msb & 15)];
+            msb >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    private static String toCrockford(long msb, long lsb) {
+        // 26 chars for 130 bits, the first char has only 3 bits.
+        char[] chars = new char[26];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD_DIGITS[(int) (lsb & 31)];
+            lsb = (lsb >>> 5) | (msb << 59);
+            msb >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static String toBase62(long msb, long lsb) {
+        // 22 chars for 128 bits, divide the four 32 bits words by 62 again and again.
+        long[] words = new long[] { msb >>> 32, msb & 0xFFFFFFFFL, lsb >>> 32, lsb & 0xFFFFFFFFL };
+        char[] chars = new char[22];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            long remainder = 0;
+            for (int j = 0; j < words.length; j++) {
+                long current = (remainder << 32) | words[j];
+                words[j] = current / 62;
+                remainder = current % 62;
+            }
+            chars[i] = BASE62_DIGITS[(int) remainder];
+        }
+        return new String(chars);
+    }
+
+    static String format(long msb, long lsb, Format format) {
+        switch (format) {
+            case UUID: return toHex(msb, lsb, true);
+            case CROCKFORD: return toCrockford(msb, lsb);
+            case BASE62: return toBase62(msb, lsb);
+            default: return toHex(msb, lsb, false);
+        }
+    }
+
+    public Format getFormat() {
+
+        return format;
+    }
+
+    @Override
+    public Object nextIdentifier() {
+
+        return nextStringIdentifier();
+    }
+
+    @Override
+    public String nextStringIdentifier() {
+        long random = nextRandom();
+        // 48 bits timestamp, 4 bits version (7), 12 bits random.
+        long msb = (clock.getTime() << 16) | 0x7000L | (random & 0xFFFL);
+        // 2 bits variant (0b10), 62 bits random.
+        long lsb = (nextRandom() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return format(msb, lsb, format);
+    }
+
+    /**
+     * The string format of the time ordered id.
+     */
+    public enum Format {
+        /**
+         * 32 lowercase hex digits without the minus (the same as the simple id generator).
+         */
+        HEX,
+        /**
+         * 36 chars, the standard uuid string.
+         */
+        UUID,
+        /**
+         * 26 chars, the crockford base32.
+         */
+        CROCKFORD,
+        /**
+         * 22 chars, the base62 (digits, uppercase and lowercase letters).
+         */
+        BASE62
+    }
+
+}
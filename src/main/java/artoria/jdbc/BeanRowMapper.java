@@ -0,0 +1,241 @@
+package artoria.jdbc;
+
+import artoria.beans.BeanDescriptor;
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
+import artoria.convert.TypeConvertUtils;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.reflect.Instantiator;
+import artoria.reflect.ReflectUtils;
+import artoria.reflect.Setter;
+import artoria.util.ClassUtils;
+import artoria.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static artoria.common.Constants.ONE;
+import static artoria.common.Constants.ZERO;
+
+/**
+ * The row mapper which reads the row into a bean without an intermediate map.
+ * It is compiled once for a column layout and a bean class, each column is bound to the setter
+ * of its property, and it is read by the typed getter of the result set if the column type matches.
+ * The other columns are read by "getObject" and converted like the bean utils.
+ * The mappers are cached by the bean class and the sql, and compiled again if the column layout is changed.
+ * The cache is weakly keyed by the bean class and the mappers are softly referenced. The mappers
+ * reference the bean class, so the class can be unloaded only after they are cleared when the memory is tight.
+ * @param <T> Bean type
+ * @author Kahle
+ */
+class BeanRowMapper<T> implements RowMapper<T> {
+    private static final int MAX_CACHED_SQL = 256;
+    private static final int OBJECT = 0;
+    private static final int STRING = 1;
+    private static final int INT = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int FLOAT = 5;
+    private static final int BOOLEAN = 6;
+    private static final int BIG_DECIMAL = 7;
+    private static final int TIMESTAMP = 8;
+    private static final int DATE = 9;
+    private static final int TIME = 10;
+    private static final int BYTES = 11;
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, BeanRowMapper<?>>> MAPPERS =
+            new ConcurrentReferenceMap<Class<?>, ConcurrentMap<String, BeanRowMapper<?>>>(ReferenceMap.Type.WEAK, ReferenceMap.Type.SOFT);
+    private static Logger log = LoggerFactory.getLogger(BeanRowMapper.class);
+    private final Instantiator<T> instantiator;
+    private final String[] columnNames;
+    private final int[] columnTypes;
+    // The bound columns only.
+    private final Setter<Object, Object>[] setters;
+    private final Class<?>[] writeTypes;
+    private final boolean[] primitives;
+    private final int[] readTypes;
+    private final int[] indexes;
+
+    @SuppressWarnings("unchecked")
+    BeanRowMapper(Class<T> beanClass, String[] columnNames, int[] columnTypes) {
+        try {
+            this.instantiator = ReflectUtils.findInstantiator(ReflectUtils.findConstructor(beanClass));
+        }
+        catch (NoSuchMethodException e) {
+            throw new DatabaseException("The class \"" + beanClass.getName()
+                    + "\" has no constructor without parameter. ", e);
+        }
+        BeanDescriptor descriptor = BeanDescriptor.forClass(beanClass);
+        List<Integer> bound = new ArrayList<Integer>(columnNames.length);
+        List<BeanDescriptor.Property> properties = new ArrayList<BeanDescriptor.Property>(columnNames.length);
+        for (int i = ZERO; i < columnNames.length; i++) {
+            String name = StringUtils.underlineToCamel(columnNames[i]);
+            BeanDescriptor.Property property = descriptor.getProperty(name);
+            if (property == null || property.getSetter() == null) { continue; }
+            properties.add(property);
+            bound.add(i);
+        }
+        int size = bound.size();
+        this.setters = (Setter<Object, Object>[]) new Setter<?, ?>[size];
+        this.writeTypes = new Class<?>[size];
+        this.primitives = new boolean[size];
+        this.readTypes = new int[size];
+        this.indexes = new int[size];
+        for (int i = ZERO; i < size; i++) {
+            BeanDescriptor.Property property = properties.get(i);
+            int column = bound.get(i);
+            setters[i] = property.getSetter();
+            writeTypes[i] = property.getWriteType();
+            primitives[i] = writeTypes[i].isPrimitive();
+            readTypes[i] = readType(writeTypes[i], columnTypes[column]);
+            indexes[i] = column + ONE;
+        }
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+    }
+
+    /**
+     * Get the compiled mapper of the query, it is compiled if it is not cached or the column layout is changed.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> BeanRowMapper<T> forQuery(Class<T> beanClass, String sql, ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        String[] columnNames = new String[count];
+        int[] columnTypes = new int[count];
+        for (int i = ZERO; i < count; i++) {
+            columnNames[i] = metaData.getColumnName(i + ONE);
+            columnTypes[i] = metaData.getColumnType(i + ONE);
+        }
+        ConcurrentMap<String, BeanRowMapper<?>> mappers = MAPPERS.get(beanClass);
+        if (mappers == null) {
+            mappers = new ConcurrentHashMap<String, BeanRowMapper<?>>();
+            ConcurrentMap<String, BeanRowMapper<?>> old = MAPPERS.putIfAbsent(beanClass, mappers);
+            if (old != null) { mappers = old; }
+        }
+        BeanRowMapper<T> mapper = (BeanRowMapper<T>) mappers.get(sql);
+        if (mapper != null && mapper.matches(columnNames, columnTypes)) {
+            return mapper;
+        }
+        mapper = new BeanRowMapper<T>(beanClass, columnNames, columnTypes);
+        // The sql which is built with literal values should not fill the cache.
+        if (mappers.size() >= MAX_CACHED_SQL) {
+            mappers.clear();
+        }
+        mappers.put(sql, mapper);
+        return mapper;
+    }
+
+    private static int doubleType(Class<?> type) {
+
+        return type == Double.class ? DOUBLE : OBJECT;
+    }
+
+    private static int longType(Class<?> type) {
+
+        return type == Long.class ? LONG : doubleType(type);
+    }
+
+    private static int readType(Class<?> writeType, int columnType) {
+        Class<?> type = ClassUtils.getWrapper(writeType);
+        switch (columnType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return type == String.class ? STRING : OBJECT;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                // The smaller integer can also be read as the long or the double.
+                return type == Integer.class ? INT : longType(type);
+            case Types.BIGINT:
+                return longType(type);
+            case Types.REAL:
+                return type == Float.class ? FLOAT : doubleType(type);
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return doubleType(type);
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return type == BigDecimal.class ? BIG_DECIMAL : OBJECT;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return type == Boolean.class ? BOOLEAN : OBJECT;
+            case Types.TIMESTAMP:
+                return type == Timestamp.class || type == java.util.Date.class ? TIMESTAMP : OBJECT;
+            case Types.DATE:
+                return type == java.sql.Date.class || type == java.util.Date.class ? DATE : OBJECT;
+            case Types.TIME:
+                return type == Time.class || type == java.util.Date.class ? TIME : OBJECT;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return type == byte[].class ? BYTES : OBJECT;
+            default:
+                return OBJECT;
+        }
+    }
+
+    boolean matches(String[] columnNames, int[] columnTypes) {
+
+        return Arrays.equals(this.columnNames, columnNames) && Arrays.equals(this.columnTypes, columnTypes);
+    }
+
+    private Object read(ResultSet resultSet, int i) throws SQLException {
+        int index = indexes[i];
+        Object value;
+        switch (readTypes[i]) {
+            case STRING: return resultSet.getString(index);
+            case INT: value = resultSet.getInt(index); break;
+            case LONG: value = resultSet.getLong(index); break;
+            case DOUBLE: value = resultSet.getDouble(index); break;
+            case FLOAT: value = resultSet.getFloat(index); break;
+            case BOOLEAN: value = resultSet.getBoolean(index); break;
+            case BIG_DECIMAL: return resultSet.getBigDecimal(index);
+            case TIMESTAMP: return resultSet.getTimestamp(index);
+            case DATE: return resultSet.getDate(index);
+            case TIME: return resultSet.getTime(index);
+            case BYTES: return resultSet.getBytes(index);
+            default: return resultSet.getObject(index);
+        }
+        // The primitive getters return zero or false for null.
+        return resultSet.wasNull() ? null : value;
+    }
+
+    @Override
+    public T map(ResultSet resultSet) throws SQLException {
+        T bean = instantiator.newInstance();
+        for (int i = ZERO; i < setters.length; i++) {
+            Object value = read(resultSet, i);
+            if (value == null) {
+                if (!primitives[i]) { setters[i].set(bean, null); }
+                continue;
+            }
+            if (readTypes[i] != OBJECT) {
+                setters[i].set(bean, value);
+                continue;
+            }
+            // The same as the bean map, the property which can not be converted is ignored.
+            try {
+                setters[i].set(bean, TypeConvertUtils.convert(value, writeTypes[i]));
+            }
+            catch (RuntimeException e) {
+                log.debug("Execution \"map\" error. ", e);
+            }
+        }
+        return bean;
+    }
+
+}
@@ -1,15 +1,16 @@
 package artoria.jdbc;
 
-import artoria.beans.BeanUtils;
+import artoria.beans.BeanDescriptor;
 import artoria.exception.ExceptionUtils;
 import artoria.logging.Logger;
 import artoria.logging.LoggerFactory;
+import artoria.reflect.Getter;
 import artoria.util.Assert;
 import artoria.util.CloseUtils;
-import artoria.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,10 +23,12 @@ import static artoria.common.Constants.*;
  * @author Kahle
  */
 public class DatabaseClient {
+    private static final int DEFAULT_BATCH_SIZE = 1000;
     private static final int DEFAULT_TRANSACTION_LEVEL = Connection.TRANSACTION_REPEATABLE_READ;
     private static Logger log = LoggerFactory.getLogger(DatabaseClient.class);
     private final ThreadLocal<Connection> threadConnection = new ThreadLocal<Connection>();
     private DataSource dataSource;
+    private int fetchSize;
 
     public DatabaseClient(DataSource dataSource) {
 
@@ -42,6 +45,21 @@ public class DatabaseClient {
         this.dataSource = dataSource;
     }
 
+    public int getFetchSize() {
+
+        return fetchSize;
+    }
+
+    /**
+     * The fetch size hint of the query, zero means the default of the driver.
+     * Some drivers need more than it to stream, e.g. MySQL needs "Integer.MIN_VALUE"
+     * (or "useCursorFetch=true"), and PostgreSQL needs the query to run in a transaction.
+     */
+    public void setFetchSize(int fetchSize) {
+
+        this.fetchSize = fetchSize;
+    }
+
     public List<TableMeta> getTableMetaList() throws SQLException {
         List<TableMeta> tableMetaList = new ArrayList<TableMeta>();
         String[] types = new String[]{"TABLE"};
@@ -116,45 +134,57 @@ public class DatabaseClient {
     }
 
     public <T> List<T> executeQuery(Class<T> clazz, String sql, Object... params) throws SQLException {
-        List<Map<String, Object>> list = executeQuery(sql, params);
-        return BeanUtils.mapToBeanInList(list, clazz);
+        Assert.notNull(clazz, "Parameter \"clazz\" must not null. ");
+        final List<T> result = new ArrayList<T>();
+        executeQuery(clazz, new RowHandler<T>() {
+            @Override
+            public boolean handle(T row) {
+                result.add(row);
+                return true;
+            }
+        }, sql, params);
+        return result;
     }
 
     public List<Map<String, Object>> executeQuery(String sql, Object... params) throws SQLException {
-        PreparedStatement prepStat = null;
-        ResultSet resSet = null;
-        Connection conn = null;
-        try {
-            conn = getConnection();
-            prepStat = conn.prepareStatement(sql);
-            for (int i = ZERO; i < params.length; i++) {
-                prepStat.setObject(i + ONE, params[i]);
-            }
-            resSet = prepStat.executeQuery();
-            ResultSetMetaData metaData = resSet.getMetaData();
-            int count = metaData.getColumnCount();
-            // Handle keys.
-            String[] keys = new String[count];
-            for (int i = ZERO; i < count; i++) {
-                String key = metaData.getColumnName(i + ONE);
-                keys[i] = StringUtils.underlineToCamel(key);
-            }
-            // Handle result to map.
-            List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
-            while (resSet.next()) {
-                Map<String, Object> data = new HashMap<String, Object>(count);
-                for (int i = ZERO; i < count; i++) {
-                    data.put(keys[i], resSet.getObject(i + ONE));
-                }
-                result.add(data);
+        final List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+        executeQuery(new RowHandler<Map<String, Object>>() {
+            @Override
+            public boolean handle(Map<String, Object> row) {
+                result.add(row);
+                return true;
             }
-            return result;
-        }
-        finally {
-            CloseUtils.closeQuietly(resSet);
-            CloseUtils.closeQuietly(prepStat);
-            closeConnection(conn);
-        }
+        }, sql, params);
+        return result;
+    }
+
+    public <T> long executeQuery(Class<T> clazz, RowHandler<T> handler, String sql, Object... params) throws SQLException {
+        Assert.notNull(clazz, "Parameter \"clazz\" must not null. ");
+        return handleRows(clazz, handler, sql, params);
+    }
+
+    /**
+     * Stream the rows of the query to the handler without collecting them,
+     * the query is stopped when the handler return false.
+     * @return The number of the rows handled
+     */
+    public long executeQuery(RowHandler<Map<String, Object>> handler, String sql, Object... params) throws SQLException {
+
+        return handleRows(null, handler, sql, params);
+    }
+
+    public <T> DatabaseCursor<T> openCursor(Class<T> clazz, String sql, Object... params) throws SQLException {
+        Assert.notNull(clazz, "Parameter \"clazz\" must not null. ");
+        return createCursor(clazz, sql, params);
+    }
+
+    /**
+     * Open a forward only and read only cursor of the query, it must be closed if it is not read to the end.
+     * The connection is held until the cursor is closed, or it is the connection of the current transaction.
+     */
+    public DatabaseCursor<Map<String, Object>> openCursor(String sql, Object... params) throws SQLException {
+
+        return createCursor(null, sql, params);
     }
 
     public int executeUpdate(String sql, Object... params) throws SQLException {
@@ -174,6 +204,46 @@ public class DatabaseClient {
         }
     }
 
+    public int[] executeBatch(String sql, List<Object[]> params) throws SQLException {
+
+        return executeBatch(sql, params, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Execute the sql with each parameter set, the parameter sets are sent in batches of the batch size.
+     * It runs in the transaction of the current thread, or in its own transaction if there is not one.
+     * @return The update counts of the parameter sets (in the same order)
+     */
+    public int[] executeBatch(String sql, List<Object[]> params, int batchSize) throws SQLException {
+
+        return doExecuteBatch(sql, params, batchSize, null);
+    }
+
+    /**
+     * Execute the sql with the properties of each bean as the parameters.
+     * The getters of the properties are looked up once for each bean class.
+     * @param properties The property names in the order of the parameters of the sql
+     */
+    public <T> int[] executeBatch(String sql, List<T> beans, String[] properties, int batchSize) throws SQLException {
+
+        return doExecuteBatch(sql, beanParams(beans, properties), batchSize, null);
+    }
+
+    /**
+     * Execute the insert sql in batches and return the generated keys.
+     * @return The first column of the generated keys (in the same order)
+     */
+    public List<Object> executeBatchForKeys(String sql, List<Object[]> params, int batchSize) throws SQLException {
+        List<Object> keys = new ArrayList<Object>(params != null ? params.size() : ZERO);
+        doExecuteBatch(sql, params, batchSize, keys);
+        return keys;
+    }
+
+    public <T> List<Object> executeBatchForKeys(String sql, List<T> beans, String[] properties, int batchSize) throws SQLException {
+
+        return executeBatchForKeys(sql, beanParams(beans, properties), batchSize);
+    }
+
     public <T> T execute(DatabaseCallback<T> callback) throws SQLException {
         Connection connection = null;
         try {
@@ -185,6 +255,167 @@ public class DatabaseClient {
         }
     }
 
+    private <T> long handleRows(Class<T> clazz, RowHandler<T> handler, String sql, Object... params) throws SQLException {
+        Assert.notNull(handler, "Parameter \"handler\" must not null. ");
+        DatabaseCursor<T> cursor = createCursor(clazz, sql, params);
+        try {
+            while (cursor.hasNext()) {
+                if (!handler.handle(cursor.next())) { break; }
+            }
+            return cursor.getRowCount();
+        }
+        finally {
+            cursor.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> DatabaseCursor<T> createCursor(Class<T> clazz, String sql, Object... params) throws SQLException {
+        Assert.notBlank(sql, "Parameter \"sql\" must not blank. ");
+        boolean inTransaction = threadConnection.get() != null;
+        PreparedStatement prepStat = null;
+        ResultSet resSet = null;
+        Connection conn = null;
+        try {
+            conn = getConnection();
+            prepStat = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize != ZERO) {
+                prepStat.setFetchSize(fetchSize);
+            }
+            for (int i = ZERO; i < params.length; i++) {
+                prepStat.setObject(i + ONE, params[i]);
+            }
+            resSet = prepStat.executeQuery();
+            ResultSetMetaData metaData = resSet.getMetaData();
+            RowMapper<T> rowMapper = clazz != null
+                    ? BeanRowMapper.forQuery(clazz, sql, metaData)
+                    : (RowMapper<T>) new MapRowMapper(metaData);
+            return new DatabaseCursor<T>(conn, !inTransaction, prepStat, resSet, rowMapper);
+        }
+        catch (SQLException e) {
+            CloseUtils.closeQuietly(resSet);
+            CloseUtils.closeQuietly(prepStat);
+            closeConnection(conn);
+            throw e;
+        }
+        catch (RuntimeException e) {
+            CloseUtils.closeQuietly(resSet);
+            CloseUtils.closeQuietly(prepStat);
+            closeConnection(conn);
+            throw e;
+        }
+    }
+
+    private <T> List<Object[]> beanParams(final List<T> beans, final String[] properties) {
+        Assert.notNull(beans, "Parameter \"beans\" must not null. ");
+        Assert.notEmpty(properties, "Parameter \"properties\" must not empty. ");
+        // A view of the beans, so the parameter sets are created only when they are sent.
+        return new AbstractList<Object[]>() {
+            private Class<?> beanClass;
+            private Getter<Object, Object>[] getters;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object[] get(int index) {
+                Object bean = beans.get(index);
+                Assert.notNull(bean, "The bean at " + index + " must not null. ");
+                if (bean.getClass() != beanClass) {
+                    BeanDescriptor descriptor = BeanDescriptor.forClass(bean.getClass());
+                    getters = (Getter<Object, Object>[]) new Getter<?, ?>[properties.length];
+                    for (int i = ZERO; i < properties.length; i++) {
+                        BeanDescriptor.Property property = descriptor.getProperty(properties[i]);
+                        getters[i] = property != null ? property.getGetter() : null;
+                        Assert.notNull(getters[i], "The property \"" + properties[i]
+                                + "\" of \"" + bean.getClass().getName() + "\" is not readable. ");
+                    }
+                    beanClass = bean.getClass();
+                }
+                Object[] params = new Object[getters.length];
+                for (int i = ZERO; i < getters.length; i++) {
+                    params[i] = getters[i].get(bean);
+                }
+                return params;
+            }
+
+            @Override
+            public int size() {
+
+                return beans.size();
+            }
+        };
+    }
+
+    private int[] doExecuteBatch(String sql, List<Object[]> params, int batchSize, List<Object> keys) throws SQLException {
+        Assert.notBlank(sql, "Parameter \"sql\" must not blank. ");
+        Assert.notNull(params, "Parameter \"params\" must not null. ");
+        Assert.isTrue(batchSize > ZERO, "Parameter \"batchSize\" must greater than 0. ");
+        Connection connection = threadConnection.get();
+        if (connection != null) {
+            return executeChunks(connection, sql, params, batchSize, keys);
+        }
+        // The batches are committed together.
+        Boolean autoCommit = null;
+        try {
+            connection = dataSource.getConnection();
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            int[] result = executeChunks(connection, sql, params, batchSize, keys);
+            connection.commit();
+            return result;
+        }
+        catch (SQLException e) {
+            rollbackTransaction(connection);
+            throw e;
+        }
+        catch (RuntimeException e) {
+            rollbackTransaction(connection);
+            throw e;
+        }
+        finally {
+            closeTransaction(connection, autoCommit);
+        }
+    }
+
+    private int[] executeChunks(Connection connection, String sql
+            , List<Object[]> params, int batchSize, List<Object> keys) throws SQLException {
+        PreparedStatement prepStat = null;
+        try {
+            prepStat = keys != null
+                    ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : connection.prepareStatement(sql);
+            int size = params.size();
+            int[] result = new int[size];
+            for (int start = ZERO; start < size; start += batchSize) {
+                int end = Math.min(start + batchSize, size);
+                for (int i = start; i < end; i++) {
+                    Object[] values = params.get(i);
+                    for (int j = ZERO; j < values.length; j++) {
+                        prepStat.setObject(j + ONE, values[j]);
+                    }
+                    prepStat.addBatch();
+                }
+                int[] counts = prepStat.executeBatch();
+                System.arraycopy(counts, ZERO, result, start, Math.min(counts.length, end - start));
+                if (keys != null) {
+                    ResultSet keySet = prepStat.getGeneratedKeys();
+                    try {
+                        while (keySet.next()) {
+                            keys.add(keySet.getObject(ONE));
+                        }
+                    }
+                    finally {
+                        CloseUtils.closeQuietly(keySet);
+                    }
+                }
+                log.debug("Execute batch from {} to {} of {}. ", start, end, size);
+            }
+            return result;
+        }
+        finally {
+            CloseUtils.closeQuietly(prepStat);
+        }
+    }
+
     private Connection getConnection() throws SQLException {
         Connection connection = threadConnection.get();
         if (connection == null) {
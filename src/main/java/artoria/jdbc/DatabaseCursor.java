@@ -0,0 +1,103 @@
+package artoria.jdbc;
+
+import artoria.util.CloseUtils;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Database cursor, the rows are read from the result set lazily.
+ * It is closed automatically when the last row is read,
+ * and it should be closed in finally when the iteration may stop early.
+ * @param <T> Row type
+ * @author Kahle
+ */
+public class DatabaseCursor<T> implements Iterator<T>, Closeable {
+    private final Connection connection;
+    private final boolean closeConnection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> rowMapper;
+    private boolean fetched;
+    private boolean closed;
+    private long rowCount;
+
+    DatabaseCursor(Connection connection, boolean closeConnection
+            , Statement statement, ResultSet resultSet, RowMapper<T> rowMapper) {
+        this.connection = connection;
+        this.closeConnection = closeConnection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+    }
+
+    /**
+     * The number of the rows read by the cursor.
+     */
+    public long getRowCount() {
+
+        return rowCount;
+    }
+
+    public boolean isClosed() {
+
+        return closed;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) { return false; }
+        if (fetched) { return true; }
+        try {
+            fetched = resultSet.next();
+        }
+        catch (SQLException e) {
+            close();
+            throw new DatabaseException(e);
+        }
+        if (!fetched) { close(); }
+        return fetched;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        T row;
+        try {
+            row = rowMapper.map(resultSet);
+        }
+        catch (SQLException e) {
+            close();
+            throw new DatabaseException(e);
+        }
+        rowCount++;
+        return row;
+    }
+
+    @Override
+    public void remove() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        if (closed) { return; }
+        closed = true;
+        CloseUtils.closeQuietly(resultSet);
+        CloseUtils.closeQuietly(statement);
+        // The connection bound to the transaction is closed by the transaction.
+        if (closeConnection) {
+            CloseUtils.closeQuietly(connection);
+        }
+    }
+
+}
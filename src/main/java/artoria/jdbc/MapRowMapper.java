@@ -0,0 +1,39 @@
+package artoria.jdbc;
+
+import artoria.util.StringUtils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static artoria.common.Constants.ONE;
+import static artoria.common.Constants.ZERO;
+
+/**
+ * The row mapper which reads the row into a map, the keys are the camel case of the column names.
+ * @author Kahle
+ */
+class MapRowMapper implements RowMapper<Map<String, Object>> {
+    private final String[] keys;
+
+    MapRowMapper(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        keys = new String[count];
+        for (int i = ZERO; i < count; i++) {
+            String key = metaData.getColumnName(i + ONE);
+            keys[i] = StringUtils.underlineToCamel(key);
+        }
+    }
+
+    @Override
+    public Map<String, Object> map(ResultSet resultSet) throws SQLException {
+        Map<String, Object> row = new HashMap<String, Object>(keys.length);
+        for (int i = ZERO; i < keys.length; i++) {
+            row.put(keys[i], resultSet.getObject(i + ONE));
+        }
+        return row;
+    }
+
+}
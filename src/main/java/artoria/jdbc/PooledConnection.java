@@ -0,0 +1,482 @@
+package artoria.jdbc;
+
+import artoria.util.CloseUtils;
+
+import java.sql.*;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * The connection borrowed from the pool, it delegates the calls to the physical connection directly.
+ * The statements created by it are tracked and closed when it is closed, and the auto commit,
+ * the transaction isolation, the read only, the catalog, the schema, the holdability
+ * and the network timeout are reset if they are changed, then it is recycled.
+ * The values of the last four are captured when they are changed at first.
+ * A new one is created for every borrowing, so it can not be used after it is closed.
+ * @author Kahle
+ */
+abstract class PooledConnection implements Connection {
+    private static final String CLOSED_MESSAGE = "The connection is closed. ";
+    private final Set<Statement> statements =
+            Collections.newSetFromMap(new ConcurrentHashMap<Statement, Boolean>());
+    private final Connection delegate;
+    private final boolean defaultAutoCommit;
+    private final int defaultTransactionIsolation;
+    private final boolean defaultReadOnly;
+    private boolean autoCommitChanged;
+    private boolean transactionIsolationChanged;
+    private boolean readOnlyChanged;
+    private boolean catalogChanged;
+    private String originalCatalog;
+    private boolean schemaChanged;
+    private String originalSchema;
+    private boolean holdabilityChanged;
+    private int originalHoldability;
+    private Executor networkTimeoutExecutor;
+    private int originalNetworkTimeout;
+    private boolean closed;
+
+    PooledConnection(Connection delegate, boolean defaultAutoCommit
+            , int defaultTransactionIsolation, boolean defaultReadOnly) {
+        this.delegate = delegate;
+        this.defaultAutoCommit = defaultAutoCommit;
+        this.defaultTransactionIsolation = defaultTransactionIsolation;
+        this.defaultReadOnly = defaultReadOnly;
+    }
+
+    /**
+     * Return the physical connection to the pool.
+     * @param broken Whether the physical connection failed to be reset
+     */
+    protected abstract void recycle(boolean broken);
+
+    private void checkClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException(CLOSED_MESSAGE);
+        }
+    }
+
+    private Statement track(Statement statement) {
+        statements.add(statement);
+        return statement;
+    }
+
+    void untrack(Statement statement) {
+
+        statements.remove(statement);
+    }
+
+    private void reset() throws SQLException {
+        if (!delegate.getAutoCommit()) {
+            delegate.rollback();
+        }
+        if (autoCommitChanged && delegate.getAutoCommit() != defaultAutoCommit) {
+            delegate.setAutoCommit(defaultAutoCommit);
+        }
+        if (transactionIsolationChanged) {
+            delegate.setTransactionIsolation(defaultTransactionIsolation);
+        }
+        if (readOnlyChanged) {
+            delegate.setReadOnly(defaultReadOnly);
+        }
+        if (catalogChanged) {
+            delegate.setCatalog(originalCatalog);
+        }
+        if (schemaChanged) {
+            delegate.setSchema(originalSchema);
+        }
+        if (holdabilityChanged) {
+            delegate.setHoldability(originalHoldability);
+        }
+        if (networkTimeoutExecutor != null) {
+            delegate.setNetworkTimeout(networkTimeoutExecutor, originalNetworkTimeout);
+        }
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) { return; }
+        closed = true;
+        for (Statement statement : statements) {
+            CloseUtils.closeQuietly(statement);
+        }
+        statements.clear();
+        boolean broken = false;
+        try {
+            broken = delegate.isClosed();
+            if (!broken) { reset(); }
+        }
+        catch (SQLException e) {
+            broken = true;
+        }
+        recycle(broken);
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+
+        return closed || delegate.isClosed();
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        checkClosed();
+        return track(new PooledStatement(this, delegate.createStatement()));
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkClosed();
+        return track(new PooledStatement(this, delegate.createStatement(resultSetType, resultSetConcurrency)));
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency
+            , int resultSetHoldability) throws SQLException {
+        checkClosed();
+        return track(new PooledStatement(this
+                , delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability)));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        checkClosed();
+        return (PreparedStatement) track(new PooledPreparedStatement(this, delegate.prepareStatement(sql)));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType
+            , int resultSetConcurrency) throws SQLException {
+        checkClosed();
+        return (PreparedStatement) track(new PooledPreparedStatement(this
+                , delegate.prepareStatement(sql, resultSetType, resultSetConcurrency)));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType
+            , int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        checkClosed();
+        return (PreparedStatement) track(new PooledPreparedStatement(this
+                , delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability)));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        checkClosed();
+        return (PreparedStatement) track(new PooledPreparedStatement(this
+                , delegate.prepareStatement(sql, autoGeneratedKeys)));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        checkClosed();
+        return (PreparedStatement) track(new PooledPreparedStatement(this
+                , delegate.prepareStatement(sql, columnIndexes)));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        checkClosed();
+        return (PreparedStatement) track(new PooledPreparedStatement(this
+                , delegate.prepareStatement(sql, columnNames)));
+    }
+
+    // The callable statements are not wrapped, they are only closed when the connection is closed.
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        checkClosed();
+        return (CallableStatement) track(delegate.prepareCall(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType
+            , int resultSetConcurrency) throws SQLException {
+        checkClosed();
+        return (CallableStatement) track(delegate.prepareCall(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType
+            , int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        checkClosed();
+        return (CallableStatement) track(delegate.prepareCall(sql
+                , resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        checkClosed();
+        return delegate.nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        checkClosed();
+        delegate.setAutoCommit(autoCommit);
+        autoCommitChanged = true;
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        checkClosed();
+        return delegate.getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        checkClosed();
+        delegate.commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        checkClosed();
+        delegate.rollback();
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        checkClosed();
+        return delegate.getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        checkClosed();
+        delegate.setReadOnly(readOnly);
+        readOnlyChanged = true;
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        checkClosed();
+        return delegate.isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        checkClosed();
+        if (!catalogChanged) {
+            originalCatalog = delegate.getCatalog();
+        }
+        delegate.setCatalog(catalog);
+        catalogChanged = true;
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        checkClosed();
+        return delegate.getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        checkClosed();
+        delegate.setTransactionIsolation(level);
+        transactionIsolationChanged = true;
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        checkClosed();
+        return delegate.getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        checkClosed();
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        checkClosed();
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        checkClosed();
+        return delegate.getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        checkClosed();
+        delegate.setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        checkClosed();
+        if (!holdabilityChanged) {
+            originalHoldability = delegate.getHoldability();
+        }
+        delegate.setHoldability(holdability);
+        holdabilityChanged = true;
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        checkClosed();
+        return delegate.getHoldability();
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        checkClosed();
+        return delegate.setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        checkClosed();
+        return delegate.setSavepoint(name);
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        checkClosed();
+        delegate.rollback(savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        checkClosed();
+        delegate.releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        checkClosed();
+        return delegate.createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        checkClosed();
+        return delegate.createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        checkClosed();
+        return delegate.createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        checkClosed();
+        return delegate.createSQLXML();
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+
+        return !closed && delegate.isValid(timeout);
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+
+        delegate.setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+
+        delegate.setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        checkClosed();
+        return delegate.getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        checkClosed();
+        return delegate.getClientInfo();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        checkClosed();
+        return delegate.createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        checkClosed();
+        return delegate.createStruct(typeName, attributes);
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        checkClosed();
+        if (!schemaChanged) {
+            originalSchema = delegate.getSchema();
+        }
+        delegate.setSchema(schema);
+        schemaChanged = true;
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        checkClosed();
+        return delegate.getSchema();
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        if (closed) { return; }
+        closed = true;
+        statements.clear();
+        try {
+            delegate.abort(executor);
+        }
+        finally {
+            // The aborted physical connection can not be reused.
+            recycle(true);
+        }
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        checkClosed();
+        if (networkTimeoutExecutor == null) {
+            originalNetworkTimeout = delegate.getNetworkTimeout();
+        }
+        delegate.setNetworkTimeout(executor, milliseconds);
+        networkTimeoutExecutor = executor;
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        checkClosed();
+        return delegate.getNetworkTimeout();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) {
+            return (T) delegate;
+        }
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+}
@@ -0,0 +1,20 @@
+package artoria.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Row handler for streaming query.
+ * @param <T> Row type
+ * @author Kahle
+ */
+public interface RowHandler<T> {
+
+    /**
+     * Handle a row of the query result.
+     * @param row The row read from the result set
+     * @return True to handle the next row, false to stop the query
+     * @throws SQLException Sql run error
+     */
+    boolean handle(T row) throws SQLException;
+
+}
@@ -0,0 +1,21 @@
+package artoria.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Row mapper, it reads the current row of the result set.
+ * @param <T> Row type
+ * @author Kahle
+ */
+interface RowMapper<T> {
+
+    /**
+     * Read the current row, the cursor of the result set is not moved.
+     * @param resultSet The result set on the row
+     * @return The row object
+     * @throws SQLException Sql run error
+     */
+    T map(ResultSet resultSet) throws SQLException;
+
+}
@@ -1,42 +1,65 @@
 package artoria.jdbc;
 
-import artoria.aop.Enhancer;
-import artoria.aop.Interceptor;
 import artoria.exception.ExceptionUtils;
+import artoria.lifecycle.Destroyable;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.thread.SimpleThreadFactory;
 import artoria.util.Assert;
 import artoria.util.ClassLoaderUtils;
+import artoria.util.CloseUtils;
 import artoria.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static artoria.common.Constants.*;
 
 /**
- * Simple data source.
+ * Simple data source, it is a bounded connection pool.
+ * At most "maxPoolSize" connections are opened, the borrowers wait for a connection
+ * in the fair order until the "connectionTimeout". The connections idle longer than the
+ * "validationInterval" are validated on borrow, and the connections idle longer than the
+ * "idleTimeout" (above the "minPoolSize") or older than the "maxLifetime" are evicted
+ * by the housekeeper. The connections borrowed longer than the "leakDetectionThreshold"
+ * are logged with the stack trace of the borrower.
  * @author Kahle
  */
-public class SimpleDataSource implements DataSource {
+public class SimpleDataSource implements DataSource, Destroyable {
     private static final String UNSUPPORTED_OPERATION = "In \"SimpleDataSource\" this operation is unsupported. ";
     private static final String DEFAULT_CONFIG_NAME = "jdbc.properties";
-    private BlockingQueue<Connection> queue;
-    private String driverClass;
-    private String jdbcUrl;
-    private String user;
-    private String password;
-    private int maxPoolSize;
-    private int minPoolSize;
+    private static final long HOUSEKEEPING_PERIOD = 30L * ONE_THOUSAND;
+    private static Logger log = LoggerFactory.getLogger(SimpleDataSource.class);
+    private final Map<PoolEntry, Boolean> borrowed = new ConcurrentHashMap<PoolEntry, Boolean>();
+    private final LinkedBlockingDeque<PoolEntry> idle = new LinkedBlockingDeque<PoolEntry>();
+    private final ScheduledThreadPoolExecutor housekeeper;
+    private final Semaphore permits;
+    private final String driverClass;
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final int maxPoolSize;
+    private final int minPoolSize;
+    private volatile long connectionTimeout = 30L * ONE_THOUSAND;
+    private volatile long validationInterval = 500L;
+    private volatile int validationTimeout = FIVE;
+    private volatile long idleTimeout = 10L * SIXTY * ONE_THOUSAND;
+    private volatile long maxLifetime = 30L * SIXTY * ONE_THOUSAND;
+    private volatile long leakDetectionThreshold = ZERO;
+    private volatile boolean closed = false;
 
     private static Properties readProperties() {
         try {
@@ -64,7 +87,9 @@ public class SimpleDataSource implements DataSource {
                 properties.getProperty("driverClass"),
                 properties.getProperty("jdbcUrl"),
                 properties.getProperty("user"),
-                properties.getProperty("password")
+                properties.getProperty("password"),
+                Integer.parseInt(properties.getProperty("maxPoolSize", "-1").trim()),
+                Integer.parseInt(properties.getProperty("minPoolSize", "-1").trim())
         );
     }
 
@@ -77,6 +102,8 @@ public class SimpleDataSource implements DataSource {
         Assert.notBlank(jdbcUrl, "Parameter \"jdbcUrl\" must not blank. ");
         Assert.notNull(user, "Parameter \"user\" must not null. ");
         Assert.notNull(password, "Parameter \"password\" must not null. ");
+        maxPoolSize = maxPoolSize > ZERO ? maxPoolSize : EIGHT;
+        minPoolSize = minPoolSize >= ZERO ? minPoolSize : Math.min(TWO, maxPoolSize);
         if (minPoolSize > maxPoolSize) {
             throw new IllegalArgumentException(
                     "Parameter \"minPoolSize\" must less than or equal to \"maxPoolSize\". "
@@ -86,33 +113,251 @@ public class SimpleDataSource implements DataSource {
         this.jdbcUrl = jdbcUrl;
         this.user = user;
         this.password = password;
-        this.maxPoolSize = maxPoolSize > ZERO ? maxPoolSize : EIGHT;
-        this.minPoolSize = minPoolSize > ZERO ? minPoolSize : TWO;
-        this.queue = new ArrayBlockingQueue<Connection>(this.maxPoolSize);
+        this.maxPoolSize = maxPoolSize;
+        this.minPoolSize = minPoolSize;
+        this.permits = new Semaphore(maxPoolSize, true);
         try {
             Class.forName(this.driverClass);
-            for (int i = ZERO; i < this.minPoolSize; i++) {
-                queue.offer(createConnection());
+            for (int i = ZERO; i < minPoolSize; i++) {
+                idle.offerLast(new PoolEntry(createPhysicalConnection()));
             }
         }
         catch (Exception e) {
             throw ExceptionUtils.wrap(e);
         }
+        housekeeper = new ScheduledThreadPoolExecutor(ONE, new SimpleThreadFactory("data-source-housekeeper", true));
+        housekeeper.scheduleWithFixedDelay(new Housekeeper()
+                , HOUSEKEEPING_PERIOD, HOUSEKEEPING_PERIOD, TimeUnit.MILLISECONDS);
     }
 
+    public int getMaxPoolSize() {
+
+        return maxPoolSize;
+    }
+
+    public int getMinPoolSize() {
+
+        return minPoolSize;
+    }
+
+    public long getConnectionTimeout() {
+
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(long connectionTimeout) {
+        Assert.isTrue(connectionTimeout > ZERO, "Parameter \"connectionTimeout\" must > 0. ");
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getValidationInterval() {
+
+        return validationInterval;
+    }
+
+    public void setValidationInterval(long validationInterval) {
+        Assert.isTrue(validationInterval >= ZERO, "Parameter \"validationInterval\" must >= 0. ");
+        this.validationInterval = validationInterval;
+    }
+
+    public int getValidationTimeout() {
+
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(int validationTimeout) {
+        Assert.isTrue(validationTimeout >= ZERO, "Parameter \"validationTimeout\" must >= 0. ");
+        this.validationTimeout = validationTimeout;
+    }
+
+    public long getIdleTimeout() {
+
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        Assert.isTrue(idleTimeout > ZERO, "Parameter \"idleTimeout\" must > 0. ");
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(long maxLifetime) {
+        Assert.isTrue(maxLifetime > ZERO, "Parameter \"maxLifetime\" must > 0. ");
+        this.maxLifetime = maxLifetime;
+    }
+
+    public long getLeakDetectionThreshold() {
+
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * Set the leak detection threshold, zero means the leak detection is disabled.
+     * @param leakDetectionThreshold The milliseconds a connection can be borrowed without logging
+     */
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        Assert.isTrue(leakDetectionThreshold >= ZERO, "Parameter \"leakDetectionThreshold\" must >= 0. ");
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    /**
+     * Get the number of the idle connections.
+     * @return The number of the idle connections
+     */
+    public int getIdleCount() {
+
+        return idle.size();
+    }
+
+    /**
+     * Get the number of the borrowed connections.
+     * @return The number of the borrowed connections
+     */
+    public int getActiveCount() {
+
+        return borrowed.size();
+    }
+
+    /**
+     * Borrow a connection from the pool, the same as {@link #getConnection()}.
+     * @return The pooled connection
+     * @throws SQLException Failed to borrow
+     * @deprecated Use {@link #getConnection()}
+     */
+    @Deprecated
     public Connection createConnection() throws SQLException {
-        Connection conn = DriverManager.getConnection(jdbcUrl, user, password);
-        ConnectionInterceptor interceptor = new ConnectionInterceptor(queue, conn);
-        return (Connection) Enhancer.enhance(Connection.class, interceptor);
+
+        return getConnection();
+    }
+
+    /**
+     * Create a physical connection.
+     * @return The physical connection
+     * @throws SQLException Failed to connect
+     */
+    protected Connection createPhysicalConnection() throws SQLException {
+
+        return DriverManager.getConnection(jdbcUrl, user, password);
+    }
+
+    private boolean isExpired(PoolEntry entry, long now) {
+
+        return now - entry.createdTime >= maxLifetime;
+    }
+
+    private boolean isAlive(PoolEntry entry, long now) {
+        if (isExpired(entry, now)) { return false; }
+        if (now - entry.lastUsedTime < validationInterval) { return true; }
+        try {
+            return entry.connection.isValid(validationTimeout);
+        }
+        catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeConnection(PoolEntry entry) {
+
+        CloseUtils.closeQuietly(entry.connection);
     }
 
     @Override
     public Connection getConnection() throws SQLException {
-        Connection conn = queue.poll();
-        if (conn == null) {
-            conn = createConnection();
+        if (closed) { throw new SQLException("The data source is closed. "); }
+        try {
+            if (!permits.tryAcquire(connectionTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timeout waiting for a connection after "
+                        + connectionTimeout + " ms (max pool size " + maxPoolSize + "). ");
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection. ", e);
+        }
+        try {
+            // It may be destroyed while waiting for the permit.
+            if (closed) { throw new SQLException("The data source is closed. "); }
+            PoolEntry entry;
+            long now = System.currentTimeMillis();
+            while ((entry = idle.pollFirst()) != null) {
+                if (isAlive(entry, now)) { break; }
+                closeConnection(entry);
+            }
+            if (entry == null) {
+                entry = new PoolEntry(createPhysicalConnection());
+            }
+            borrowed.put(entry, Boolean.TRUE);
+            return entry.borrow(leakDetectionThreshold > ZERO);
+        }
+        catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+        catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the connection to the pool, it is called when the entry connection is closed.
+     * @param entry The pool entry
+     * @param broken Whether the connection failed to be reset
+     */
+    private void release(PoolEntry entry, boolean broken) {
+        borrowed.remove(entry);
+        try {
+            if (broken || closed || isExpired(entry, System.currentTimeMillis())) {
+                closeConnection(entry);
+            }
+            else {
+                entry.lastUsedTime = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            }
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Evict the idle connections and report the leaked connections, it is called by the housekeeper.
+     */
+    void housekeep() {
+        long now = System.currentTimeMillis();
+        int count = idle.size();
+        // Evict from the least recently used ones (the last of the deque).
+        PoolEntry[] idleEntries = idle.toArray(new PoolEntry[ZERO]);
+        for (int i = idleEntries.length - ONE; i >= ZERO; i--) {
+            PoolEntry entry = idleEntries[i];
+            boolean idleTooLong = now - entry.lastUsedTime >= idleTimeout && count > minPoolSize;
+            if ((idleTooLong || isExpired(entry, now)) && idle.remove(entry)) {
+                closeConnection(entry);
+                count--;
+            }
+        }
+        long threshold = leakDetectionThreshold;
+        if (threshold <= ZERO) { return; }
+        for (PoolEntry entry : borrowed.keySet()) {
+            if (entry.leakReported || now - entry.borrowedTime < threshold) { continue; }
+            entry.leakReported = true;
+            log.warn("Connection leak detection triggered, the connection has been borrowed for "
+                    + (now - entry.borrowedTime) + " ms. ", entry.borrower);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        closed = true;
+        housekeeper.shutdownNow();
+        PoolEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closeConnection(entry);
         }
-        return conn;
     }
 
     @Override
@@ -158,31 +403,57 @@ public class SimpleDataSource implements DataSource {
     }
 
     @Override
-    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
 
         throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
     }
 
-    private class ConnectionInterceptor implements Interceptor {
-        private static final String PROXY_METHOD = "close";
-        private BlockingQueue<Connection> queue;
-        private Connection connection;
-
-        ConnectionInterceptor(BlockingQueue<Connection> queue, Connection connection) {
-            this.queue = queue;
+    private class PoolEntry {
+        private final Connection connection;
+        private final boolean defaultAutoCommit;
+        private final int defaultTransactionIsolation;
+        private final boolean defaultReadOnly;
+        private final long createdTime;
+        private volatile long lastUsedTime;
+        private volatile long borrowedTime;
+        private volatile Throwable borrower;
+        private volatile boolean leakReported;
+
+        PoolEntry(Connection connection) throws SQLException {
             this.connection = connection;
+            this.defaultAutoCommit = connection.getAutoCommit();
+            this.defaultTransactionIsolation = connection.getTransactionIsolation();
+            this.defaultReadOnly = connection.isReadOnly();
+            this.createdTime = System.currentTimeMillis();
+            this.lastUsedTime = createdTime;
         }
 
+        Connection borrow(boolean traceBorrower) {
+            borrowedTime = System.currentTimeMillis();
+            borrower = traceBorrower ? new Throwable("The connection was borrowed here. ") : null;
+            leakReported = false;
+            return new PooledConnection(connection
+                    , defaultAutoCommit, defaultTransactionIsolation, defaultReadOnly) {
+                @Override
+                protected void recycle(boolean broken) {
+
+                    release(PoolEntry.this, broken);
+                }
+            };
+        }
+
+    }
+
+    private class Housekeeper implements Runnable {
+
         @Override
-        public Object intercept(Object proxyObject, Method method, Object[] args) throws Throwable {
-            boolean offer = false;
-            if (PROXY_METHOD.equals(method.getName())) {
-                offer = queue.offer(connection);
+        public void run() {
+            try {
+                housekeep();
             }
-            if (!offer) {
-                return method.invoke(connection, args);
+            catch (Exception e) {
+                log.error("Execution \"housekeep\" error. ", e);
             }
-            return null;
         }
 
     }
@@ -0,0 +1,265 @@
+package artoria.reflect;
+
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
+import artoria.exception.ExceptionUtils;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.util.Assert;
+import artoria.util.ObjectUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The factory of the accessors, it generates a class which calls the member directly
+ * if the member and its declaring class are public, otherwise it falls back to reflection.
+ * The accessors are cached by the member, the cache is weakly keyed by the declaring class
+ * and the accessors of the class are softly referenced. The members and the generated classes
+ * reference the declaring class, so the class can be unloaded only after they are cleared
+ * when the memory is tight.
+ * @author Kahle
+ */
+class AccessorFactory {
+    private static final String GENERATED_CLASS_NAME = "artoria.reflect.GeneratedAccessor$$";
+    private static final AtomicInteger GENERATED_COUNTER = new AtomicInteger();
+    private static Logger log = LoggerFactory.getLogger(AccessorFactory.class);
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Member, Object>> accessors =
+            new ConcurrentReferenceMap<Class<?>, ConcurrentMap<Member, Object>>(ReferenceMap.Type.WEAK, ReferenceMap.Type.SOFT);
+
+    private static boolean isGeneratable(Member member) {
+        int modifiers = member.getModifiers();
+        Class<?> declaringClass = member.getDeclaringClass();
+        return Modifier.isPublic(modifiers) && Modifier.isPublic(declaringClass.getModifiers());
+    }
+
+    private static void unwrapAndThrow(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) { throw (Error) cause; }
+        throw ExceptionUtils.wrap(cause instanceof Exception ? (Exception) cause : e);
+    }
+
+    private ConcurrentMap<Member, Object> accessorsOf(Class<?> declaringClass) {
+        ConcurrentMap<Member, Object> map = accessors.get(declaringClass);
+        if (map != null) { return map; }
+        map = new ConcurrentHashMap<Member, Object>();
+        ConcurrentMap<Member, Object> old = accessors.putIfAbsent(declaringClass, map);
+        return old != null ? old : map;
+    }
+
+    private Object generate(Member member, Class<?> interfaceClass, String name
+            , String descriptor, int maxStack, int maxLocals, Code code) {
+        if (!isGeneratable(member)) { return null; }
+        Class<?> declaringClass = member.getDeclaringClass();
+        try {
+            String className = GENERATED_CLASS_NAME + GENERATED_COUNTER.incrementAndGet();
+            ClassFileWriter writer = new ClassFileWriter(className, Object.class, interfaceClass);
+            ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+            code.write(writer, new DataOutputStream(codeBytes));
+            writer.addMethod(name, descriptor, maxStack, maxLocals, codeBytes.toByteArray());
+            Class<?> clazz = ClassFileWriter.defineClass(className, writer.toByteArray(), declaringClass);
+            return clazz.newInstance();
+        }
+        catch (Exception e) {
+            log.debug("Failed to generate the accessor of \"" + member + "\". ", e);
+            return null;
+        }
+        catch (LinkageError e) {
+            log.debug("Failed to define the accessor of \"" + member + "\". ", e);
+            return null;
+        }
+    }
+
+    public <T, V> Getter<T, V> getGetter(final Method method) {
+        Assert.notNull(method, "Parameter \"method\" must not null. ");
+        Assert.isTrue(method.getParameterTypes().length == 0
+                , "Parameter \"method\" must have no parameter. ");
+        ConcurrentMap<Member, Object> map = accessorsOf(method.getDeclaringClass());
+        Object getter = map.get(method);
+        if (getter != null) { return ObjectUtils.cast(getter); }
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        getter = generate(method, Getter.class, "get"
+                , "(Ljava/lang/Object;)Ljava/lang/Object;", 2, 2, new Code() {
+            @Override
+            public void write(ClassFileWriter writer, DataOutputStream code) throws IOException {
+                if (!isStatic) {
+                    code.writeByte(ClassFileWriter.ALOAD_1);
+                    writer.unboxOrCast(code, method.getDeclaringClass());
+                }
+                writer.invoke(code, method.getDeclaringClass(), method);
+                writer.box(code, method.getReturnType());
+                code.writeByte(ClassFileWriter.ARETURN);
+            }
+        });
+        if (getter == null) {
+            ReflectUtils.makeAccessible(method);
+            getter = new ReflectiveGetter<T, V>(method);
+        }
+        Object old = map.putIfAbsent(method, getter);
+        return ObjectUtils.cast(old != null ? old : getter);
+    }
+
+    public <T, V> Setter<T, V> getSetter(final Method method) {
+        Assert.notNull(method, "Parameter \"method\" must not null. ");
+        Assert.isTrue(method.getParameterTypes().length == 1
+                , "Parameter \"method\" must have one parameter. ");
+        ConcurrentMap<Member, Object> map = accessorsOf(method.getDeclaringClass());
+        Object setter = map.get(method);
+        if (setter != null) { return ObjectUtils.cast(setter); }
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        setter = generate(method, Setter.class, "set"
+                , "(Ljava/lang/Object;Ljava/lang/Object;)V", 3, 3, new Code() {
+            @Override
+            public void write(ClassFileWriter writer, DataOutputStream code) throws IOException {
+                if (!isStatic) {
+                    code.writeByte(ClassFileWriter.ALOAD_1);
+                    writer.unboxOrCast(code, method.getDeclaringClass());
+                }
+                code.writeByte(ClassFileWriter.ALOAD_2);
+                writer.unboxOrCast(code, method.getParameterTypes()[0]);
+                writer.invoke(code, method.getDeclaringClass(), method);
+                int returnSize = ClassFileWriter.sizeOf(method.getReturnType());
+                if (returnSize == 1) { code.writeByte(ClassFileWriter.POP); }
+                if (returnSize == 2) { code.writeByte(ClassFileWriter.POP2); }
+                code.writeByte(ClassFileWriter.RETURN);
+            }
+        });
+        if (setter == null) {
+            ReflectUtils.makeAccessible(method);
+            setter = new ReflectiveSetter<T, V>(method);
+        }
+        Object old = map.putIfAbsent(method, setter);
+        return ObjectUtils.cast(old != null ? old : setter);
+    }
+
+    public <T> Instantiator<T> getInstantiator(final Constructor<T> constructor) {
+        Assert.notNull(constructor, "Parameter \"constructor\" must not null. ");
+        Class<T> declaringClass = constructor.getDeclaringClass();
+        ConcurrentMap<Member, Object> map = accessorsOf(declaringClass);
+        Object instantiator = map.get(constructor);
+        if (instantiator != null) { return ObjectUtils.cast(instantiator); }
+        final Class<?>[] types = constructor.getParameterTypes();
+        int argumentSize = 0;
+        for (Class<?> type : types) {
+            argumentSize += ClassFileWriter.sizeOf(type);
+        }
+        boolean isAbstract = Modifier.isAbstract(declaringClass.getModifiers());
+        instantiator = isAbstract ? null : generate(constructor, Instantiator.class, "newInstance"
+                , "([Ljava/lang/Object;)Ljava/lang/Object;", 4 + argumentSize, 2, new Code() {
+            @Override
+            public void write(ClassFileWriter writer, DataOutputStream code) throws IOException {
+                String owner = ClassFileWriter.internalName(constructor.getDeclaringClass());
+                code.writeByte(ClassFileWriter.NEW);
+                code.writeShort(writer.classRef(owner));
+                code.writeByte(ClassFileWriter.DUP);
+                for (int i = 0; i < types.length; i++) {
+                    code.writeByte(ClassFileWriter.ALOAD_1);
+                    writer.pushInt(code, i);
+                    code.writeByte(ClassFileWriter.AALOAD);
+                    writer.unboxOrCast(code, types[i]);
+                }
+                code.writeByte(ClassFileWriter.INVOKE_SPECIAL);
+                code.writeShort(writer.methodRef(owner, "<init>", ClassFileWriter.descriptor(constructor), false));
+                code.writeByte(ClassFileWriter.ARETURN);
+            }
+        });
+        if (instantiator == null) {
+            ReflectUtils.makeAccessible(constructor);
+            instantiator = new ReflectiveInstantiator<T>(constructor);
+        }
+        Object old = map.putIfAbsent(constructor, instantiator);
+        return ObjectUtils.cast(old != null ? old : instantiator);
+    }
+
+    private interface Code {
+
+        /**
+         * Write the code of the generated method.
+         * @param writer The class file writer
+         * @param code The code output
+         * @throws IOException The code output error
+         */
+        void write(ClassFileWriter writer, DataOutputStream code) throws IOException;
+
+    }
+
+    private static class ReflectiveGetter<T, V> implements Getter<T, V> {
+        private final Method method;
+
+        private ReflectiveGetter(Method method) {
+
+            this.method = method;
+        }
+
+        @Override
+        public V get(T target) {
+            try {
+                return ObjectUtils.cast(method.invoke(target));
+            }
+            catch (IllegalAccessException e) {
+                throw ExceptionUtils.wrap(e);
+            }
+            catch (InvocationTargetException e) {
+                unwrapAndThrow(e);
+                return null;
+            }
+        }
+
+    }
+
+    private static class ReflectiveSetter<T, V> implements Setter<T, V> {
+        private final Method method;
+
+        private ReflectiveSetter(Method method) {
+
+            this.method = method;
+        }
+
+        @Override
+        public void set(T target, V value) {
+            try {
+                method.invoke(target, value);
+            }
+            catch (IllegalAccessException e) {
+                throw ExceptionUtils.wrap(e);
+            }
+            catch (InvocationTargetException e) {
+                unwrapAndThrow(e);
+            }
+        }
+
+    }
+
+    private static class ReflectiveInstantiator<T> implements Instantiator<T> {
+        private final Constructor<T> constructor;
+
+        private ReflectiveInstantiator(Constructor<T> constructor) {
+
+            this.constructor = constructor;
+        }
+
+        @Override
+        public T newInstance(Object... args) {
+            try {
+                return constructor.newInstance(args);
+            }
+            catch (InstantiationException e) {
+                throw ExceptionUtils.wrap(e);
+            }
+            catch (IllegalAccessException e) {
+                throw ExceptionUtils.wrap(e);
+            }
+            catch (InvocationTargetException e) {
+                unwrapAndThrow(e);
+                return null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,381 @@
+package artoria.reflect;
+
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
+import artoria.exception.ExceptionUtils;
+import artoria.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Minimal writer of the class file, used to generate the small glue classes
+ * (like the accessors and the bean copiers) at runtime.
+ * The version of the class file is 49 (java 5), so the stack map frames are not
+ * required, but the generated methods must not have any branch.
+ * @author Kahle
+ */
+public class ClassFileWriter {
+    public static final int ACONST_NULL = 0x01;
+    public static final int ICONST_0 = 0x03;
+    public static final int BIPUSH = 0x10;
+    public static final int SIPUSH = 0x11;
+    public static final int ALOAD_0 = 0x2A;
+    public static final int ALOAD_1 = 0x2B;
+    public static final int ALOAD_2 = 0x2C;
+    public static final int AALOAD = 0x32;
+    public static final int POP = 0x57;
+    public static final int POP2 = 0x58;
+    public static final int DUP = 0x59;
+    public static final int ARETURN = 0xB0;
+    public static final int RETURN = 0xB1;
+    public static final int INVOKE_VIRTUAL = 0xB6;
+    public static final int INVOKE_SPECIAL = 0xB7;
+    public static final int INVOKE_STATIC = 0xB8;
+    public static final int INVOKE_INTERFACE = 0xB9;
+    public static final int NEW = 0xBB;
+    public static final int CHECK_CAST = 0xC0;
+    private static final int ACC_PUBLIC_FINAL_SUPER = 0x0031;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private final Map<String, Integer> constants = new HashMap<String, Integer>();
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOutput = new DataOutputStream(pool);
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private final DataOutputStream methodsOutput = new DataOutputStream(methods);
+    private final int[] interfaceIndexes;
+    private final int superIndex;
+    private final int thisIndex;
+    private int constantCount = 1;
+    private int methodCount;
+
+    /**
+     * Create a writer of the public final class.
+     * @param className The binary name of the class (like "a.b.C")
+     * @param superClass The super class, it must have a public no argument constructor
+     * @param interfaces The interfaces the class implements
+     */
+    public ClassFileWriter(String className, Class<?> superClass, Class<?>... interfaces) {
+        Assert.notBlank(className, "Parameter \"className\" must not blank. ");
+        Assert.notNull(superClass, "Parameter \"superClass\" must not null. ");
+        try {
+            this.thisIndex = classRef(className.replace('.', '/'));
+            this.superIndex = classRef(internalName(superClass));
+            this.interfaceIndexes = new int[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++) {
+                interfaceIndexes[i] = classRef(internalName(interfaces[i]));
+            }
+            int superInit = methodRef(internalName(superClass), "<init>", "()V", false);
+            byte[] code = new byte[] { ALOAD_0, (byte) INVOKE_SPECIAL
+                    , (byte) (superInit >> 8), (byte) superInit, (byte) RETURN };
+            addMethod("<init>", "()V", 1, 1, code);
+        }
+        catch (IOException e) {
+            throw ExceptionUtils.wrap(e);
+        }
+    }
+
+    public static String internalName(Class<?> clazz) {
+
+        return clazz.getName().replace('.', '/');
+    }
+
+    public static String descriptor(Class<?> clazz) {
+        if (clazz.isArray()) { return internalName(clazz); }
+        if (!clazz.isPrimitive()) { return "L" + internalName(clazz) + ";"; }
+        if (clazz == void.class) { return "V"; }
+        if (clazz == boolean.class) { return "Z"; }
+        if (clazz == byte.class) { return "B"; }
+        if (clazz == char.class) { return "C"; }
+        if (clazz == short.class) { return "S"; }
+        if (clazz == int.class) { return "I"; }
+        if (clazz == long.class) { return "J"; }
+        if (clazz == float.class) { return "F"; }
+        return "D";
+    }
+
+    public static String descriptor(Class<?> returnType, Class<?>... parameterTypes) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> type : parameterTypes) {
+            builder.append(descriptor(type));
+        }
+        return builder.append(")").append(descriptor(returnType)).toString();
+    }
+
+    public static String descriptor(Method method) {
+
+        return descriptor(method.getReturnType(), method.getParameterTypes());
+    }
+
+    public static String descriptor(Constructor<?> constructor) {
+
+        return descriptor(void.class, constructor.getParameterTypes());
+    }
+
+    /**
+     * Return the number of the stack slots the value of the type takes.
+     * @param type The value type
+     * @return 0 for void, 2 for long and double, otherwise 1
+     */
+    public static int sizeOf(Class<?> type) {
+        if (type == void.class) { return 0; }
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    public int utf8(String value) throws IOException {
+        String key = "U" + value;
+        Integer index = constants.get(key);
+        if (index != null) { return index; }
+        poolOutput.writeByte(CONSTANT_UTF8);
+        poolOutput.writeUTF(value);
+        constants.put(key, constantCount);
+        return constantCount++;
+    }
+
+    public int classRef(String internalName) throws IOException {
+        String key = "C" + internalName;
+        Integer index = constants.get(key);
+        if (index != null) { return index; }
+        int nameIndex = utf8(internalName);
+        poolOutput.writeByte(CONSTANT_CLASS);
+        poolOutput.writeShort(nameIndex);
+        constants.put(key, constantCount);
+        return constantCount++;
+    }
+
+    public int methodRef(String owner, String name, String descriptor, boolean isInterface) throws IOException {
+        String key = "M" + owner + "." + name + descriptor;
+        Integer index = constants.get(key);
+        if (index != null) { return index; }
+        int classIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        poolOutput.writeByte(CONSTANT_NAME_AND_TYPE);
+        poolOutput.writeShort(nameIndex);
+        poolOutput.writeShort(descriptorIndex);
+        int nameAndTypeIndex = constantCount++;
+        poolOutput.writeByte(isInterface ? CONSTANT_INTERFACE_METHOD_REF : CONSTANT_METHOD_REF);
+        poolOutput.writeShort(classIndex);
+        poolOutput.writeShort(nameAndTypeIndex);
+        constants.put(key, constantCount);
+        return constantCount++;
+    }
+
+    /**
+     * Write the instruction to call the method (virtual, interface or static).
+     * @param code The code output
+     * @param owner The class the method is called on, it may be a subclass of the declaring class
+     * @param method The method to be called
+     */
+    public void invoke(DataOutputStream code, Class<?> owner, Method method) throws IOException {
+        boolean isInterface = owner.isInterface();
+        int index = methodRef(internalName(owner), method.getName(), descriptor(method), isInterface);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        code.writeByte(isStatic ? INVOKE_STATIC : isInterface ? INVOKE_INTERFACE : INVOKE_VIRTUAL);
+        code.writeShort(index);
+        if (isInterface && !isStatic) {
+            int argumentSize = 1;
+            for (Class<?> type : method.getParameterTypes()) {
+                argumentSize += sizeOf(type);
+            }
+            code.writeByte(argumentSize);
+            code.writeByte(0);
+        }
+    }
+
+    /**
+     * Write the instructions to push the int constant.
+     * @param code The code output
+     * @param value The int value (0 to 32767)
+     */
+    public void pushInt(DataOutputStream code, int value) throws IOException {
+        if (value <= 5) {
+            code.writeByte(ICONST_0 + value);
+        }
+        else if (value <= Byte.MAX_VALUE) {
+            code.writeByte(BIPUSH);
+            code.writeByte(value);
+        }
+        else {
+            code.writeByte(SIPUSH);
+            code.writeShort(value);
+        }
+    }
+
+    /**
+     * Write the instructions to convert the object on the stack to the type,
+     * the wrapper objects are unboxed for the primitive types.
+     * @param code The code output
+     * @param type The type wanted
+     */
+    public void unboxOrCast(DataOutputStream code, Class<?> type) throws IOException {
+        if (!type.isPrimitive()) {
+            if (type == Object.class) { return; }
+            code.writeByte(CHECK_CAST);
+            code.writeShort(classRef(internalName(type)));
+            return;
+        }
+        Class<?> wrapper = wrapperOf(type);
+        code.writeByte(CHECK_CAST);
+        code.writeShort(classRef(internalName(wrapper)));
+        code.writeByte(INVOKE_VIRTUAL);
+        code.writeShort(methodRef(internalName(wrapper), type.getName() + "Value", "()" + descriptor(type), false));
+    }
+
+    /**
+     * Write the instructions to box the primitive value on the stack,
+     * the void is replaced by null.
+     * @param code The code output
+     * @param type The type of the value on the stack
+     */
+    public void box(DataOutputStream code, Class<?> type) throws IOException {
+        if (type == void.class) {
+            code.writeByte(ACONST_NULL);
+            return;
+        }
+        if (!type.isPrimitive()) { return; }
+        Class<?> wrapper = wrapperOf(type);
+        code.writeByte(INVOKE_STATIC);
+        code.writeShort(methodRef(internalName(wrapper), "valueOf", descriptor(wrapper, type), false));
+    }
+
+    private static Class<?> wrapperOf(Class<?> type) {
+        if (type == boolean.class) { return Boolean.class; }
+        if (type == byte.class) { return Byte.class; }
+        if (type == char.class) { return Character.class; }
+        if (type == short.class) { return Short.class; }
+        if (type == int.class) { return Integer.class; }
+        if (type == long.class) { return Long.class; }
+        if (type == float.class) { return Float.class; }
+        return Double.class;
+    }
+
+    public void addMethod(String name, String descriptor, int maxStack, int maxLocals, byte[] code) {
+        try {
+            methodsOutput.writeShort(ACC_PUBLIC);
+            methodsOutput.writeShort(utf8(name));
+            methodsOutput.writeShort(utf8(descriptor));
+            // One attribute "Code" without exception table and sub attributes.
+            methodsOutput.writeShort(1);
+            methodsOutput.writeShort(utf8("Code"));
+            methodsOutput.writeInt(12 + code.length);
+            methodsOutput.writeShort(maxStack);
+            methodsOutput.writeShort(maxLocals);
+            methodsOutput.writeInt(code.length);
+            methodsOutput.write(code);
+            methodsOutput.writeShort(0);
+            methodsOutput.writeShort(0);
+            methodCount++;
+        }
+        catch (IOException e) {
+            throw ExceptionUtils.wrap(e);
+        }
+    }
+
+    public byte[] toByteArray() {
+        try {
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(classBytes);
+            output.writeInt(0xCAFEBABE);
+            output.writeShort(0);
+            output.writeShort(49);
+            output.writeShort(constantCount);
+            output.write(pool.toByteArray());
+            output.writeShort(ACC_PUBLIC_FINAL_SUPER);
+            output.writeShort(thisIndex);
+            output.writeShort(superIndex);
+            output.writeShort(interfaceIndexes.length);
+            for (int interfaceIndex : interfaceIndexes) {
+                output.writeShort(interfaceIndex);
+            }
+            // No fields and no attributes.
+            output.writeShort(0);
+            output.writeShort(methodCount);
+            output.write(methods.toByteArray());
+            output.writeShort(0);
+            return classBytes.toByteArray();
+        }
+        catch (IOException e) {
+            throw ExceptionUtils.wrap(e);
+        }
+    }
+
+    /**
+     * Define the class in a generated class loader, which can see the given classes
+     * and the classes of this library. The generated class loader is shared by all the classes
+     * whose visible classes are in the same class loader, it is weakly referenced,
+     * so it is unloaded with the last class which is defined by it.
+     * @param className The binary name of the class
+     * @param bytes The class file
+     * @param visibleClasses The classes used by the generated class
+     * @return The defined class
+     */
+    public static Class<?> defineClass(String className, byte[] bytes, Class<?>... visibleClasses) {
+        List<ClassLoader> classLoaders = new ArrayList<ClassLoader>(visibleClasses.length);
+        for (Class<?> visibleClass : visibleClasses) {
+            ClassLoader classLoader = visibleClass.getClassLoader();
+            if (classLoader != null && !classLoaders.contains(classLoader)) {
+                classLoaders.add(classLoader);
+            }
+        }
+        // The classes in the different class loaders are rare, so their class loader is not shared.
+        if (classLoaders.size() > 1) {
+            return new GeneratedClassLoader(classLoaders).define(className, bytes);
+        }
+        ClassLoader key = classLoaders.isEmpty() ? ClassFileWriter.class.getClassLoader() : classLoaders.get(0);
+        return GeneratedClassLoader.forClassLoader(key).define(className, bytes);
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader {
+        private static final ConcurrentMap<ClassLoader, GeneratedClassLoader> CLASS_LOADERS =
+                new ConcurrentReferenceMap<ClassLoader, GeneratedClassLoader>(ReferenceMap.Type.WEAK, ReferenceMap.Type.WEAK);
+        private final List<ClassLoader> classLoaders;
+
+        private GeneratedClassLoader(List<ClassLoader> classLoaders) {
+            super(ClassFileWriter.class.getClassLoader());
+            this.classLoaders = classLoaders;
+        }
+
+        private static GeneratedClassLoader forClassLoader(ClassLoader classLoader) {
+            GeneratedClassLoader generated = CLASS_LOADERS.get(classLoader);
+            if (generated != null) { return generated; }
+            generated = new GeneratedClassLoader(Collections.singletonList(classLoader));
+            GeneratedClassLoader old = CLASS_LOADERS.putIfAbsent(classLoader, generated);
+            return old != null ? old : generated;
+        }
+
+        private Class<?> define(String className, byte[] bytes) {
+
+            return defineClass(className, bytes, 0, bytes.length);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            for (ClassLoader classLoader : classLoaders) {
+                try {
+                    return classLoader.loadClass(name);
+                }
+                catch (ClassNotFoundException e) {
+                    // Try the next class loader.
+                }
+            }
+            throw new ClassNotFoundException(name);
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package artoria.reflect;
+
+/**
+ * The accessor to call a getter method (or any method without parameter).
+ * @param <T> The type of the target object
+ * @param <V> The type of the returned value
+ * @author Kahle
+ */
+public interface Getter<T, V> {
+
+    /**
+     * Call the method on the target object.
+     * @param target The target object (it will be ignored if the method is static)
+     * @return The returned value, the primitive is boxed
+     */
+    V get(T target);
+
+}
@@ -0,0 +1,17 @@
+package artoria.reflect;
+
+/**
+ * The accessor to call a constructor.
+ * @param <T> The type of the created object
+ * @author Kahle
+ */
+public interface Instantiator<T> {
+
+    /**
+     * Create a new object by the constructor.
+     * @param args The arguments of the constructor, they will be unboxed if the parameters are primitive
+     * @return The new object
+     */
+    T newInstance(Object... args);
+
+}
@@ -118,4 +118,19 @@ public class ReflectUtils {
         return getReflecter().findSimilarMethod(clazz, methodName, parameterTypes);
     }
 
+    public static <T, V> Getter<T, V> findGetter(Method method) {
+
+        return getReflecter().findGetter(method);
+    }
+
+    public static <T, V> Setter<T, V> findSetter(Method method) {
+
+        return getReflecter().findSetter(method);
+    }
+
+    public static <T> Instantiator<T> findInstantiator(Constructor<T> constructor) {
+
+        return getReflecter().findInstantiator(constructor);
+    }
+
 }
@@ -153,4 +153,36 @@ public interface Reflecter {
      */
     Method findSimilarMethod(Class<?> clazz, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException;
 
+    /**
+     * Find the cached accessor to call the method without parameter (like a getter).
+     * It calls the method directly if the method and its class are public,
+     * otherwise it falls back to reflection.
+     * @param method The method will be called
+     * @param <T> The type of the target object
+     * @param <V> The type of the returned value
+     * @return The getter accessor
+     */
+    <T, V> Getter<T, V> findGetter(Method method);
+
+    /**
+     * Find the cached accessor to call the method with one parameter (like a setter).
+     * It calls the method directly if the method and its class are public,
+     * otherwise it falls back to reflection.
+     * @param method The method will be called
+     * @param <T> The type of the target object
+     * @param <V> The type of the value
+     * @return The setter accessor
+     */
+    <T, V> Setter<T, V> findSetter(Method method);
+
+    /**
+     * Find the cached accessor to call the constructor.
+     * It calls the constructor directly if the constructor and its class are public,
+     * otherwise it falls back to reflection.
+     * @param constructor The constructor will be called
+     * @param <T> The type of the created object
+     * @return The instantiator accessor
+     */
+    <T> Instantiator<T> findInstantiator(Constructor<T> constructor);
+
 }
@@ -0,0 +1,18 @@
+package artoria.reflect;
+
+/**
+ * The accessor to call a setter method (or any method with one parameter).
+ * @param <T> The type of the target object
+ * @param <V> The type of the value
+ * @author Kahle
+ */
+public interface Setter<T, V> {
+
+    /**
+     * Call the method on the target object.
+     * @param target The target object (it will be ignored if the method is static)
+     * @param value The value, it will be unboxed if the parameter is primitive
+     */
+    void set(T target, V value);
+
+}
@@ -18,6 +18,7 @@ import static artoria.common.Constants.ZERO;
  */
 public class SimpleReflecter implements Reflecter {
     private static final Integer GET_OR_SET_LENGTH = 3;
+    private final AccessorFactory accessorFactory = new AccessorFactory();
 
     protected boolean notAccess(Class<?> thisClazz, Class<?> superClazz, Member member) {
         // In this class all, and super class not private.
@@ -335,4 +336,22 @@ public class SimpleReflecter implements Reflecter {
         throw new NoSuchMethodException(msg);
     }
 
+    @Override
+    public <T, V> Getter<T, V> findGetter(Method method) {
+
+        return accessorFactory.getGetter(method);
+    }
+
+    @Override
+    public <T, V> Setter<T, V> findSetter(Method method) {
+
+        return accessorFactory.getSetter(method);
+    }
+
+    @Override
+    public <T> Instantiator<T> findInstantiator(Constructor<T> constructor) {
+
+        return accessorFactory.getInstantiator(constructor);
+    }
+
 }
@@ -0,0 +1,94 @@
+package artoria.time;
+
+import artoria.lifecycle.Destroyable;
+import artoria.lifecycle.Initializable;
+import artoria.lifecycle.LifecycleException;
+import artoria.thread.SimpleThreadFactory;
+import artoria.util.Assert;
+
+import java.util.concurrent.ThreadFactory;
+
+import static artoria.common.Constants.ZERO;
+
+/**
+ * Cached clock, the timestamp is updated by a daemon ticker thread at the precision,
+ * so reading it is only a volatile read. Before it is initialized (or after it is destroyed),
+ * the timestamp is read directly.
+ * @author Kahle
+ */
+public class CachedClock implements Clock, Initializable, Destroyable {
+    private static final ThreadFactory THREAD_FACTORY = new SimpleThreadFactory("cached-clock", true);
+    private final long precision;
+    private volatile long time;
+    private volatile Thread ticker;
+
+    public CachedClock() {
+
+        this(1L);
+    }
+
+    /**
+     * Create a cached clock.
+     * @param precision The update interval of the timestamp in milliseconds
+     */
+    public CachedClock(long precision) {
+        Assert.isTrue(precision > ZERO, "Parameter \"precision\" must > 0. ");
+        this.precision = precision;
+    }
+
+    public long getPrecision() {
+
+        return precision;
+    }
+
+    /**
+     * Read the current timestamp from the source, it is called by the ticker.
+     * @return The timestamp of the current time
+     */
+    protected long currentTime() {
+
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long getTime() {
+
+        return ticker != null ? time : currentTime();
+    }
+
+    @Override
+    public synchronized void initialize() throws LifecycleException {
+        if (ticker != null) { return; }
+        time = currentTime();
+        Thread thread = THREAD_FACTORY.newThread(new Ticker());
+        ticker = thread;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void destroy() throws Exception {
+        Thread thread = ticker;
+        if (thread == null) { return; }
+        ticker = null;
+        thread.interrupt();
+    }
+
+    private class Ticker implements Runnable {
+
+        @Override
+        public void run() {
+            Thread current = Thread.currentThread();
+            while (ticker == current) {
+                time = currentTime();
+                try {
+                    Thread.sleep(precision);
+                }
+                catch (InterruptedException e) {
+                    // Destroyed, the loop condition will stop it.
+                }
+            }
+        }
+
+    }
+
+}
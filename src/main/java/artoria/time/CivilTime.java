@@ -0,0 +1,365 @@
+package artoria.time;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * The civil date arithmetic on the epoch millis (the proleptic gregorian calendar, no calendar object).
+ * The civil date is packed into a long as "year << 9 | month << 5 | day", so nothing is allocated.
+ * The fields of the dates before 1583 are computed by the gregorian calendar (the julian dates before
+ * the cutover), so they are the same as the calendar and the date format.
+ * @author Kahle
+ */
+final class CivilTime {
+    static final long MILLIS_PER_DAY = 86400000L;
+    static final long MILLIS_PER_HOUR = 3600000L;
+    static final long MILLIS_PER_MINUTE = 60000L;
+    static final long MILLIS_PER_SECOND = 1000L;
+    /**
+     * The offsets of the default time zone, the same as the calendar template in the {@link SimpleDateTime}.
+     */
+    static final OffsetCache DEFAULT_OFFSETS = new OffsetCache(TimeZone.getDefault());
+    static final int FIRST_DAY_OF_WEEK;
+    static final int MINIMAL_DAYS_IN_FIRST_WEEK;
+    /**
+     * The epoch millis of 1583-01-02 (UTC), the dates after it are gregorian in any time zone.
+     */
+    private static final long GREGORIAN_START = daysFromCivil(1583, 1, 2) * MILLIS_PER_DAY;
+
+    static {
+        Calendar calendar = Calendar.getInstance();
+        FIRST_DAY_OF_WEEK = calendar.getFirstDayOfWeek();
+        MINIMAL_DAYS_IN_FIRST_WEEK = calendar.getMinimalDaysInFirstWeek();
+    }
+
+    private CivilTime() {
+
+        throw new UnsupportedOperationException();
+    }
+
+    static long floorDiv(long x, long y) {
+        long r = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) { r--; }
+        return r;
+    }
+
+    static long floorMod(long x, long y) {
+
+        return x - floorDiv(x, y) * y;
+    }
+
+    static boolean isLeapYear(long year) {
+
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int lengthOfMonth(long year, int month) {
+        if (month == 2) { return isLeapYear(year) ? 29 : 28; }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    static int lengthOfYear(long year) {
+
+        return isLeapYear(year) ? 366 : 365;
+    }
+
+    /**
+     * Compute the days since epoch of the civil date, the month may overflow (lenient).
+     * @param year The year
+     * @param month The month (1 - 12, or overflow)
+     * @param day The day of month (1 - 31, or overflow)
+     * @return The days since epoch
+     */
+    static long daysFromCivil(long year, long month, long day) {
+        long monthIndex = month - 1;
+        year += floorDiv(monthIndex, 12);
+        month = floorMod(monthIndex, 12) + 1;
+        year -= month <= 2 ? 1 : 0;
+        long era = floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468 + day - 1;
+    }
+
+    /**
+     * Compute the civil date of the days since epoch.
+     * @param days The days since epoch
+     * @return The packed civil date
+     */
+    static long civilFromDays(long days) {
+        days += 719468;
+        long era = floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        return year << 9 | month << 5 | day;
+    }
+
+    static long yearOf(long civil) {
+
+        return civil >> 9;
+    }
+
+    static int monthOf(long civil) {
+
+        return (int) (civil >> 5 & 15);
+    }
+
+    static int dayOf(long civil) {
+
+        return (int) (civil & 31);
+    }
+
+    /**
+     * Return the day of week, the sunday is 1 and the saturday is 7 (the same as the calendar).
+     * @param days The days since epoch
+     * @return The day of week
+     */
+    static int dayOfWeek(long days) {
+        // The 1970-01-01 is thursday.
+        return (int) floorMod(days + 4, 7) + 1;
+    }
+
+    private static long dayOfWeekOnOrBefore(long days, int dayOfWeek) {
+
+        return days - floorMod(dayOfWeek(days) - dayOfWeek, 7);
+    }
+
+    /**
+     * Compute the week number in the period, the same as the gregorian calendar.
+     * @param firstDayOfPeriod The days since epoch of the first day of the period
+     * @param days The days since epoch
+     * @return The week number (0 if the day is in the last week of the previous period)
+     */
+    static int weekNumber(long firstDayOfPeriod, long days) {
+        long firstWeekStart = dayOfWeekOnOrBefore(firstDayOfPeriod + 6, FIRST_DAY_OF_WEEK);
+        if (firstWeekStart - firstDayOfPeriod >= MINIMAL_DAYS_IN_FIRST_WEEK) { firstWeekStart -= 7; }
+        return (int) floorDiv(days - firstWeekStart, 7) + 1;
+    }
+
+    static int weekOfYear(long days, long year) {
+        long firstDayOfYear = daysFromCivil(year, 1, 1);
+        int week = weekNumber(firstDayOfYear, days);
+        if (week == 0) {
+            // The last week of the previous year.
+            return weekNumber(firstDayOfYear - lengthOfYear(year - 1), firstDayOfYear - 1);
+        }
+        if (week >= 52) {
+            // Maybe the first week of the next year.
+            long firstDayOfNextYear = firstDayOfYear + lengthOfYear(year);
+            long nextWeekStart = dayOfWeekOnOrBefore(firstDayOfNextYear + 6, FIRST_DAY_OF_WEEK);
+            if (nextWeekStart - firstDayOfNextYear >= MINIMAL_DAYS_IN_FIRST_WEEK && days >= nextWeekStart - 7) {
+                week = 1;
+            }
+        }
+        return week;
+    }
+
+    private static Calendar calendarOf(OffsetCache offsets, long millis) {
+        Calendar calendar = new GregorianCalendar(offsets.getTimeZone());
+        calendar.setFirstDayOfWeek(FIRST_DAY_OF_WEEK);
+        calendar.setMinimalDaysInFirstWeek(MINIMAL_DAYS_IN_FIRST_WEEK);
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    /**
+     * Get the field of the epoch millis in the time zone.
+     * @param offsets The offsets of the time zone
+     * @param millis The epoch millis
+     * @param field The field of the {@link Calendar}, but the month is from 1 to 12
+     * @return The value of the field
+     */
+    static int get(OffsetCache offsets, long millis, int field) {
+        if (millis < GREGORIAN_START) {
+            int value = calendarOf(offsets, millis).get(field);
+            return field == Calendar.MONTH ? value + 1 : value;
+        }
+        long local = offsets.toLocal(millis);
+        long days = floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+        switch (field) {
+            case Calendar.HOUR_OF_DAY: return (int) (millisOfDay / MILLIS_PER_HOUR);
+            case Calendar.MINUTE: return (int) (millisOfDay / MILLIS_PER_MINUTE % 60);
+            case Calendar.SECOND: return (int) (millisOfDay / MILLIS_PER_SECOND % 60);
+            case Calendar.MILLISECOND: return (int) (millisOfDay % MILLIS_PER_SECOND);
+            case Calendar.DAY_OF_WEEK: return dayOfWeek(days);
+            default: break;
+        }
+        long civil = civilFromDays(days);
+        long year = yearOf(civil);
+        int day = dayOf(civil);
+        switch (field) {
+            case Calendar.YEAR: return (int) year;
+            case Calendar.MONTH: return monthOf(civil);
+            case Calendar.DATE: return day;
+            case Calendar.DAY_OF_YEAR: return (int) (days - daysFromCivil(year, 1, 1) + 1);
+            case Calendar.DAY_OF_WEEK_IN_MONTH: return (day - 1) / 7 + 1;
+            case Calendar.WEEK_OF_MONTH: return weekNumber(days - day + 1, days);
+            case Calendar.WEEK_OF_YEAR: return weekOfYear(days, year);
+            default: throw new IllegalArgumentException("Unsupported field \"" + field + "\". ");
+        }
+    }
+
+    /**
+     * Set the field of the epoch millis in the time zone, it is lenient as the calendar.
+     * @param offsets The offsets of the time zone
+     * @param millis The epoch millis
+     * @param field The field of the {@link Calendar}, but the month is from 1 to 12
+     * @param value The value of the field
+     * @return The new epoch millis
+     */
+    static long set(OffsetCache offsets, long millis, int field, int value) {
+        long local = offsets.toLocal(millis);
+        long days = floorDiv(local, MILLIS_PER_DAY);
+        long millisOfDay = local - days * MILLIS_PER_DAY;
+        long civil = civilFromDays(days);
+        long year = yearOf(civil);
+        long month = monthOf(civil), day = dayOf(civil);
+        switch (field) {
+            case Calendar.YEAR: year = value; break;
+            case Calendar.MONTH: month = value; break;
+            case Calendar.DATE: day = value; break;
+            case Calendar.DAY_OF_YEAR: month = 1; day = value; break;
+            case Calendar.HOUR_OF_DAY:
+                millisOfDay = value * MILLIS_PER_HOUR + millisOfDay % MILLIS_PER_HOUR; break;
+            case Calendar.MINUTE:
+                millisOfDay = millisOfDay / MILLIS_PER_HOUR * MILLIS_PER_HOUR
+                        + value * MILLIS_PER_MINUTE + millisOfDay % MILLIS_PER_MINUTE; break;
+            case Calendar.SECOND:
+                millisOfDay = millisOfDay / MILLIS_PER_MINUTE * MILLIS_PER_MINUTE
+                        + value * MILLIS_PER_SECOND + millisOfDay % MILLIS_PER_SECOND; break;
+            case Calendar.MILLISECOND:
+                millisOfDay = millisOfDay / MILLIS_PER_SECOND * MILLIS_PER_SECOND + value; break;
+            default: throw new IllegalArgumentException("Unsupported field \"" + field + "\". ");
+        }
+        long result = offsets.toEpoch(daysFromCivil(year, month, day) * MILLIS_PER_DAY + millisOfDay);
+        if (millis < GREGORIAN_START || result < GREGORIAN_START) {
+            Calendar calendar = calendarOf(offsets, millis);
+            calendar.set(field, field == Calendar.MONTH ? value - 1 : value);
+            return calendar.getTimeInMillis();
+        }
+        return result;
+    }
+
+    /**
+     * Add the months, the day of month is kept or is the last day of the month (the same as the calendar).
+     * @param offsets The offsets of the time zone
+     * @param millis The epoch millis
+     * @param months The months to be added
+     * @return The new epoch millis
+     */
+    static long addMonths(OffsetCache offsets, long millis, long months) {
+        long local = offsets.toLocal(millis);
+        long days = floorDiv(local, MILLIS_PER_DAY);
+        long millisOfDay = local - days * MILLIS_PER_DAY;
+        long civil = civilFromDays(days);
+        long monthIndex = monthOf(civil) - 1 + months;
+        long year = yearOf(civil) + floorDiv(monthIndex, 12);
+        int month = (int) floorMod(monthIndex, 12) + 1;
+        int day = Math.min(dayOf(civil), lengthOfMonth(year, month));
+        long result = offsets.toEpoch(daysFromCivil(year, month, day) * MILLIS_PER_DAY + millisOfDay);
+        if (millis < GREGORIAN_START || result < GREGORIAN_START) {
+            Calendar calendar = calendarOf(offsets, millis);
+            calendar.add(Calendar.MONTH, (int) months);
+            return calendar.getTimeInMillis();
+        }
+        return result;
+    }
+
+    /**
+     * Add the days, the local time is kept (the same as the calendar).
+     * @param offsets The offsets of the time zone
+     * @param millis The epoch millis
+     * @param days The days to be added
+     * @return The new epoch millis
+     */
+    static long addDays(OffsetCache offsets, long millis, long days) {
+
+        return offsets.toEpoch(offsets.toLocal(millis) + days * MILLIS_PER_DAY);
+    }
+
+    /**
+     * The time zone offsets for each quarter of an hour, the slots are mapped directly by the quarter.
+     * The entries are immutable, so the slots can be replaced by any thread without locking.
+     */
+    static class OffsetCache {
+        private static final long QUARTER = 900000L;
+        private static final int SIZE = 1024;
+        private final OffsetEntry[] entries = new OffsetEntry[SIZE];
+        private final TimeZone timeZone;
+
+        OffsetCache(TimeZone timeZone) {
+
+            this.timeZone = timeZone;
+        }
+
+        TimeZone getTimeZone() {
+
+            return timeZone;
+        }
+
+        /**
+         * Get the offset of the time zone at the epoch millis.
+         * @param millis The epoch millis
+         * @return The offset in millis
+         */
+        int getOffset(long millis) {
+            long quarter = floorDiv(millis, QUARTER);
+            int index = (int) (quarter & (SIZE - 1));
+            OffsetEntry entry = entries[index];
+            if (entry != null && entry.quarter == quarter) { return entry.offset; }
+            long start = quarter * QUARTER;
+            int offset = timeZone.getOffset(start);
+            // The quarter which has a transition is not cached.
+            if (offset != timeZone.getOffset(start + QUARTER - 1)) {
+                return timeZone.getOffset(millis);
+            }
+            entries[index] = new OffsetEntry(quarter, offset);
+            return offset;
+        }
+
+        long toLocal(long millis) {
+
+            return millis + getOffset(millis);
+        }
+
+        /**
+         * Convert the local millis to the epoch millis, the same as the calendar, the local time
+         * in the gap of a transition uses the offset before it, and the local time in the overlap
+         * of a transition is the later one (usually the standard time).
+         * @param local The local millis
+         * @return The epoch millis
+         */
+        long toEpoch(long local) {
+            int before = getOffset(local - MILLIS_PER_DAY);
+            int after = getOffset(local + MILLIS_PER_DAY);
+            if (before == after) { return local - before; }
+            long epochBefore = local - before, epochAfter = local - after;
+            boolean validBefore = getOffset(epochBefore) == before;
+            boolean validAfter = getOffset(epochAfter) == after;
+            if (validBefore && validAfter) { return Math.max(epochBefore, epochAfter); }
+            if (validAfter) { return epochAfter; }
+            return epochBefore;
+        }
+
+    }
+
+    private static class OffsetEntry {
+        private final long quarter;
+        private final int offset;
+
+        private OffsetEntry(long quarter, int offset) {
+            this.quarter = quarter;
+            this.offset = offset;
+        }
+
+    }
+
+}
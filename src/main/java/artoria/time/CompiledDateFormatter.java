@@ -0,0 +1,432 @@
+package artoria.time;
+
+import artoria.collection.ConcurrentReferenceMap;
+import artoria.collection.ReferenceMap;
+import artoria.exception.ExceptionUtils;
+import artoria.util.Assert;
+
+import java.io.IOException;
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Date formatter and parser which compiles the patterns once and is shared by all the threads.
+ * The fields are computed from the epoch millis directly (no calendar), the time zone offsets
+ * are cached for each quarter of an hour. The supported letters are "yMdHkKhmsSEaZD",
+ * the patterns with the other letters and the dates before the gregorian cutover (1582)
+ * are handled by a new {@link SimpleDateFormat} for each call.
+ * @author Kahle
+ */
+public class CompiledDateFormatter implements DateFormatter, DateParser {
+    private static final String SUPPORTED_LETTERS = "yMdHkKhmsSEaZD";
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+    private static final long MILLIS_PER_DAY = CivilTime.MILLIS_PER_DAY;
+    private static final Token[] UNSUPPORTED = new Token[0];
+    private static final long FAILED = Long.MIN_VALUE;
+    private final Map<String, Token[]> patterns =
+            new ConcurrentReferenceMap<String, Token[]>(ReferenceMap.Type.SOFT);
+    private final CivilTime.OffsetCache offsetCache;
+    private final TimeZone timeZone;
+    private final String[] months;
+    private final String[] shortMonths;
+    private final String[] weekdays;
+    private final String[] shortWeekdays;
+    private final String[] amPmStrings;
+    private final int defaultCenturyStart;
+    private final long defaultCenturyStartMillis;
+
+    public CompiledDateFormatter() {
+
+        this(TimeZone.getDefault());
+    }
+
+    public CompiledDateFormatter(TimeZone timeZone) {
+        Assert.notNull(timeZone, "Parameter \"timeZone\" must not null. ");
+        DateFormatSymbols symbols = new DateFormatSymbols();
+        this.timeZone = (TimeZone) timeZone.clone();
+        this.offsetCache = new CivilTime.OffsetCache(this.timeZone);
+        this.months = symbols.getMonths();
+        this.shortMonths = symbols.getShortMonths();
+        this.weekdays = symbols.getWeekdays();
+        this.shortWeekdays = symbols.getShortWeekdays();
+        this.amPmStrings = symbols.getAmPmStrings();
+        // The same as SimpleDateFormat, the two digits years are within 80 years before and 20 years after now.
+        long now = System.currentTimeMillis();
+        long local = offsetCache.toLocal(now);
+        long days = CivilTime.floorDiv(local, MILLIS_PER_DAY);
+        long civil = CivilTime.civilFromDays(days);
+        this.defaultCenturyStart = (int) CivilTime.yearOf(civil) - 80;
+        this.defaultCenturyStartMillis = toMillis(defaultCenturyStart, CivilTime.monthOf(civil), CivilTime.dayOf(civil)
+                , -1, 0, 0, 0, local - days * MILLIS_PER_DAY, Integer.MIN_VALUE);
+    }
+
+    public TimeZone getTimeZone() {
+
+        return (TimeZone) timeZone.clone();
+    }
+
+    private static void appendNumber(Appendable out, long value, int width) throws IOException {
+        int digits = 1;
+        long divisor = 1;
+        for (long rest = value; rest >= 10; rest /= 10) {
+            divisor *= 10;
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            out.append('0');
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static Token[] compile(String pattern) {
+        List<Token> tokens = new ArrayList<Token>();
+        int length = pattern.length();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < length; ) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end == i + 1) {
+                    literal.append('\'');
+                    i += 2;
+                    continue;
+                }
+                if (end < 0) { return UNSUPPORTED; }
+                literal.append(pattern, i + 1, end);
+                i = end + 1;
+                continue;
+            }
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (SUPPORTED_LETTERS.indexOf(c) < 0) { return UNSUPPORTED; }
+            int count = 1;
+            while (i + count < length && pattern.charAt(i + count) == c) { count++; }
+            if (literal.length() > 0) {
+                tokens.add(new Token((char) 0, 0, literal.toString()));
+                literal.setLength(0);
+            }
+            tokens.add(new Token(c, count, null));
+            i += count;
+        }
+        if (literal.length() > 0) {
+            tokens.add(new Token((char) 0, 0, literal.toString()));
+        }
+        Token[] result = tokens.toArray(new Token[tokens.size()]);
+        for (int i = 0; i < result.length - 1; i++) {
+            // The abutting numeric fields are parsed by their widths, such as "yyyyMMdd".
+            result[i].abutting = result[i].isNumeric() && result[i + 1].isNumeric();
+        }
+        return result;
+    }
+
+    private Token[] getTokens(String pattern) {
+        Assert.notBlank(pattern, "Parameter \"pattern\" must not blank. ");
+        Token[] tokens = patterns.get(pattern);
+        if (tokens == null) {
+            tokens = compile(pattern);
+            patterns.put(pattern, tokens);
+        }
+        return tokens;
+    }
+
+    private SimpleDateFormat newDateFormat(String pattern) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+        dateFormat.setTimeZone(timeZone);
+        return dateFormat;
+    }
+
+    /**
+     * Format the epoch millis into the appendable.
+     * @param millis The epoch millis
+     * @param pattern The date pattern
+     * @param out The output of the date string
+     * @throws IOException The output error
+     */
+    public void format(long millis, String pattern, Appendable out) throws IOException {
+        Assert.notNull(out, "Parameter \"out\" must not null. ");
+        Token[] tokens = getTokens(pattern);
+        if (tokens == UNSUPPORTED || millis < GREGORIAN_CUTOVER) {
+            out.append(newDateFormat(pattern).format(new Date(millis)));
+            return;
+        }
+        int offset = offsetCache.getOffset(millis);
+        long local = millis + offset;
+        long days = CivilTime.floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+        long civil = CivilTime.civilFromDays(days);
+        long year = CivilTime.yearOf(civil);
+        int month = CivilTime.monthOf(civil), day = CivilTime.dayOf(civil);
+        int hour = millisOfDay / 3600000;
+        for (Token token : tokens) {
+            int count = token.count;
+            switch (token.letter) {
+                case 0: out.append(token.literal); break;
+                case 'y': appendNumber(out, count == 2 ? year % 100 : year, count); break;
+                case 'M':
+                    if (count >= 4) { out.append(months[month - 1]); }
+                    else if (count == 3) { out.append(shortMonths[month - 1]); }
+                    else { appendNumber(out, month, count); }
+                    break;
+                case 'd': appendNumber(out, day, count); break;
+                case 'D': appendNumber(out, days - CivilTime.daysFromCivil(year, 1, 1) + 1, count); break;
+                case 'H': appendNumber(out, hour, count); break;
+                case 'k': appendNumber(out, hour == 0 ? 24 : hour, count); break;
+                case 'K': appendNumber(out, hour % 12, count); break;
+                case 'h': appendNumber(out, hour % 12 == 0 ? 12 : hour % 12, count); break;
+                case 'm': appendNumber(out, millisOfDay / 60000 % 60, count); break;
+                case 's': appendNumber(out, millisOfDay / 1000 % 60, count); break;
+                case 'S': appendNumber(out, millisOfDay % 1000, count); break;
+                case 'E':
+                    int dayOfWeek = CivilTime.dayOfWeek(days);
+                    out.append(count >= 4 ? weekdays[dayOfWeek] : shortWeekdays[dayOfWeek]);
+                    break;
+                case 'a': out.append(amPmStrings[hour < 12 ? 0 : 1]); break;
+                case 'Z':
+                    int minutes = offset / 60000;
+                    out.append(minutes < 0 ? '-' : '+');
+                    minutes = Math.abs(minutes);
+                    appendNumber(out, minutes / 60, 2);
+                    appendNumber(out, minutes % 60, 2);
+                    break;
+                default: throw new IllegalStateException("Unsupported letter \"" + token.letter + "\". ");
+            }
+        }
+    }
+
+    public void format(long millis, String pattern, StringBuilder builder) {
+        try {
+            format(millis, pattern, (Appendable) builder);
+        }
+        catch (IOException e) {
+            // The StringBuilder never throws it.
+            throw ExceptionUtils.wrap(e);
+        }
+    }
+
+    public String format(long millis, String pattern) {
+        StringBuilder builder = new StringBuilder(pattern.length() + 8);
+        format(millis, pattern, builder);
+        return builder.toString();
+    }
+
+    @Override
+    public String format(Date date, String pattern) {
+        Assert.notNull(date, "Parameter \"date\" must not null. ");
+        return format(date.getTime(), pattern);
+    }
+
+    private int parseText(String source, int index, String[] texts, int[] result) {
+        int matchIndex = -1, matchLength = 0;
+        for (int i = 0; i < texts.length; i++) {
+            String text = texts[i];
+            int length = text.length();
+            if (length <= matchLength) { continue; }
+            if (source.regionMatches(true, index, text, 0, length)) {
+                matchIndex = i;
+                matchLength = length;
+            }
+        }
+        result[0] = matchIndex;
+        return index + matchLength;
+    }
+
+    private long parseByFormat(String dateString, String pattern, ParsePosition position) {
+        Date date = newDateFormat(pattern).parse(dateString, position);
+        return date != null ? date.getTime() : FAILED;
+    }
+
+    /**
+     * Parse the date string, the failure is reported by the error index of the position instead of the exception.
+     */
+    private long parse(String dateString, String pattern, ParsePosition position) {
+        Token[] tokens = getTokens(pattern);
+        if (tokens == UNSUPPORTED) {
+            return parseByFormat(dateString, pattern, position);
+        }
+        long year = 1970;
+        int month = 1, day = 1, dayOfYear = -1, hour = 0, minute = 0, second = 0, millisecond = 0;
+        int pm = -1, zoneOffset = Integer.MIN_VALUE, index = 0, length = dateString.length();
+        int[] textResult = new int[1];
+        boolean atCenturyStart = false;
+        for (Token token : tokens) {
+            if (token.letter == 0) {
+                if (!dateString.startsWith(token.literal, index)) {
+                    position.setErrorIndex(index);
+                    return FAILED;
+                }
+                index += token.literal.length();
+                continue;
+            }
+            if (token.isNumeric()) {
+                int end = index, limit = token.abutting ? Math.min(length, index + token.count) : length;
+                long value = 0;
+                while (end < limit && end - index < 18) {
+                    char c = dateString.charAt(end);
+                    if (c < '0' || c > '9') { break; }
+                    value = value * 10 + (c - '0');
+                    end++;
+                }
+                if (end == index) {
+                    position.setErrorIndex(index);
+                    return FAILED;
+                }
+                boolean twoDigitsYear = token.letter == 'y' && token.count <= 2 && end - index == 2;
+                index = end;
+                switch (token.letter) {
+                    case 'y':
+                        year = value;
+                        atCenturyStart = false;
+                        if (twoDigitsYear) {
+                            year = defaultCenturyStart / 100 * 100 + value;
+                            if (year < defaultCenturyStart) { year += 100; }
+                            atCenturyStart = year == defaultCenturyStart;
+                        }
+                        break;
+                    case 'M': month = (int) value; break;
+                    case 'd': day = (int) value; break;
+                    case 'D': dayOfYear = (int) value; break;
+                    case 'H': hour = (int) value; break;
+                    case 'k': hour = value == 24 ? 0 : (int) value; break;
+                    case 'K': hour = (int) value; break;
+                    case 'h': hour = value == 12 ? 0 : (int) value; break;
+                    case 'm': minute = (int) value; break;
+                    case 's': second = (int) value; break;
+                    default: millisecond = (int) value; break;
+                }
+                continue;
+            }
+            int start = index;
+            boolean matched;
+            switch (token.letter) {
+                case 'M':
+                    index = parseText(dateString, index, months, textResult);
+                    if (textResult[0] < 0) { index = parseText(dateString, index, shortMonths, textResult); }
+                    matched = textResult[0] >= 0;
+                    month = textResult[0] + 1;
+                    break;
+                case 'E':
+                    index = parseText(dateString, index, weekdays, textResult);
+                    if (textResult[0] < 0) { index = parseText(dateString, index, shortWeekdays, textResult); }
+                    matched = textResult[0] >= 0;
+                    break;
+                case 'a':
+                    index = parseText(dateString, index, amPmStrings, textResult);
+                    matched = textResult[0] >= 0;
+                    pm = textResult[0];
+                    break;
+                default:
+                    zoneOffset = parseZone(dateString, index);
+                    matched = zoneOffset != Integer.MIN_VALUE;
+                    if (matched) { index += dateString.charAt(index + 3) == ':' ? 6 : 5; }
+                    break;
+            }
+            if (!matched || index == start) {
+                position.setErrorIndex(start);
+                return FAILED;
+            }
+        }
+        if (year < 1583) {
+            return parseByFormat(dateString, pattern, position);
+        }
+        if (pm == 1 && hour < 12) { hour += 12; }
+        long millis = toMillis(year, month, day, dayOfYear, hour, minute, second, millisecond, zoneOffset);
+        if (atCenturyStart && millis < defaultCenturyStartMillis) {
+            millis = toMillis(year + 100, month, day, dayOfYear, hour, minute, second, millisecond, zoneOffset);
+        }
+        return millis;
+    }
+
+    private long toMillis(long year, int month, int day, int dayOfYear, int hour
+            , int minute, int second, long millisecond, int zoneOffset) {
+        // Lenient as SimpleDateFormat, the overflow of the month is carried to the year.
+        long days = dayOfYear > 0 ? CivilTime.daysFromCivil(year, 1, dayOfYear) : CivilTime.daysFromCivil(year, month, day);
+        long local = days * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L + second * 1000L + millisecond;
+        if (zoneOffset != Integer.MIN_VALUE) { return local - zoneOffset; }
+        return offsetCache.toEpoch(local);
+    }
+
+    private static int parseZone(String source, int index) {
+        // Such as "+0800" or "+08:00".
+        if (index + 5 > source.length()) { return Integer.MIN_VALUE; }
+        char sign = source.charAt(index);
+        if (sign != '+' && sign != '-') { return Integer.MIN_VALUE; }
+        int colon = source.charAt(index + 3) == ':' ? 1 : 0;
+        if (index + 5 + colon > source.length()) { return Integer.MIN_VALUE; }
+        int value = 0;
+        for (int i = index + 1; i < index + 5 + colon; i++) {
+            if (colon == 1 && i == index + 3) { continue; }
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') { return Integer.MIN_VALUE; }
+            value = value * 10 + (c - '0');
+        }
+        int offset = (value / 100 * 60 + value % 100) * 60000;
+        return sign == '-' ? -offset : offset;
+    }
+
+    /**
+     * Parse the date string to the epoch millis, the text after the pattern is ignored.
+     * @param dateString The date string
+     * @param pattern The date pattern
+     * @return The epoch millis
+     * @throws ParseException The date string does not match the pattern
+     */
+    public long parseMillis(String dateString, String pattern) throws ParseException {
+        Assert.notBlank(dateString, "Parameter \"dateString\" must not blank. ");
+        ParsePosition position = new ParsePosition(0);
+        long millis = parse(dateString, pattern, position);
+        if (millis == FAILED) {
+            throw new ParseException("Unparseable date: \"" + dateString + "\"", position.getErrorIndex());
+        }
+        return millis;
+    }
+
+    /**
+     * Parse the date string, it is used to try the patterns without the cost of the exception.
+     * @param dateString The date string
+     * @param pattern The date pattern
+     * @return The date or null if the date string does not match the pattern
+     */
+    public Date tryParse(String dateString, String pattern) {
+        Assert.notBlank(dateString, "Parameter \"dateString\" must not blank. ");
+        long millis = parse(dateString, pattern, new ParsePosition(0));
+        return millis != FAILED ? new Date(millis) : null;
+    }
+
+    @Override
+    public Date parse(String dateString, String pattern) throws ParseException {
+
+        return new Date(parseMillis(dateString, pattern));
+    }
+
+    private static class Token {
+        private final char letter;
+        private final int count;
+        private final String literal;
+        private boolean abutting;
+
+        private Token(char letter, int count, String literal) {
+            this.literal = literal;
+            this.letter = letter;
+            this.count = count;
+        }
+
+        private boolean isNumeric() {
+            if (letter == 0 || letter == 'E' || letter == 'a' || letter == 'Z') { return false; }
+            return letter != 'M' || count < 3;
+        }
+
+    }
+
+}
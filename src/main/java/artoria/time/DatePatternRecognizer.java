@@ -0,0 +1,111 @@
+package artoria.time;
+
+import artoria.util.Assert;
+import artoria.util.StringUtils;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Date pattern recognizer, it finds the registered patterns by the shape of the date string.
+ * The shape is computed in one pass of the characters, the runs of digits become "0",
+ * the runs of letters become "a", and the sign "+" becomes "-" (both are the sign of the time zone).
+ * So "2019-03-25 10:10:10" and "2019-3-25 9:10:10" are both "0-0-0 0:0:0",
+ * which is the shape of the pattern "yyyy-MM-dd HH:mm:ss".
+ * @author Kahle
+ */
+public class DatePatternRecognizer {
+    private static final String[] EMPTY_PATTERNS = new String[0];
+    private static final char DIGIT = '0';
+    private static final char LETTER = 'a';
+    private static final char PLUS = '+';
+    private static final char MINUS = '-';
+    private final ConcurrentMap<String, String[]> shapes = new ConcurrentHashMap<String, String[]>();
+    private final Set<String> patterns = new LinkedHashSet<String>();
+
+    /**
+     * Compute the shape of the date string.
+     * @param dateString The date string
+     * @return The shape of the date string
+     */
+    public static String shapeOf(String dateString) {
+        Assert.notNull(dateString, "Parameter \"dateString\" must not null. ");
+        int length = dateString.length();
+        char[] shape = new char[length];
+        int count = 0;
+        char last = 0;
+        for (int i = 0; i < length; i++) {
+            char c = dateString.charAt(i);
+            if (c >= '0' && c <= '9') { c = DIGIT; }
+            else if (Character.isLetter(c)) { c = LETTER; }
+            else if (c == PLUS) { c = MINUS; }
+            if ((c == DIGIT || c == LETTER) && c == last) { continue; }
+            shape[count++] = last = c;
+        }
+        return new String(shape, 0, count);
+    }
+
+    /**
+     * Compute the shape of the date pattern, by formatting a date whose fields are all two digits.
+     * @param pattern The date pattern
+     * @return The shape of the date pattern
+     */
+    public static String shapeOfPattern(String pattern) {
+        Assert.notBlank(pattern, "Parameter \"pattern\" must not blank. ");
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2019, Calendar.DECEMBER, 31, 23, 59, 59);
+        calendar.set(Calendar.MILLISECOND, 999);
+        String sample = new SimpleDateFormat(pattern).format(calendar.getTime());
+        return shapeOf(sample);
+    }
+
+    public synchronized void register(String pattern) {
+        Assert.notBlank(pattern, "Parameter \"pattern\" must not blank. ");
+        if (!patterns.add(pattern)) { return; }
+        String shape = shapeOfPattern(pattern);
+        String[] old = shapes.get(shape);
+        old = old != null ? old : EMPTY_PATTERNS;
+        String[] newPatterns = Arrays.copyOf(old, old.length + 1);
+        newPatterns[old.length] = pattern;
+        shapes.put(shape, newPatterns);
+    }
+
+    public synchronized void unregister(String pattern) {
+        Assert.notBlank(pattern, "Parameter \"pattern\" must not blank. ");
+        if (!patterns.remove(pattern)) { return; }
+        String shape = shapeOfPattern(pattern);
+        String[] old = shapes.get(shape);
+        if (old == null) { return; }
+        List<String> list = new ArrayList<String>(Arrays.asList(old));
+        list.remove(pattern);
+        if (list.isEmpty()) {
+            shapes.remove(shape);
+        }
+        else {
+            shapes.put(shape, list.toArray(new String[list.size()]));
+        }
+    }
+
+    /**
+     * Get all the registered patterns.
+     * @return The unmodifiable copy of the registered patterns
+     */
+    public synchronized Set<String> getPatterns() {
+
+        return Collections.unmodifiableSet(new LinkedHashSet<String>(patterns));
+    }
+
+    /**
+     * Find the registered patterns which have the same shape as the date string.
+     * @param dateString The date string
+     * @return The patterns in the registered order (do not modify it), or the empty array if none
+     */
+    public String[] recognize(String dateString) {
+        if (StringUtils.isBlank(dateString)) { return EMPTY_PATTERNS; }
+        String[] patterns = shapes.get(shapeOf(dateString.trim()));
+        return patterns != null ? patterns : EMPTY_PATTERNS;
+    }
+
+}
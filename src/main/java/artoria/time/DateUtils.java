@@ -9,8 +9,6 @@ import artoria.util.StringUtils;
 
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 
 import static artoria.common.Constants.*;
 
@@ -19,7 +17,7 @@ import static artoria.common.Constants.*;
  * @author Kahle
  */
 public class DateUtils {
-    private static final Set<String> DATE_PATTERNS = new HashSet<String>();
+    private static final DatePatternRecognizer RECOGNIZER = new DatePatternRecognizer();
     private static final Class<? extends DateTime> DEFAULT_TIME_TYPE;
     private static final DateFormatter DEFAULT_DATE_FORMATTER;
     private static final DateParser DEFAULT_DATE_PARSER;
@@ -29,10 +27,10 @@ public class DateUtils {
     private static DateParser dateParser;
 
     static {
-        SimpleDateFormatter formatter = new SimpleDateFormatter();
+        CompiledDateFormatter formatter = new CompiledDateFormatter();
         DEFAULT_DATE_FORMATTER = formatter;
         DEFAULT_DATE_PARSER = formatter;
-        DEFAULT_TIME_TYPE = SimpleDateTime.class;
+        DEFAULT_TIME_TYPE = MillisDateTime.class;
         DateUtils.register("yyyy-MM-dd'T'HH:mm:ss'Z'");
         DateUtils.register("yyyy-MM-dd'T'HH:mm:ssZ");
         DateUtils.register("yyyy-MM-dd HH:mm:ss");
@@ -80,17 +78,19 @@ public class DateUtils {
 
     public static void unregister(String datePattern) {
         Assert.notBlank(datePattern, "Parameter \"datePattern\" must not blank. ");
-        DATE_PATTERNS.remove(datePattern);
+        RECOGNIZER.unregister(datePattern);
         log.info("Unregister date pattern \"{}\" success. ", datePattern);
     }
 
     public static void register(String datePattern) {
         Assert.notBlank(datePattern, "Parameter \"datePattern\" must not blank. ");
-        DATE_PATTERNS.add(datePattern);
+        RECOGNIZER.register(datePattern);
         log.info("Register date pattern \"{}\" success. ", datePattern);
     }
 
     public static DateTime create() {
+        // The default type is created directly, the reflection is only for the custom type.
+        if (timeType == null) { return new MillisDateTime(); }
         try {
             return getTimeType().newInstance();
         }
@@ -239,109 +239,114 @@ public class DateUtils {
         return result;
     }
 
-    public static Date addYear(Date date, int addYear) {
+    private static long millisOf(Date date) {
+        Assert.notNull(date, "Parameter \"date\" must not null. ");
+        return date.getTime();
+    }
 
-        return DateUtils.create(date).addYear(addYear).getDate();
+    public static Date addYear(Date date, int addYear) {
+        long millis = CivilTime.addMonths(CivilTime.DEFAULT_OFFSETS, millisOf(date), addYear * 12L);
+        return new Date(millis);
     }
 
     public static Date addMonth(Date date, int addMonth) {
-
-        return DateUtils.create(date).addMonth(addMonth).getDate();
+        long millis = CivilTime.addMonths(CivilTime.DEFAULT_OFFSETS, millisOf(date), addMonth);
+        return new Date(millis);
     }
 
     public static Date addDay(Date date, int addDay) {
-
-        return DateUtils.create(date).addDay(addDay).getDate();
+        long millis = CivilTime.addDays(CivilTime.DEFAULT_OFFSETS, millisOf(date), addDay);
+        return new Date(millis);
     }
 
     public static Date addHour(Date date, int addHour) {
 
-        return DateUtils.create(date).addHour(addHour).getDate();
+        return new Date(millisOf(date) + addHour * CivilTime.MILLIS_PER_HOUR);
     }
 
     public static Date addMinute(Date date, int addMinute) {
 
-        return DateUtils.create(date).addMinute(addMinute).getDate();
+        return new Date(millisOf(date) + addMinute * CivilTime.MILLIS_PER_MINUTE);
     }
 
     public static Date addSecond(Date date, int addSecond) {
 
-        return DateUtils.create(date).addSecond(addSecond).getDate();
+        return new Date(millisOf(date) + addSecond * CivilTime.MILLIS_PER_SECOND);
     }
 
     public static Date addMillisecond(Date date, int addMillisecond) {
 
-        return DateUtils.create(date).addMillisecond(addMillisecond).getDate();
+        return new Date(millisOf(date) + addMillisecond);
     }
 
     public static int getYear(Date date) {
 
-        return DateUtils.create(date).getYear();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.YEAR);
     }
 
     public static Date setYear(Date date, int year) {
-
-        return DateUtils.create(date).setYear(year).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.YEAR, year);
+        return new Date(millis);
     }
 
     public static int getMonth(Date date) {
 
-        return DateUtils.create(date).getMonth();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.MONTH);
     }
 
     public static Date setMonth(Date date, int month) {
-
-        return DateUtils.create(date).setMonth(month).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.MONTH, month);
+        return new Date(millis);
     }
 
     public static int getDay(Date date) {
 
-        return DateUtils.create(date).getDay();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.DATE);
     }
 
     public static Date setDay(Date date, int day) {
-
-        return DateUtils.create(date).setDay(day).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.DATE, day);
+        return new Date(millis);
     }
 
     public static int getHour(Date date) {
 
-        return DateUtils.create(date).getHour();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.HOUR_OF_DAY);
     }
 
     public static Date setHour(Date date, int hour) {
-
-        return DateUtils.create(date).setHour(hour).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.HOUR_OF_DAY, hour);
+        return new Date(millis);
     }
 
     public static int getMinute(Date date) {
 
-        return DateUtils.create(date).getMinute();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.MINUTE);
     }
 
     public static Date setMinute(Date date, int minute) {
-
-        return DateUtils.create(date).setMinute(minute).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.MINUTE, minute);
+        return new Date(millis);
     }
 
     public static int getSecond(Date date) {
 
-        return DateUtils.create(date).getSecond();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.SECOND);
     }
 
     public static Date setSecond(Date date, int second) {
-
-        return DateUtils.create(date).setSecond(second).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.SECOND, second);
+        return new Date(millis);
     }
 
     public static int getMillisecond(Date date) {
 
-        return DateUtils.create(date).getMillisecond();
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.MILLISECOND);
     }
 
     public static Date setMillisecond(Date date, int millisecond) {
-
-        return DateUtils.create(date).setMillisecond(millisecond).getDate();
+        long millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millisOf(date), Calendar.MILLISECOND, millisecond);
+        return new Date(millis);
     }
 
     public static Date parse(Long timestamp) {
@@ -349,16 +354,47 @@ public class DateUtils {
         return new Date(timestamp);
     }
 
-    public static Date parse(String dateString) {
+    /**
+     * Find the registered date pattern which has the same shape as the date string.
+     * @param dateString The date string
+     * @return The date pattern or null if the date string is not recognized
+     */
+    public static String recognize(String dateString) {
+        String[] datePatterns = RECOGNIZER.recognize(dateString);
+        return datePatterns.length > 0 ? datePatterns[0] : null;
+    }
+
+    /**
+     * Parse the date string by the registered date patterns which have the same shape,
+     * the first pattern which matches is used.
+     * @param dateString The date string
+     * @return The date or null if the date string is blank or no registered date pattern matches
+     */
+    public static Date tryParse(String dateString) {
         if (StringUtils.isBlank(dateString)) { return null; }
-        for (String datePattern : DATE_PATTERNS) {
+        dateString = dateString.trim();
+        DateParser parser = getDateParser();
+        // Only the patterns which have the same shape are tried, usually there is only one.
+        for (String datePattern : RECOGNIZER.recognize(dateString)) {
+            if (parser instanceof CompiledDateFormatter) {
+                Date date = ((CompiledDateFormatter) parser).tryParse(dateString, datePattern);
+                if (date != null) { return date; }
+                continue;
+            }
             try {
-                return DateUtils.parse(dateString, datePattern);
+                return parser.parse(dateString, datePattern);
             }
             catch (Exception e) {
                 log.debug("It's ok. ", e);
             }
         }
+        return null;
+    }
+
+    public static Date parse(String dateString) {
+        if (StringUtils.isBlank(dateString)) { return null; }
+        Date date = DateUtils.tryParse(dateString);
+        if (date != null) { return date; }
         throw new UnsupportedOperationException(
                 "All registered date pattern are not supported. "
         );
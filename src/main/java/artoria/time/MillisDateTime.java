@@ -0,0 +1,360 @@
+package artoria.time;
+
+import artoria.util.Assert;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import static artoria.common.Constants.*;
+
+/**
+ * Date time implement by the epoch millis, the fields are computed by the civil date arithmetic
+ * (the proleptic gregorian calendar) in the default time zone, so no calendar object is kept.
+ * The calendar is created only when it is asked for, and it is a copy.
+ * @author Kahle
+ */
+public class MillisDateTime implements DateTime {
+    private static final long serialVersionUID = 1L;
+    private long millis;
+
+    public MillisDateTime() {
+
+        this.millis = System.currentTimeMillis();
+    }
+
+    public MillisDateTime(long millis) {
+
+        this.millis = millis;
+    }
+
+    public MillisDateTime(Date date) {
+
+        setDate(date);
+    }
+
+    private int get(int field) {
+
+        return CivilTime.get(CivilTime.DEFAULT_OFFSETS, millis, field);
+    }
+
+    private DateTime set(int field, int value) {
+        millis = CivilTime.set(CivilTime.DEFAULT_OFFSETS, millis, field, value);
+        return this;
+    }
+
+    private DateTime setByCalendar(int field, int value) {
+        // The week based fields are rarely set, so they are resolved by the calendar.
+        Calendar calendar = getCalendar();
+        calendar.set(field, value);
+        millis = calendar.getTimeInMillis();
+        return this;
+    }
+
+    private DateTime addDays(long days) {
+        millis = CivilTime.addDays(CivilTime.DEFAULT_OFFSETS, millis, days);
+        return this;
+    }
+
+    @Override
+    public Date getDate() {
+
+        return new Date(millis);
+    }
+
+    @Override
+    public DateTime setDate(Date date) {
+        Assert.notNull(date, "Parameter \"date\" must not null. ");
+        millis = date.getTime();
+        return this;
+    }
+
+    @Override
+    public Calendar getCalendar() {
+        Calendar calendar = Calendar.getInstance(CivilTime.DEFAULT_OFFSETS.getTimeZone());
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    @Override
+    public DateTime setCalendar(Calendar calendar) {
+        Assert.notNull(calendar, "Parameter \"calendar\" must not null. ");
+        millis = calendar.getTimeInMillis();
+        return this;
+    }
+
+    @Override
+    public long getTimeInMillis() {
+
+        return millis;
+    }
+
+    @Override
+    public DateTime setTimeInMillis(long timestamp) {
+        millis = timestamp;
+        return this;
+    }
+
+    @Override
+    public long getTimeInSeconds() {
+
+        return millis / ONE_THOUSAND;
+    }
+
+    @Override
+    public DateTime setTimeInSeconds(long unixTimestamp) {
+        millis = unixTimestamp * ONE_THOUSAND;
+        return this;
+    }
+
+    @Override
+    public DateTime addYear(int addYear) {
+        millis = CivilTime.addMonths(CivilTime.DEFAULT_OFFSETS, millis, addYear * 12L);
+        return this;
+    }
+
+    @Override
+    public DateTime addMonth(int addMonth) {
+        millis = CivilTime.addMonths(CivilTime.DEFAULT_OFFSETS, millis, addMonth);
+        return this;
+    }
+
+    @Override
+    public DateTime addDay(int addDay) {
+
+        return addDays(addDay);
+    }
+
+    @Override
+    public DateTime addHour(int addHour) {
+        millis += addHour * CivilTime.MILLIS_PER_HOUR;
+        return this;
+    }
+
+    @Override
+    public DateTime addMinute(int addMinute) {
+        millis += addMinute * CivilTime.MILLIS_PER_MINUTE;
+        return this;
+    }
+
+    @Override
+    public DateTime addSecond(int addSecond) {
+        millis += addSecond * CivilTime.MILLIS_PER_SECOND;
+        return this;
+    }
+
+    @Override
+    public DateTime addMillisecond(int addMillisecond) {
+        millis += addMillisecond;
+        return this;
+    }
+
+    @Override
+    public DateTime addDayOfWeek(int addDayOfWeek) {
+
+        return addDays(addDayOfWeek);
+    }
+
+    @Override
+    public DateTime addDayOfWeekInMonth(int addDayOfWeekInMonth) {
+
+        return addDays(addDayOfWeekInMonth * 7L);
+    }
+
+    @Override
+    public DateTime addDayOfYear(int addDayOfYear) {
+
+        return addDays(addDayOfYear);
+    }
+
+    @Override
+    public DateTime addWeekOfMonth(int addWeekOfMonth) {
+
+        return addDays(addWeekOfMonth * 7L);
+    }
+
+    @Override
+    public DateTime addWeekOfYear(int addWeekOfYear) {
+
+        return addDays(addWeekOfYear * 7L);
+    }
+
+    @Override
+    public int getYear() {
+
+        return get(Calendar.YEAR);
+    }
+
+    @Override
+    public DateTime setYear(int year) {
+
+        return set(Calendar.YEAR, year);
+    }
+
+    @Override
+    public int getMonth() {
+
+        return get(Calendar.MONTH);
+    }
+
+    @Override
+    public DateTime setMonth(int month) {
+        // The same as the simple date time, the month zero of the year zero or one is january.
+        boolean b = getYear() == ZERO || getYear() == ONE;
+        month = b && month == ZERO ? ONE : month;
+        return set(Calendar.MONTH, month);
+    }
+
+    @Override
+    public int getDay() {
+
+        return get(Calendar.DATE);
+    }
+
+    @Override
+    public DateTime setDay(int day) {
+        boolean by = getYear() == ZERO || getYear() == ONE;
+        boolean bm = getMonth() == ZERO || getMonth() == ONE;
+        day = by && bm && day == ZERO ? ONE : day;
+        return set(Calendar.DATE, day);
+    }
+
+    @Override
+    public int getHour() {
+
+        return get(Calendar.HOUR_OF_DAY);
+    }
+
+    @Override
+    public DateTime setHour(int hour) {
+
+        return set(Calendar.HOUR_OF_DAY, hour);
+    }
+
+    @Override
+    public int getMinute() {
+
+        return get(Calendar.MINUTE);
+    }
+
+    @Override
+    public DateTime setMinute(int minute) {
+
+        return set(Calendar.MINUTE, minute);
+    }
+
+    @Override
+    public int getSecond() {
+
+        return get(Calendar.SECOND);
+    }
+
+    @Override
+    public DateTime setSecond(int second) {
+
+        return set(Calendar.SECOND, second);
+    }
+
+    @Override
+    public int getMillisecond() {
+
+        return get(Calendar.MILLISECOND);
+    }
+
+    @Override
+    public DateTime setMillisecond(int millisecond) {
+
+        return set(Calendar.MILLISECOND, millisecond);
+    }
+
+    @Override
+    public int getDayOfWeek() {
+
+        return get(Calendar.DAY_OF_WEEK);
+    }
+
+    @Override
+    public DateTime setDayOfWeek(int dayOfWeek) {
+
+        return setByCalendar(Calendar.DAY_OF_WEEK, dayOfWeek);
+    }
+
+    @Override
+    public int getDayOfWeekInMonth() {
+
+        return get(Calendar.DAY_OF_WEEK_IN_MONTH);
+    }
+
+    @Override
+    public DateTime setDayOfWeekInMonth(int dayOfWeekInMonth) {
+
+        return setByCalendar(Calendar.DAY_OF_WEEK_IN_MONTH, dayOfWeekInMonth);
+    }
+
+    @Override
+    public int getDayOfYear() {
+
+        return get(Calendar.DAY_OF_YEAR);
+    }
+
+    @Override
+    public DateTime setDayOfYear(int dayOfYear) {
+
+        return set(Calendar.DAY_OF_YEAR, dayOfYear);
+    }
+
+    @Override
+    public int getWeekOfMonth() {
+
+        return get(Calendar.WEEK_OF_MONTH);
+    }
+
+    @Override
+    public DateTime setWeekOfMonth(int weekOfMonth) {
+
+        return setByCalendar(Calendar.WEEK_OF_MONTH, weekOfMonth);
+    }
+
+    @Override
+    public int getWeekOfYear() {
+
+        return get(Calendar.WEEK_OF_YEAR);
+    }
+
+    @Override
+    public DateTime setWeekOfYear(int weekOfYear) {
+
+        return setByCalendar(Calendar.WEEK_OF_YEAR, weekOfYear);
+    }
+
+    @Override
+    public boolean before(DateTime when) {
+
+        return millis < when.getTimeInMillis();
+    }
+
+    @Override
+    public boolean after(DateTime when) {
+
+        return millis > when.getTimeInMillis();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null) { return false; }
+        if (this == o) { return true; }
+        return o instanceof MillisDateTime && millis == ((MillisDateTime) o).millis;
+    }
+
+    @Override
+    public int hashCode() {
+
+        return (int) (millis ^ (millis >>> 32));
+    }
+
+    @Override
+    public String toString() {
+
+        return DateUtils.format(millis);
+    }
+
+}
@@ -0,0 +1,31 @@
+package artoria.time;
+
+/**
+ * Monotonic clock, the timestamp is derived from the {@link System#nanoTime()}
+ * based on the wall time when it is created, so it never goes backwards
+ * even if the system time is adjusted.
+ * @author Kahle
+ */
+public class MonotonicClock extends CachedClock {
+    private static final long NANOS_PER_MILLI = 1000000L;
+    private final long baseTime;
+    private final long baseNanos;
+
+    public MonotonicClock() {
+
+        this(1L);
+    }
+
+    public MonotonicClock(long precision) {
+        super(precision);
+        this.baseTime = System.currentTimeMillis();
+        this.baseNanos = System.nanoTime();
+    }
+
+    @Override
+    protected long currentTime() {
+
+        return baseTime + (System.nanoTime() - baseNanos) / NANOS_PER_MILLI;
+    }
+
+}
@@ -1,5 +1,6 @@
 package artoria.time;
 
+import artoria.collection.ConcurrentReferenceMap;
 import artoria.collection.ReferenceMap;
 import artoria.util.Assert;
 
@@ -10,23 +11,21 @@ import java.util.Map;
 
 /**
  * Date formatter and parser simple implement by jdk.
+ * The compiled date formats are shared as the prototypes, and each call uses a clone of it,
+ * because the date format is not thread safe (no thread local, so nothing is left in the pooled threads).
  * @author Kahle
  */
 public class SimpleDateFormatter implements DateFormatter, DateParser {
-    private ThreadLocal<Map<String, SimpleDateFormat>> dateFormatCache = new ThreadLocal<Map<String, SimpleDateFormat>>();
+    private final Map<String, SimpleDateFormat> prototypes =
+            new ConcurrentReferenceMap<String, SimpleDateFormat>(ReferenceMap.Type.SOFT);
 
     private SimpleDateFormat getDateFormat(String pattern) {
-        Map<String, SimpleDateFormat> cache = dateFormatCache.get();
-        if (cache == null) {
-            cache = new ReferenceMap<String, SimpleDateFormat>(ReferenceMap.Type.SOFT);
-            dateFormatCache.set(cache);
+        SimpleDateFormat prototype = prototypes.get(pattern);
+        if (prototype == null) {
+            prototype = new SimpleDateFormat(pattern);
+            prototypes.put(pattern, prototype);
         }
-        SimpleDateFormat format = cache.get(pattern);
-        if (format == null) {
-            format = new SimpleDateFormat(pattern);
-            cache.put(pattern, format);
-        }
-        return format;
+        return (SimpleDateFormat) prototype.clone();
     }
 
     @Override
@@ -43,12 +42,4 @@ public class SimpleDateFormatter implements DateFormatter, DateParser {
         return getDateFormat(pattern).parse(dateString);
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        super.finalize();
-        if (dateFormatCache != null) {
-            dateFormatCache.remove();
-        }
-    }
-
 }
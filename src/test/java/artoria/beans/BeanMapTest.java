@@ -7,6 +7,14 @@ import artoria.random.RandomUtils;
 import com.alibaba.fastjson.JSON;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
 public class BeanMapTest {
     private static Logger log = LoggerFactory.getLogger(BeanMapTest.class);
     private Student student = RandomUtils.nextObject(Student.class);
@@ -33,4 +41,23 @@ public class BeanMapTest {
         log.info("{}", newMap);
     }
 
+    @Test
+    public void testDescriptorCache() {
+        BeanDescriptor descriptor = BeanDescriptor.forClass(Student.class);
+        assertSame(descriptor, BeanDescriptor.forClass(Student.class));
+        BeanDescriptor.Property property = descriptor.getProperty("studentId");
+        assertSame(property, descriptor.getProperties()[property.getIndex()]);
+        assertEquals(Long.class, property.getWriteType());
+        BeanMap map = new SimpleBeanMap(student);
+        assertEquals(student.getStudentId(), map.get("studentId"));
+        Map<String, Object> row = new HashMap<String, Object>();
+        BeanUtils.copy(student, row);
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 100000; i++) { rows.add(row); }
+        long start = System.currentTimeMillis();
+        List<Student> students = BeanUtils.mapToBeanInList(rows, Student.class);
+        log.info("Map to bean in list: {} rows, {} ms", students.size(), System.currentTimeMillis() - start);
+        assertEquals(student.getName(), students.get(99999).getName());
+    }
+
 }
@@ -0,0 +1,38 @@
+package artoria.beans;
+
+import artoria.convert.TypeConvertUtils;
+import artoria.convert.TypeConverter;
+import artoria.entity.Student;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.random.RandomUtils;
+import org.junit.Test;
+
+public class BytecodeBeanCopierBenchmark {
+    private static Logger log = LoggerFactory.getLogger(BytecodeBeanCopierBenchmark.class);
+    private static Student student = RandomUtils.nextObject(Student.class);
+    private static TypeConverter converter = new TypeConverter() {
+        @Override
+        public Object convert(Object source, Class<?> target) {
+
+            return TypeConvertUtils.convert(source, target);
+        }
+    };
+
+    @Test
+    public void testPerformance() {
+        BeanCopier[] beanCopiers = new BeanCopier[] { new SimpleBeanCopier(), new BytecodeBeanCopier() };
+        int count = 200000;
+        for (int round = 0; round < 3; round++) {
+            for (BeanCopier beanCopier : beanCopiers) {
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    beanCopier.copy(student, new Student(), converter);
+                }
+                long cost = System.nanoTime() - start;
+                log.info("{}: {} ns/op", beanCopier.getClass().getSimpleName(), cost / count);
+            }
+        }
+    }
+
+}
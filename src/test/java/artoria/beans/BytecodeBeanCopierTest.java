@@ -0,0 +1,89 @@
+package artoria.beans;
+
+import artoria.convert.TypeConvertUtils;
+import artoria.convert.TypeConverter;
+import artoria.entity.Student;
+import artoria.random.RandomUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BytecodeBeanCopierTest {
+    private static Student student = RandomUtils.nextObject(Student.class);
+    private static TypeConverter converter = new TypeConverter() {
+        @Override
+        public Object convert(Object source, Class<?> target) {
+
+            return TypeConvertUtils.convert(source, target);
+        }
+    };
+
+    public static class StudentDto {
+        private String name;
+        private String age;
+        private long studentId;
+        private Boolean graduated;
+
+        public String getName() {
+
+            return name;
+        }
+
+        public void setName(String name) {
+
+            this.name = name;
+        }
+
+        public String getAge() {
+
+            return age;
+        }
+
+        public void setAge(String age) {
+
+            this.age = age;
+        }
+
+        public long getStudentId() {
+
+            return studentId;
+        }
+
+        public void setStudentId(long studentId) {
+
+            this.studentId = studentId;
+        }
+
+        public Boolean getGraduated() {
+
+            return graduated;
+        }
+
+        public void setGraduated(Boolean graduated) {
+
+            this.graduated = graduated;
+        }
+
+    }
+
+    @Test
+    public void testCopy() {
+        BeanCopier beanCopier = new BytecodeBeanCopier();
+        Student target = new Student();
+        beanCopier.copy(student, target, converter);
+        assertEquals(student.getName(), target.getName());
+        assertEquals(student.getStudentId(), target.getStudentId());
+        assertEquals(student.getHeight(), target.getHeight());
+        StudentDto dto = new StudentDto();
+        beanCopier.copy(student, dto, converter);
+        assertEquals(student.getName(), dto.getName());
+        assertEquals(String.valueOf(student.getAge()), dto.getAge());
+        assertEquals(student.getStudentId().longValue(), dto.getStudentId());
+        assertEquals(student.getGraduated(), dto.getGraduated());
+        Student back = new Student();
+        beanCopier.copy(dto, back, converter);
+        assertEquals(student.getAge(), back.getAge());
+        assertEquals(student.getStudentId(), back.getStudentId());
+    }
+
+}
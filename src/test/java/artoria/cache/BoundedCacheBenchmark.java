@@ -0,0 +1,63 @@
+package artoria.cache;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class BoundedCacheBenchmark {
+    private static Logger log = LoggerFactory.getLogger(BoundedCacheBenchmark.class);
+    private static CacheManager cacheManager = new SimpleCacheManager();
+
+    private static int[] zipfianTrace(int items, double exponent, int length, long seed) {
+        double[] cumulative = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            trace[i] = index >= 0 ? index : -index - 1;
+        }
+        return trace;
+    }
+
+    private static double replay(Cache<Integer, Integer> cache, int[] trace) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            }
+            else {
+                cache.put(key, key);
+            }
+        }
+        long cost = System.nanoTime() - start;
+        double hitRate = (double) hits / trace.length;
+        log.info("{}: size {}, hit rate {}%, average {} ns/op. "
+                , cache.getClass().getSimpleName(), cache.size(), hitRate * 100, cost / trace.length);
+        return hitRate;
+    }
+
+    @Test
+    public void testHitRateAndLatency() {
+        int[] trace = zipfianTrace(100000, 0.99, 1000000, 20190429L);
+        SimpleConfiguration<Integer, Integer> config = new SimpleConfiguration<Integer, Integer>(Integer.class, Integer.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setMaximumSize(1000L);
+        double boundedHitRate = replay(cacheManager.createCache("testHitRateBounded", config), trace);
+        double simpleHitRate = replay(cacheManager.<Integer, Integer>createCache("testHitRateSimple"), trace);
+        // The simple cache keeps every key, it is the upper bound of the hit rate.
+        assertTrue(boundedHitRate > 0.5);
+        assertTrue(boundedHitRate <= simpleHitRate);
+    }
+
+}
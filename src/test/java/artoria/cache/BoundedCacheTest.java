@@ -0,0 +1,140 @@
+package artoria.cache;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.util.ThreadUtils;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedCacheTest {
+    private static Logger log = LoggerFactory.getLogger(BoundedCacheTest.class);
+    private static CacheManager cacheManager = new SimpleCacheManager();
+
+    @Test
+    public void testMaximumSize() {
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setMaximumSize(100L);
+        Cache<String, Object> cache = cacheManager.createCache("testMaximumSize", config);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + i, "value" + i);
+            cache.get("key" + (i / 2));
+        }
+        log.info("{}", cache.size());
+        assertTrue(cache.size() <= 100);
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLargeMaximumSize() {
+        // The frequency sketch grows with the size, so the huge maximum size does not allocate the full table.
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setMaximumSize((long) Integer.MAX_VALUE);
+        Cache<String, Object> cache = cacheManager.createCache("testLargeMaximumSize", config);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("key" + i, "value" + i);
+            cache.get("key" + (i / 2));
+        }
+        assertEquals(10000, cache.size());
+        assertEquals("value5000", cache.get("key5000"));
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        SimpleConfiguration<String, String> config = new SimpleConfiguration<String, String>(String.class, String.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setMaximumWeight(1000L);
+        config.setWeigher(new Weigher<String, String>() {
+            @Override
+            public int weigh(String key, String value) {
+                return value.length();
+            }
+        });
+        Cache<String, String> cache = cacheManager.createCache("testMaximumWeight", config);
+        int weight = 0;
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + i, "value-value-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            String value = cache.get("key" + i);
+            if (value != null) { weight += value.length(); }
+        }
+        log.info("{} | {}", cache.size(), weight);
+        assertTrue(weight <= 1000);
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setExpireAfterWrite(100L);
+        BoundedCache<String, Object> cache = (BoundedCache<String, Object>)
+                cacheManager.<String, Object>createCache("testExpireAfterWrite", config);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        assertEquals("value1", cache.get("key1"));
+        ThreadUtils.sleepQuietly(1200);
+        assertNull(cache.get("key1"));
+        cache.cleanUp();
+        log.info("{}", cache.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpireAfterAccess() {
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setExpireAfterAccess(300L);
+        Cache<String, Object> cache = cacheManager.createCache("testExpireAfterAccess", config);
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        for (int i = 0; i < 5; i++) {
+            ThreadUtils.sleepQuietly(100);
+            assertEquals("value1", cache.get("key1"));
+        }
+        assertNull(cache.get("key2"));
+    }
+
+    @Test
+    public void testRefreshAfterWrite() {
+        final AtomicInteger counter = new AtomicInteger();
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheType(CacheType.BOUNDED);
+        config.setRefreshAfterWrite(100L);
+        config.setCacheLoader(new CacheLoader<String, Object>() {
+            @Override
+            public Object load(String key) throws CacheException {
+                ThreadUtils.sleepQuietly(50);
+                return key + " - " + counter.incrementAndGet();
+            }
+            @Override
+            public Map<String, Object> loadAll(Iterable<? extends String> keys) throws CacheException {
+                Map<String, Object> result = new HashMap<String, Object>();
+                for (String key : keys) {
+                    result.put(key, this.load(key));
+                }
+                return result;
+            }
+        });
+        Cache<String, Object> cache = cacheManager.createCache("testRefreshAfterWrite", config);
+        assertEquals("key - 1", cache.get("key"));
+        ThreadUtils.sleepQuietly(150);
+        // The stale value is served while reloading in the background.
+        assertEquals("key - 1", cache.get("key"));
+        assertEquals("key - 1", cache.get("key"));
+        ThreadUtils.sleepQuietly(100);
+        assertEquals("key - 2", cache.get("key"));
+        assertEquals(2, counter.get());
+    }
+
+}
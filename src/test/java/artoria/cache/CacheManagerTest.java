@@ -5,8 +5,14 @@ import artoria.logging.LoggerFactory;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
 
 public class CacheManagerTest {
     private static Logger log = LoggerFactory.getLogger(CacheManagerTest.class);
@@ -65,4 +71,47 @@ public class CacheManagerTest {
         }
     }
 
+    @Test
+    public void testStats() throws Exception {
+        SimpleCacheManager statsCacheManager = new SimpleCacheManager();
+        statsCacheManager.setManagementEnabled(true);
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setRecordStats(true);
+        config.setCacheLoader(new CacheLoader<String, Object>() {
+            @Override
+            public Object load(String key) throws CacheException {
+                return key + " - load - data";
+            }
+            @Override
+            public Map<String, Object> loadAll(Iterable<? extends String> keys) throws CacheException {
+                Map<String, Object> result = new HashMap<String, Object>();
+                for (String key : keys) {
+                    result.put(key, this.load(key));
+                }
+                return result;
+            }
+        });
+        Cache<String, Object> cache1 = statsCacheManager.createCache("TEST_STATS1", config);
+        Cache<String, Object> cache2 = statsCacheManager.createCache("TEST_STATS2", config);
+        for (int i = 0; i < 10; i++) {
+            cache1.get("" + i);
+            cache1.get("" + i);
+            cache2.get("" + i);
+        }
+        log.info("{}", cache1.getStats());
+        assertEquals(10, cache1.getStats().getHitCount());
+        assertEquals(10, cache1.getStats().getMissCount());
+        assertEquals(10, cache1.getStats().getLoadSuccessCount());
+        assertEquals(20, statsCacheManager.getStats().getMissCount());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("artoria.cache:type=CacheStatistics,*");
+        Set<ObjectName> names = server.queryNames(pattern, null);
+        for (ObjectName name : names) {
+            log.info("{} | {}", name, server.getAttribute(name, "HitCount"));
+        }
+        assertEquals(3, names.size());
+        statsCacheManager.destroy();
+        assertEquals(0, server.queryNames(pattern, null).size());
+    }
+
 }
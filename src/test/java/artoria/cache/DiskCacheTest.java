@@ -0,0 +1,103 @@
+package artoria.cache;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+public class DiskCacheTest {
+    private static Logger log = LoggerFactory.getLogger(DiskCacheTest.class);
+    private static String storagePath = new File(System.getProperty("java.io.tmpdir")
+            , "artoria-disk-cache-" + System.nanoTime()).getPath();
+
+    private static SimpleConfiguration<String, String> newConfiguration() {
+        SimpleConfiguration<String, String> config = new SimpleConfiguration<String, String>(String.class, String.class);
+        config.setCacheType(CacheType.DISK);
+        config.setStoragePath(storagePath);
+        return config;
+    }
+
+    @Test
+    public void testRestartAndRecovery() throws Exception {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        DiskCache<String, String> cache = (DiskCache<String, String>)
+                cacheManager.createCache("testRestart", newConfiguration());
+        cache.clear();
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        cache.put("key1", "value1-new");
+        cache.remove("key2");
+        assertEquals("value1-new", cache.get("key1"));
+        File file = cache.getFile();
+        cacheManager.destroy();
+        // Append a torn record, like the process was killed while writing.
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        long length = randomAccessFile.length();
+        randomAccessFile.seek(length);
+        randomAccessFile.write(new byte[] { 1, 2, 3, 4, 0, 0, 0, 0, 9 });
+        randomAccessFile.close();
+        cacheManager = new SimpleCacheManager();
+        cache = (DiskCache<String, String>) cacheManager.<String, String>createCache("testRestart", newConfiguration());
+        log.info("size {}, file length {}", cache.size(), file.length());
+        assertEquals(99, cache.size());
+        assertEquals(length, file.length());
+        assertEquals("value1-new", cache.get("key1"));
+        assertNull(cache.get("key2"));
+        assertEquals("value99", cache.get("key99"));
+        cacheManager.destroy();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        DiskCache<String, String> cache = (DiskCache<String, String>)
+                cacheManager.createCache("testCompaction", newConfiguration());
+        cache.clear();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) { builder.append("x"); }
+        String value = builder.toString();
+        for (int i = 0; i < 5000; i++) {
+            cache.put("key" + (i % 100), value + i);
+        }
+        File file = cache.getFile();
+        log.info("size {}, file length {}", cache.size(), file.length());
+        assertEquals(100, cache.size());
+        assertTrue(file.length() < 5000L * 1000 / 2);
+        assertEquals(value + 4999, cache.get("key99"));
+        cacheManager.destroy();
+        cacheManager = new SimpleCacheManager();
+        cache = (DiskCache<String, String>) cacheManager.<String, String>createCache("testCompaction", newConfiguration());
+        assertEquals(100, cache.size());
+        assertEquals(value + 4900, cache.get("key0"));
+        cacheManager.destroy();
+    }
+
+    @Test
+    public void testInterruptedReplacement() throws Exception {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        DiskCache<String, String> cache = (DiskCache<String, String>)
+                cacheManager.createCache("testReplacement", newConfiguration());
+        cache.clear();
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        cache.compact();
+        File file = cache.getFile();
+        cacheManager.destroy();
+        // Stopped after the file was moved to the backup, and the compact file failed to be renamed.
+        File backupFile = new File(file.getPath() + ".backup");
+        assertTrue(file.renameTo(backupFile));
+        cacheManager = new SimpleCacheManager();
+        cache = (DiskCache<String, String>) cacheManager.<String, String>createCache("testReplacement", newConfiguration());
+        assertEquals(10, cache.size());
+        assertEquals("value9", cache.get("key9"));
+        assertFalse(backupFile.exists());
+        cacheManager.destroy();
+    }
+
+}
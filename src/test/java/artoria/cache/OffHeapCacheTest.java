@@ -0,0 +1,101 @@
+package artoria.cache;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapCacheTest {
+    private static Logger log = LoggerFactory.getLogger(OffHeapCacheTest.class);
+    private static CacheManager cacheManager = new SimpleCacheManager();
+
+    private static String repeat(String str, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) { builder.append(str); }
+        return builder.toString();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheType(CacheType.OFF_HEAP);
+        config.setMaximumMemory(4L * 1024 * 1024);
+        Cache<String, Object> cache = cacheManager.createCache("testOffHeapPutAndGet", config);
+        cache.put("key1", "value1");
+        cache.put("key2", repeat("value2", 1000));
+        assertEquals("value1", cache.get("key1"));
+        assertEquals(repeat("value2", 1000), cache.get("key2"));
+        assertEquals("value1", cache.putAndGet("key1", "value11"));
+        assertEquals("value11", cache.putIfAbsent("key1", "value111"));
+        assertTrue(cache.remove("key1", "value11"));
+        assertNull(cache.get("key1"));
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaximumMemory() {
+        SimpleConfiguration<Integer, String> config = new SimpleConfiguration<Integer, String>(Integer.class, String.class);
+        config.setCacheType(CacheType.OFF_HEAP);
+        config.setMaximumMemory(2L * 1024 * 1024);
+        OffHeapCache<Integer, String> cache = (OffHeapCache<Integer, String>)
+                cacheManager.<Integer, String>createCache("testOffHeapMaximumMemory", config);
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, repeat("value-", 10 + i % 100) + i);
+        }
+        for (int i = 0; i < 2000; i++) {
+            // Values of a new size class, the pages will be taken from the others.
+            cache.put(-i, repeat("x", 4000) + i);
+        }
+        log.info("size {}, allocated memory {}", cache.size(), cache.getAllocatedMemory());
+        assertTrue(cache.getAllocatedMemory() <= cache.getMaximumMemory());
+        assertTrue(cache.size() < 12000);
+        assertEquals(repeat("x", 4000) + 1999, cache.get(-1999));
+        assertEquals(repeat("value-", 10 + 9999 % 100) + 9999, cache.get(9999));
+    }
+
+    @Test
+    public void testTiered() {
+        SimpleConfiguration<Integer, String> config = new SimpleConfiguration<Integer, String>(Integer.class, String.class);
+        config.setCacheType(CacheType.TIERED);
+        config.setMaximumSize(100L);
+        config.setMaximumMemory(4L * 1024 * 1024);
+        TieredCache<Integer, String> cache = (TieredCache<Integer, String>)
+                cacheManager.<Integer, String>createCache("testTiered", config);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "value" + i);
+        }
+        assertTrue(cache.getFirstLevel().size() <= 100);
+        assertEquals(1000, cache.size());
+        assertEquals("value1", cache.get(1));
+        assertTrue(cache.getFirstLevel().containsKey(1));
+        assertTrue(cache.remove(1));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testTieredExpiration() throws Exception {
+        SimpleConfiguration<Integer, String> config = new SimpleConfiguration<Integer, String>(Integer.class, String.class);
+        config.setCacheType(CacheType.TIERED);
+        config.setMaximumSize(10L);
+        config.setMaximumMemory(4L * 1024 * 1024);
+        config.setExpireAfterWrite(300L);
+        TieredCache<Integer, String> cache = (TieredCache<Integer, String>)
+                cacheManager.<Integer, String>createCache("testTieredExpiration", config);
+        cache.put(0, "value0");
+        for (int i = 1; i < 100; i++) {
+            cache.put(i, "value" + i);
+        }
+        assertFalse(cache.getFirstLevel().containsKey(0));
+        Thread.sleep(150L);
+        // Promoted from the second level with the write time kept.
+        assertEquals("value0", cache.get(0));
+        assertTrue(cache.getFirstLevel().containsKey(0));
+        Thread.sleep(250L);
+        assertNull(cache.get(0));
+        assertFalse(cache.getSecondLevel().containsKey(0));
+    }
+
+}
@@ -0,0 +1,140 @@
+package artoria.cache;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.util.ThreadUtils;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class SimpleCacheTest {
+    private static Logger log = LoggerFactory.getLogger(SimpleCacheTest.class);
+    private static CacheManager cacheManager = new SimpleCacheManager();
+    private static final AtomicInteger LOAD_COUNTER = new AtomicInteger();
+    private static final List<String> LOADED_KEYS = Collections.synchronizedList(new ArrayList<String>());
+
+    private static SimpleConfiguration<String, Object> newConfiguration() {
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheLoader(new CacheLoader<String, Object>() {
+            @Override
+            public Object load(String key) throws CacheException {
+                LOAD_COUNTER.incrementAndGet();
+                LOADED_KEYS.add(key);
+                ThreadUtils.sleepQuietly(100);
+                return key + " - load - data";
+            }
+            @Override
+            public Map<String, Object> loadAll(Iterable<? extends String> keys) throws CacheException {
+                LOAD_COUNTER.incrementAndGet();
+                ThreadUtils.sleepQuietly(100);
+                Map<String, Object> result = new HashMap<String, Object>();
+                for (String key : keys) {
+                    LOADED_KEYS.add(key);
+                    result.put(key, key + " - load - data");
+                }
+                return result;
+            }
+        });
+        return config;
+    }
+
+    @Test
+    public void testSingleFlightGet() throws Exception {
+        final Cache<String, Object> cache = cacheManager.createCache("testSingleFlightGet", newConfiguration());
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        int threadCount = 500;
+        final CountDownLatch endLatch = new CountDownLatch(threadCount);
+        final AtomicInteger wrongCounter = new AtomicInteger();
+        LOAD_COUNTER.set(0);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        if (!"hot - load - data".equals(cache.get("hot"))) {
+                            wrongCounter.incrementAndGet();
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        wrongCounter.incrementAndGet();
+                    }
+                    finally {
+                        endLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        startLatch.countDown();
+        endLatch.await();
+        log.info("Loader invocations: {}", LOAD_COUNTER.get());
+        assertEquals(1, LOAD_COUNTER.get());
+        assertEquals(0, wrongCounter.get());
+    }
+
+    @Test
+    public void testLoadOnlyMissingKeys() {
+        Cache<String, Object> cache = cacheManager.createCache("testLoadOnlyMissingKeys", newConfiguration());
+        cache.put("key1", "value1");
+        cache.put("key3", "value3");
+        LOADED_KEYS.clear();
+        cache.load(Arrays.asList("key1", "key2", "key3", "key4"), false);
+        log.info("Loaded keys: {}", LOADED_KEYS);
+        assertEquals(Arrays.asList("key2", "key4"), LOADED_KEYS);
+        assertEquals("value1", cache.get("key1"));
+        assertEquals("key2 - load - data", cache.get("key2"));
+    }
+
+    @Test
+    public void testLoaderError() throws Exception {
+        SimpleConfiguration<String, Object> config = new SimpleConfiguration<String, Object>(String.class, Object.class);
+        config.setCacheLoader(new CacheLoader<String, Object>() {
+            @Override
+            public Object load(String key) throws CacheException {
+                ThreadUtils.sleepQuietly(100);
+                throw new StackOverflowError("Test error. ");
+            }
+            @Override
+            public Map<String, Object> loadAll(Iterable<? extends String> keys) throws CacheException {
+
+                throw new StackOverflowError("Test error. ");
+            }
+        });
+        final Cache<String, Object> cache = cacheManager.createCache("testLoaderError", config);
+        final AtomicInteger failedCounter = new AtomicInteger();
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ThreadUtils.sleepQuietly(20);
+                try {
+                    cache.get("key");
+                }
+                catch (Throwable t) {
+                    failedCounter.incrementAndGet();
+                }
+            }
+        });
+        waiter.start();
+        try {
+            cache.get("key");
+        }
+        catch (StackOverflowError e) {
+            failedCounter.incrementAndGet();
+        }
+        // The waiter is woken up by the error of the loading.
+        waiter.join(5000);
+        assertEquals(2, failedCounter.get());
+        try {
+            cache.load(Arrays.asList("key1", "key2"), false);
+        }
+        catch (StackOverflowError e) {
+            failedCounter.incrementAndGet();
+        }
+        assertEquals(3, failedCounter.get());
+    }
+
+}
@@ -0,0 +1,71 @@
+package artoria.collection;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.util.ThreadUtils;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static artoria.common.Constants.ONE_HUNDRED;
+import static artoria.common.Constants.ZERO;
+import static org.junit.Assert.*;
+
+public class ConcurrentReferenceMapTest {
+    private static Logger log = LoggerFactory.getLogger(ConcurrentReferenceMapTest.class);
+
+    @Test
+    public void testLiveViews() {
+        ConcurrentMap<String, Object> map = new ConcurrentReferenceMap<String, Object>(ReferenceMap.Type.SOFT);
+        for (int i = ZERO; i < ONE_HUNDRED; i++) {
+            map.put("data" + i, "data - - " + i);
+        }
+        assertNull(map.putIfAbsent("absent", "absent"));
+        assertEquals("absent", map.remove("absent"));
+        assertEquals("data - - 2", map.putIfAbsent("data2", "data2"));
+        assertTrue(map.remove("data3", "data - - 3"));
+        assertEquals(ONE_HUNDRED - 1, map.size());
+        assertTrue(map.containsValue("data - - 4"));
+        Iterator<String> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().endsWith("5")) { iterator.remove(); }
+        }
+        assertFalse(map.containsKey("data5"));
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if ("data6".equals(entry.getKey())) { entry.setValue("data6"); }
+        }
+        assertEquals("data6", map.get("data6"));
+        map.values().remove("data6");
+        assertNull(map.get("data6"));
+        log.info("{}", map);
+    }
+
+    @Test
+    public void testWeakKeysAndValues() {
+        final int[] collected = new int[1];
+        ConcurrentReferenceMap<Object, Object> map = new ConcurrentReferenceMap<Object, Object>(
+                ReferenceMap.Type.WEAK, ReferenceMap.Type.WEAK) {
+            @Override
+            protected void onCollected(Object key) {
+                collected[ZERO]++;
+            }
+        };
+        String strongKey = "strong";
+        Object strongValue = new Object();
+        map.put(strongKey, strongValue);
+        map.put(new Object(), "value");
+        map.put("key", new Object());
+        for (int i = ZERO; i < 10 && map.size() > 1; i++) {
+            System.gc();
+            ThreadUtils.sleepQuietly(100);
+            map.purge();
+        }
+        log.info("size {}, collected {}", map.size(), collected[ZERO]);
+        assertEquals(strongValue, map.get(new String(strongKey)));
+        assertEquals(1, map.size());
+        assertEquals(2, collected[ZERO]);
+    }
+
+}
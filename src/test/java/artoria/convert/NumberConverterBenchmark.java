@@ -0,0 +1,34 @@
+package artoria.convert;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+public class NumberConverterBenchmark {
+    private static Logger log = LoggerFactory.getLogger(NumberConverterBenchmark.class);
+
+    @Test
+    public void testPerformance() {
+        NumberConverter numberConverter = new NumberConverter();
+        Object[] sources = new Object[] { 1, 2L, 3.5D, (short) 4, new BigDecimal("5.5"), 6F };
+        int count = 1000000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += (Long) numberConverter.convert(sources[i % sources.length], Long.class);
+            }
+            long boxedCost = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += numberConverter.convertToLong(sources[i % sources.length]);
+            }
+            long primitiveCost = System.nanoTime() - start;
+            log.info("convert: {} ns/op, convertToLong: {} ns/op", boxedCost / count, primitiveCost / count);
+        }
+        log.info("Sink: {}", sink);
+    }
+
+}
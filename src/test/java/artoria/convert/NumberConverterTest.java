@@ -7,6 +7,9 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
 public class NumberConverterTest {
     private static Logger log = LoggerFactory.getLogger(NumberConverterTest.class);
     private TypeConverter converter = new NumberConverter();
@@ -39,4 +42,49 @@ public class NumberConverterTest {
         log.info("{} {}", obj.getClass(), obj);
     }
 
+    @Test
+    public void testNumberToNumber() {
+        assertEquals(100L, converter.convert(100, long.class));
+        assertEquals((byte) 44, converter.convert(300.7D, Byte.class));
+        assertEquals(Integer.MAX_VALUE, converter.convert(1E10D, int.class));
+        assertEquals(12, converter.convert(new BigDecimal("12.9"), Integer.class));
+        assertEquals(new BigDecimal("0.1"), converter.convert(0.1D, BigDecimal.class));
+        assertEquals(new BigDecimal("12345678901234567890")
+                , converter.convert(new BigInteger("12345678901234567890"), BigDecimal.class));
+        assertEquals(BigInteger.valueOf(-5L), converter.convert(new BigDecimal("-5.5"), BigInteger.class));
+        assertEquals(2.5F, converter.convert(new BigDecimal("2.5"), Float.class));
+    }
+
+    @Test
+    public void testOverflowCheck() {
+        NumberConverter checked = new NumberConverter(false, true);
+        assertEquals(127, checked.convertToInt(new BigDecimal("127.9")));
+        assertEquals((byte) -128, checked.convert(-128L, byte.class));
+        Object[][] overflows = new Object[][] {
+                { 128, Byte.class }, { 40000L, short.class }, { 1E10D, Integer.class },
+                { Double.NaN, Long.class }, { new BigInteger("9223372036854775808"), long.class },
+                { 1E300D, Float.class }, { new BigDecimal("1E400"), double.class }
+        };
+        for (Object[] overflow : overflows) {
+            try {
+                checked.convert(overflow[0], (Class<?>) overflow[1]);
+                fail();
+            }
+            catch (ArithmeticException e) {
+                log.info(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitiveEntryPoints() {
+        NumberConverter numberConverter = new NumberConverter();
+        assertEquals(123L, numberConverter.convertToLong(" 123 "));
+        assertEquals(-123L, numberConverter.convertToLong("-123"));
+        assertEquals(12L, numberConverter.convertToLong("12.5"));
+        assertEquals(Long.MAX_VALUE, numberConverter.convertToLong("9223372036854775807"));
+        assertEquals(7, numberConverter.convertToInt(7L));
+        assertEquals(1.5D, numberConverter.convertToDouble("1.5"), 0D);
+    }
+
 }
@@ -0,0 +1,29 @@
+package artoria.convert;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.util.Date;
+
+public class TypeConvertUtilsBenchmark {
+    private static Logger log = LoggerFactory.getLogger(TypeConvertUtilsBenchmark.class);
+
+    @Test
+    public void testPerformance() {
+        Object[] sources = new Object[] { 1, 2L, "3", 4.5D, true, "6.5", new Date(), 'c' };
+        Class<?>[] targets = new Class<?>[] { Long.class, int.class, Integer.class, String.class
+                , String.class, double.class, Long.class, Object.class };
+        int count = 1000000;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                int index = i % sources.length;
+                TypeConvertUtils.convert(sources[index], targets[index]);
+            }
+            long cost = System.nanoTime() - start;
+            log.info("TypeConvertUtils.convert: {} ns/op", cost / count);
+        }
+    }
+
+}
@@ -8,6 +8,9 @@ import org.junit.Test;
 import java.sql.Timestamp;
 import java.util.Date;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
 public class TypeConvertUtilsTest {
     private static Logger log = LoggerFactory.getLogger(TypeConvertUtilsTest.class);
 
@@ -75,4 +78,24 @@ public class TypeConvertUtilsTest {
         log.info("{} {}", obj1.getClass(), obj1);
     }
 
+    @Test
+    public void testRegisterAndUnregister() {
+        StringBuilder builder = new StringBuilder("builder");
+        assertSame(builder, TypeConvertUtils.convert(builder, Integer.class));
+        TypeConvertUtils.register(StringBuilder.class, new TypeConverter() {
+            @Override
+            public Object convert(Object source, Class<?> target) {
+
+                return source.toString().length();
+            }
+        });
+        try {
+            assertEquals(7, TypeConvertUtils.convert(builder, Integer.class));
+        }
+        finally {
+            TypeConvertUtils.unregister(StringBuilder.class);
+        }
+        assertSame(builder, TypeConvertUtils.convert(builder, Integer.class));
+    }
+
 }
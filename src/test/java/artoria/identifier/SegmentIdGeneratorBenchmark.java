@@ -0,0 +1,40 @@
+package artoria.identifier;
+
+import artoria.jdbc.DatabaseClient;
+import artoria.jdbc.SimpleDataSource;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SegmentIdGeneratorBenchmark {
+    private static Logger log = LoggerFactory.getLogger(SegmentIdGeneratorBenchmark.class);
+    private static DatabaseClient databaseClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        databaseClient = new DatabaseClient(new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:segment_id_benchmark", "SA", ""));
+        databaseClient.executeUpdate("create table t_id_segment (" +
+                "name varchar(64) not null primary key, max_id bigint not null)");
+        databaseClient.executeUpdate("insert into t_id_segment (name, max_id) values (?, ?)", "user", 0);
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        SegmentIdGenerator generator = new SegmentIdGenerator(databaseClient, "t_id_segment", "user");
+        int count = 2000000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += generator.nextId();
+            }
+            long cost = System.nanoTime() - start;
+            log.info("SegmentIdGenerator: {} ns/op, step: {}", (double) cost / count, generator.getStep());
+        }
+        log.info("Sink: {}", sink);
+        generator.destroy();
+    }
+
+}
@@ -0,0 +1,138 @@
+package artoria.identifier;
+
+import artoria.jdbc.DatabaseAtom;
+import artoria.jdbc.DatabaseClient;
+import artoria.jdbc.SimpleDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentIdGeneratorTest {
+    private static DatabaseClient databaseClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        databaseClient = new DatabaseClient(new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:segment_id", "SA", ""));
+        databaseClient.executeUpdate("create table t_id_segment (" +
+                "name varchar(64) not null primary key, max_id bigint not null)");
+        databaseClient.executeUpdate("insert into t_id_segment (name, max_id) values (?, ?)", "order", 0);
+        databaseClient.executeUpdate("insert into t_id_segment (name, max_id) values (?, ?)", "step", 0);
+        databaseClient.executeUpdate("insert into t_id_segment (name, max_id) values (?, ?)", "rollback", 0);
+        databaseClient.executeUpdate("insert into t_id_segment (name, max_id) values (?, ?)", "destroy", 0);
+    }
+
+    @Test
+    public void testUnique() throws Exception {
+        // Two generators as two nodes sharing the same segment.
+        final SegmentIdGenerator[] generators = new SegmentIdGenerator[] {
+                new SegmentIdGenerator(databaseClient, "t_id_segment", "order", 100, 10000, 60000L),
+                new SegmentIdGenerator(databaseClient, "t_id_segment", "order", 100, 10000, 60000L)
+        };
+        final int threads = 8, count = 50000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> futures = new ArrayList<Future<long[]>>();
+        for (int t = 0; t < threads; t++) {
+            final SegmentIdGenerator generator = generators[t % generators.length];
+            futures.add(executor.submit(new Callable<long[]>() {
+                @Override
+                public long[] call() {
+                    long[] ids = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }
+            }));
+        }
+        long[] all = new long[threads * count];
+        int index = 0;
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get();
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, all, index, ids.length);
+            index += ids.length;
+        }
+        executor.shutdown();
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue("Duplicate id " + all[i], all[i] != all[i - 1]);
+        }
+        assertTrue(all[0] >= 1);
+        for (SegmentIdGenerator generator : generators) {
+            generator.destroy();
+        }
+    }
+
+    @Test
+    public void testAdaptiveStep() throws Exception {
+        SegmentIdGenerator generator = new SegmentIdGenerator(databaseClient, "t_id_segment", "step", 10, 80, 60000L);
+        assertEquals(10, generator.getStep());
+        assertEquals(1L, generator.nextId());
+        for (int i = 2; i <= 1000; i++) {
+            assertEquals((long) i, generator.nextId());
+        }
+        // The segments are used up quickly, so the step grows up to the maximum.
+        assertEquals(80, generator.getStep());
+        generator.destroy();
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        final SegmentIdGenerator generator =
+                new SegmentIdGenerator(databaseClient, "t_id_segment", "rollback", 10, 10, 60000L);
+        final long[] ids = new long[25];
+        // The caller's transaction is rolled back, but the leases are not.
+        boolean result = databaseClient.transaction(new DatabaseAtom() {
+            @Override
+            public boolean run() throws SQLException {
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return false;
+            }
+        });
+        assertFalse(result);
+        List<Map<String, Object>> list = databaseClient.executeQuery(
+                "select max_id from t_id_segment where name = ?", "rollback");
+        long maxId = ((Number) list.get(0).values().iterator().next()).longValue();
+        assertTrue(maxId >= ids[ids.length - 1]);
+        SegmentIdGenerator other = new SegmentIdGenerator(databaseClient, "t_id_segment", "rollback", 10, 10, 60000L);
+        assertTrue(other.nextId() > ids[ids.length - 1]);
+        generator.destroy();
+        other.destroy();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDestroyed() throws Exception {
+        SegmentIdGenerator generator = new SegmentIdGenerator(databaseClient, "t_id_segment", "destroy", 10, 10, 60000L);
+        generator.nextId();
+        generator.destroy();
+        // The ids leased before are handed out, then it fails instead of waiting for the loader forever.
+        for (int i = 0; i < 30; i++) {
+            generator.nextId();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNotFound() {
+
+        new SegmentIdGenerator(databaseClient, "t_id_segment", "missing").nextId();
+    }
+
+}
@@ -0,0 +1,24 @@
+package artoria.identifier;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+public class SnowFlakeIdGeneratorBenchmark {
+    private static Logger log = LoggerFactory.getLogger(SnowFlakeIdGeneratorBenchmark.class);
+
+    @Test
+    public void testPerformance() throws Exception {
+        SnowFlakeIdGenerator generator = new SnowFlakeIdGenerator();
+        int threads = 8, count = 200000;
+        for (int round = 0; round < 3; round++) {
+            for (int batch : new int[] { 1, 100 }) {
+                long start = System.nanoTime();
+                SnowFlakeIdGeneratorTest.generate(generator, threads, count, batch);
+                long cost = System.nanoTime() - start;
+                log.info("Batch {} ({} threads): {} ids/ms", batch, threads, threads * count * 1000000L / cost);
+            }
+        }
+    }
+
+}
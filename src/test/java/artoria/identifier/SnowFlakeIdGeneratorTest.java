@@ -0,0 +1,156 @@
+package artoria.identifier;
+
+import artoria.time.Clock;
+import artoria.time.SystemClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SnowFlakeIdGeneratorTest {
+
+    static long[] generate(final SnowFlakeIdGenerator generator
+            , int threads, final int count, final int batch) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<Future<long[]>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(new Callable<long[]>() {
+                    @Override
+                    public long[] call() {
+                        long[] ids = new long[count];
+                        for (int i = 0; i < count; ) {
+                            if (batch == 1) {
+                                ids[i++] = generator.nextId();
+                                continue;
+                            }
+                            long[] nextIds = generator.nextIds(Math.min(batch, count - i));
+                            System.arraycopy(nextIds, 0, ids, i, nextIds.length);
+                            i += nextIds.length;
+                        }
+                        return ids;
+                    }
+                }));
+            }
+            long[] result = new long[threads * count];
+            int index = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, result, index, ids.length);
+                index += ids.length;
+            }
+            return result;
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertUnique(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            assertTrue("Duplicate id " + sorted[i], sorted[i] != sorted[i - 1]);
+        }
+    }
+
+    @Test
+    public void testUnique() throws Exception {
+        SnowFlakeIdGenerator generator = new SnowFlakeIdGenerator(3, 7, new SystemClock());
+        assertUnique(generate(generator, 8, 100000, 1));
+        assertUnique(generate(generator, 8, 100000, 1000));
+        assertUnique(generate(generator, 8, 100000, 5000));
+        long id = generator.nextId();
+        assertEquals(3, (id >> 17) & 31);
+        assertEquals(7, (id >> 12) & 31);
+    }
+
+    @Test
+    public void testBatchInOneMillisecond() {
+        final long[] time = new long[] { 1553508610300L };
+        SnowFlakeIdGenerator generator = new SnowFlakeIdGenerator(0, 0, new Clock() {
+            @Override
+            public long getTime() {
+
+                return time[0];
+            }
+        }) {
+            @Override
+            protected long waitUntilNextMillis(long lastTimestamp) {
+                time[0]++;
+                return super.waitUntilNextMillis(lastTimestamp);
+            }
+        };
+        long[] ids = generator.nextIds(4000);
+        assertEquals(4000, ids.length);
+        assertEquals(0, ids[0] & 4095);
+        assertEquals(3999, ids[3999] & 4095);
+        assertEquals(4000, generator.nextId() & 4095);
+        // The rest of the millisecond is used, then the next one.
+        time[0]++;
+        ids = generator.nextIds(5000);
+        assertEquals(0, ids[0] & 4095);
+        assertEquals(4095, ids[4095] & 4095);
+        assertEquals(0, ids[4096] & 4095);
+        assertEquals(ids[0] + (1L << 22), ids[4096]);
+        assertUnique(ids);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClockMovedBackwards() {
+        final long[] time = new long[] { 1553508610300L };
+        SnowFlakeIdGenerator generator = new SnowFlakeIdGenerator(0, 0, new Clock() {
+            @Override
+            public long getTime() {
+
+                return time[0];
+            }
+        });
+        generator.nextId();
+        time[0] -= 10;
+        generator.nextId();
+    }
+
+    @Test
+    public void testBorrowing() {
+        final long[] time = new long[] { 1553508610300L };
+        SnowFlakeIdGenerator generator = new SnowFlakeIdGenerator(0, 0, new Clock() {
+            @Override
+            public long getTime() {
+
+                return time[0];
+            }
+        }, true);
+        long last = generator.nextId();
+        // The burst above 4096 ids in one millisecond borrows the next ones without blocking.
+        long[] ids = generator.nextIds(10000);
+        assertTrue(ids[0] > last);
+        assertUnique(ids);
+        assertEquals(2, generator.getAheadMillis());
+        // The clock moved backwards, the ids are still increasing.
+        last = ids[ids.length - 1];
+        time[0] -= 1000;
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+        assertEquals(1003, generator.getAheadMillis());
+        // The wall time catches up.
+        time[0] += 2000;
+        assertTrue(generator.nextId() > last);
+        assertEquals(0, generator.getAheadMillis());
+    }
+
+}
@@ -0,0 +1,29 @@
+package artoria.identifier;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+public class TimeOrderedIdGeneratorBenchmark {
+    private static Logger log = LoggerFactory.getLogger(TimeOrderedIdGeneratorBenchmark.class);
+
+    @Test
+    public void testPerformance() {
+        StringIdentifierGenerator[] generators = new StringIdentifierGenerator[] { new SimpleIdGenerator()
+                , new TimeOrderedIdGenerator(), new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.BASE62) };
+        int count = 500000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            for (StringIdentifierGenerator generator : generators) {
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    sink += generator.nextStringIdentifier().length();
+                }
+                long cost = System.nanoTime() - start;
+                log.info("{}: {} ns/op", generator.getClass().getSimpleName(), cost / count);
+            }
+        }
+        log.info("Sink: {}", sink);
+    }
+
+}
@@ -0,0 +1,79 @@
+package artoria.identifier;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import artoria.time.Clock;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeOrderedIdGeneratorTest {
+    private static Logger log = LoggerFactory.getLogger(TimeOrderedIdGeneratorTest.class);
+
+    @Test
+    public void testFormats() {
+        final long[] time = new long[] { 1553508610300L };
+        Clock clock = new Clock() {
+            @Override
+            public long getTime() {
+
+                return time[0];
+            }
+        };
+        for (TimeOrderedIdGenerator.Format format : TimeOrderedIdGenerator.Format.values()) {
+            TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(format, clock);
+            Set<String> ids = new HashSet<String>();
+            String last = "";
+            for (int i = 0; i < 10000; i++) {
+                time[0] += 1;
+                String id = generator.nextStringIdentifier();
+                assertTrue(ids.add(id));
+                assertTrue(format + " " + last + " " + id, id.compareTo(last) > 0);
+                last = id;
+            }
+            log.info("{}: {}", format, last);
+        }
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.UUID, clock);
+        UUID uuid = UUID.fromString(generator.nextStringIdentifier());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(time[0], uuid.getMostSignificantBits() >>> 16);
+    }
+
+    private static String encode(BigInteger value, String digits, int length) {
+        BigInteger radix = BigInteger.valueOf(digits.length());
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            BigInteger[] divideAndRemainder = value.divideAndRemainder(radix);
+            chars[i] = digits.charAt(divideAndRemainder[1].intValue());
+            value = divideAndRemainder[0];
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testEncoding() {
+        Random random = new Random(2019);
+        for (int i = 0; i < 10000; i++) {
+            long msb = random.nextLong(), lsb = random.nextLong();
+            BigInteger value = new BigInteger(1, ByteBuffer.allocate(16).putLong(msb).putLong(lsb).array());
+            String uuid = new UUID(msb, lsb).toString();
+            assertEquals(uuid, TimeOrderedIdGenerator.format(msb, lsb, TimeOrderedIdGenerator.Format.UUID));
+            assertEquals(uuid.replace("-", "")
+                    , TimeOrderedIdGenerator.format(msb, lsb, TimeOrderedIdGenerator.Format.HEX));
+            assertEquals(encode(value, "0123456789ABCDEFGHJKMNPQRSTVWXYZ", 26)
+                    , TimeOrderedIdGenerator.format(msb, lsb, TimeOrderedIdGenerator.Format.CROCKFORD));
+            assertEquals(encode(value, "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz", 22)
+                    , TimeOrderedIdGenerator.format(msb, lsb, TimeOrderedIdGenerator.Format.BASE62));
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package artoria.jdbc;
+
+import artoria.beans.BeanUtils;
+import artoria.jdbc.BeanRowMapperTest.Item;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static artoria.jdbc.BeanRowMapperTest.SELECT_SQL;
+import static org.junit.Assert.assertEquals;
+
+public class BeanRowMapperBenchmark {
+    private static Logger log = LoggerFactory.getLogger(BeanRowMapperBenchmark.class);
+    private static DatabaseClient dbClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+
+        dbClient = BeanRowMapperTest.createClient("jdbc:hsqldb:mem:bean_row_mapper_benchmark");
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            List<Map<String, Object>> rows = dbClient.executeQuery(SELECT_SQL);
+            List<Item> expected = BeanUtils.mapToBeanInList(rows, Item.class);
+            long mapCost = System.nanoTime() - start;
+            start = System.nanoTime();
+            List<Item> items = dbClient.executeQuery(Item.class, SELECT_SQL);
+            long mapperCost = System.nanoTime() - start;
+            assertEquals(expected.size(), items.size());
+            log.info("Query {} rows to beans: through maps {} ns/row, compiled mapper {} ns/row"
+                    , items.size(), mapCost / items.size(), mapperCost / items.size());
+        }
+    }
+
+}
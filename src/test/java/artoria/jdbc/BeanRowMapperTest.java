@@ -0,0 +1,154 @@
+package artoria.jdbc;
+
+import artoria.beans.BeanUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BeanRowMapperTest {
+    static final String SELECT_SQL = "select * from t_mapper_item order by id";
+    private static DatabaseClient dbClient;
+
+    public static class Item {
+        private long id;
+        private String name;
+        private int quantity;
+        private Integer stock;
+        private double weight;
+        private Boolean enabled;
+        private BigDecimal price;
+        private Date createTime;
+        private Timestamp updateTime;
+        private byte[] data;
+        private String code;
+        private Long score;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getQuantity() { return quantity; }
+        public void setQuantity(int quantity) { this.quantity = quantity; }
+        public Integer getStock() { return stock; }
+        public void setStock(Integer stock) { this.stock = stock; }
+        public double getWeight() { return weight; }
+        public void setWeight(double weight) { this.weight = weight; }
+        public Boolean getEnabled() { return enabled; }
+        public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+        public BigDecimal getPrice() { return price; }
+        public void setPrice(BigDecimal price) { this.price = price; }
+        public Date getCreateTime() { return createTime; }
+        public void setCreateTime(Date createTime) { this.createTime = createTime; }
+        public Timestamp getUpdateTime() { return updateTime; }
+        public void setUpdateTime(Timestamp updateTime) { this.updateTime = updateTime; }
+        public byte[] getData() { return data; }
+        public void setData(byte[] data) { this.data = data; }
+        public String getCode() { return code; }
+        public void setCode(String code) { this.code = code; }
+        public Long getScore() { return score; }
+        public void setScore(Long score) { this.score = score; }
+    }
+
+    static DatabaseClient createClient(String jdbcUrl) throws SQLException {
+        DatabaseClient client = new DatabaseClient(new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", jdbcUrl, "SA", "", 4, 1));
+        client.executeUpdate("create table t_mapper_item (id bigint primary key, name varchar(64)," +
+                " quantity integer, stock integer, weight double, enabled boolean, price decimal(10, 2)," +
+                " create_time timestamp, update_time timestamp, data varbinary(16), code integer," +
+                " score integer, unknown_column varchar(16))");
+        List<Object[]> params = new java.util.ArrayList<Object[]>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            boolean empty = i % 10 == 0;
+            params.add(new Object[] { (long) i, "item" + i, empty ? null : i, empty ? null : i * 2
+                    , empty ? null : i * 0.5, empty ? null : i % 2 == 0, empty ? null : new BigDecimal(i + ".25")
+                    , empty ? null : new Timestamp(now + i), new Timestamp(now - i)
+                    , empty ? null : new byte[] { (byte) i, 1 }, i, empty ? null : i * 3, "x" });
+        }
+        client.executeBatch("insert into t_mapper_item values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", params, 1000);
+        return client;
+    }
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+
+        dbClient = createClient("jdbc:hsqldb:mem:bean_row_mapper");
+    }
+
+    @Test
+    public void testSameAsBeanUtils() throws Exception {
+        List<Item> items = dbClient.executeQuery(Item.class, SELECT_SQL);
+        List<Map<String, Object>> rows = dbClient.executeQuery(SELECT_SQL);
+        assertEquals(rows.size(), items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item expected = BeanUtils.mapToBean(rows.get(i), Item.class);
+            Item actual = items.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getQuantity(), actual.getQuantity());
+            assertEquals(expected.getStock(), actual.getStock());
+            assertEquals(expected.getWeight(), actual.getWeight(), 0D);
+            assertEquals(expected.getEnabled(), actual.getEnabled());
+            assertEquals(expected.getPrice(), actual.getPrice());
+            assertEquals(expected.getCreateTime(), actual.getCreateTime());
+            assertEquals(expected.getUpdateTime(), actual.getUpdateTime());
+            assertArrayEquals(expected.getData(), actual.getData());
+            assertEquals(expected.getCode(), actual.getCode());
+            assertEquals(expected.getScore(), actual.getScore());
+        }
+        Item empty = items.get(0);
+        assertEquals(0, empty.getQuantity());
+        assertNull(empty.getStock());
+        assertNull(empty.getEnabled());
+        assertEquals("0", empty.getCode());
+        Item item = items.get(3);
+        assertEquals("item3", item.getName());
+        assertEquals(6, (int) item.getStock());
+        assertEquals(Boolean.FALSE, item.getEnabled());
+        assertEquals(new BigDecimal("3.25"), item.getPrice());
+        assertEquals(9L, (long) item.getScore());
+        assertEquals("3", item.getCode());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        dbClient.execute(new DatabaseCallback<Object>() {
+            @Override
+            public Object call(Connection connection) throws SQLException {
+                String sql = "select id, name from t_mapper_item";
+                PreparedStatement statement = connection.prepareStatement(sql);
+                try {
+                    ResultSet resultSet = statement.executeQuery();
+                    BeanRowMapper<Item> mapper = BeanRowMapper.forQuery(Item.class, sql, resultSet.getMetaData());
+                    assertSame(mapper, BeanRowMapper.forQuery(Item.class, sql, resultSet.getMetaData()));
+                    // The same sql with another column layout (e.g. the table is altered) is compiled again.
+                    ResultSet other = connection.createStatement().executeQuery("select id, code from t_mapper_item");
+                    BeanRowMapper<Item> otherMapper = BeanRowMapper.forQuery(Item.class, sql, other.getMetaData());
+                    assertNotSame(mapper, otherMapper);
+                    other.next();
+                    assertEquals("0", otherMapper.map(other).getCode());
+                    return null;
+                }
+                finally {
+                    statement.close();
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,48 @@
+package artoria.jdbc;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public class DatabaseBatchBenchmark {
+    private static Logger log = LoggerFactory.getLogger(DatabaseBatchBenchmark.class);
+    private static DatabaseClient dbClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        dbClient = new DatabaseClient(new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:database_batch_benchmark", "SA", "", 4, 1));
+        dbClient.executeUpdate("create table t_batch_user (" +
+                "uid varchar(32) not null primary key, username varchar(64), real_name varchar(64))");
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        final int count = 5000;
+        for (int round = 0; round < 3; round++) {
+            final List<Object[]> params = DatabaseBatchTest.users("p" + round + "_", count);
+            final String sql = "insert into t_batch_user values (?, ?, ?)";
+            long start = System.nanoTime();
+            dbClient.transaction(new DatabaseAtom() {
+                @Override
+                public boolean run() throws SQLException {
+                    for (Object[] values : params) {
+                        dbClient.executeUpdate(sql, values);
+                    }
+                    return false;
+                }
+            });
+            long singleCost = System.nanoTime() - start;
+            start = System.nanoTime();
+            dbClient.executeBatch(sql, params, 1000);
+            long batchCost = System.nanoTime() - start;
+            log.info("Insert {} rows: one by one {} ns/row, batch {} ns/row"
+                    , count, singleCost / count, batchCost / count);
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package artoria.jdbc;
+
+import artoria.entity.User;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DatabaseBatchTest {
+    private static Logger log = LoggerFactory.getLogger(DatabaseBatchTest.class);
+    private static SimpleDataSource dataSource;
+    private static DatabaseClient dbClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        dataSource = new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:database_batch", "SA", "", 4, 1);
+        dbClient = new DatabaseClient(dataSource);
+        dbClient.executeUpdate("create table t_batch_user (" +
+                "uid varchar(32) not null primary key, username varchar(64), real_name varchar(64))");
+        dbClient.executeUpdate("create table t_batch_log (" +
+                "id bigint generated by default as identity primary key, message varchar(64))");
+    }
+
+    static List<Object[]> users(String prefix, int count) {
+        List<Object[]> params = new ArrayList<Object[]>(count);
+        for (int i = 0; i < count; i++) {
+            params.add(new Object[] { prefix + i, "user" + i, "User " + i });
+        }
+        return params;
+    }
+
+    private static long count(String prefix) throws SQLException {
+        List<User> users = dbClient.executeQuery(User.class
+                , "select * from t_batch_user where uid like ?", prefix + "%");
+        return users.size();
+    }
+
+    @Test
+    public void testExecuteBatch() throws Exception {
+        int[] counts = dbClient.executeBatch(
+                "insert into t_batch_user values (?, ?, ?)", users("a", 2500), 1000);
+        assertEquals(2500, counts.length);
+        for (int count : counts) {
+            assertTrue(count == 1 || count == java.sql.Statement.SUCCESS_NO_INFO);
+        }
+        assertEquals(2500, count("a"));
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        // The duplicate key is in the third batch, and the first two batches are rolled back too.
+        List<Object[]> params = users("b", 250);
+        params.add(params.get(0));
+        try {
+            dbClient.executeBatch("insert into t_batch_user values (?, ?, ?)", params, 100);
+            fail();
+        }
+        catch (SQLException e) {
+            log.info("Expected: {}", e.getMessage());
+        }
+        assertEquals(0, count("b"));
+        // In the transaction of the current thread.
+        boolean result = dbClient.transaction(new DatabaseAtom() {
+            @Override
+            public boolean run() throws SQLException {
+                dbClient.executeBatch("insert into t_batch_user values (?, ?, ?)", users("c", 10), 3);
+                assertEquals(10, count("c"));
+                return false;
+            }
+        });
+        assertEquals(false, result);
+        assertEquals(0, count("c"));
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testGeneratedKeys() throws Exception {
+        List<Object[]> params = new ArrayList<Object[]>();
+        for (int i = 0; i < 25; i++) {
+            params.add(new Object[] { "message " + i });
+        }
+        List<Object> keys = dbClient.executeBatchForKeys("insert into t_batch_log (message) values (?)", params, 10);
+        assertEquals(25, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(((Number) keys.get(i)).longValue() > ((Number) keys.get(i - 1)).longValue());
+        }
+    }
+
+    @Test
+    public void testBeans() throws Exception {
+        List<User> users = new ArrayList<User>();
+        for (int i = 0; i < 30; i++) {
+            User user = new User();
+            user.setUid("d" + i);
+            user.setUsername("user" + i);
+            user.setRealName("User " + i);
+            users.add(user);
+        }
+        String[] properties = new String[] { "uid", "username", "realName" };
+        int[] counts = dbClient.executeBatch("insert into t_batch_user values (?, ?, ?)", users, properties, 7);
+        assertEquals(30, counts.length);
+        List<User> result = dbClient.executeQuery(User.class
+                , "select * from t_batch_user where uid = ?", "d29");
+        assertEquals("User 29", result.get(0).getRealName());
+        try {
+            dbClient.executeBatch("insert into t_batch_user (uid) values (?)", users, new String[] { "missing" }, 7);
+            fail();
+        }
+        catch (IllegalArgumentException e) {
+            log.info("Expected: {}", e.getMessage());
+        }
+    }
+
+}
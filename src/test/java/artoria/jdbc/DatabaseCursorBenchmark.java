@@ -0,0 +1,63 @@
+package artoria.jdbc;
+
+import artoria.entity.User;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DatabaseCursorBenchmark {
+    private static final int ROW_COUNT = 10000;
+    private static Logger log = LoggerFactory.getLogger(DatabaseCursorBenchmark.class);
+    private static SimpleDataSource dataSource;
+    private static DatabaseClient dbClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        dataSource = new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:database_cursor_benchmark", "SA", "", 4, 1);
+        dbClient = new DatabaseClient(dataSource);
+        dbClient.setFetchSize(100);
+        dbClient.executeUpdate("create table t_stream_user (" +
+                "uid varchar(32) not null primary key, username varchar(64), real_name varchar(64))");
+        dbClient.transaction(new DatabaseAtom() {
+            @Override
+            public boolean run() throws SQLException {
+                for (int i = 0; i < ROW_COUNT; i++) {
+                    dbClient.executeUpdate("insert into t_stream_user values (?, ?, ?)"
+                            , String.format("%08d", i), "user" + i, "User " + i);
+                }
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        String sql = "select * from t_stream_user";
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            List<User> users = dbClient.executeQuery(User.class, sql);
+            long listCost = System.nanoTime() - start;
+            final int[] count = new int[1];
+            start = System.nanoTime();
+            dbClient.executeQuery(User.class, new RowHandler<User>() {
+                @Override
+                public boolean handle(User row) {
+                    count[0]++;
+                    return true;
+                }
+            }, sql);
+            long streamCost = System.nanoTime() - start;
+            assertEquals(users.size(), count[0]);
+            log.info("Query {} rows: list {} ns/row, stream {} ns/row"
+                    , count[0], listCost / count[0], streamCost / count[0]);
+        }
+    }
+
+}
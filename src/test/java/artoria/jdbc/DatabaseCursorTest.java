@@ -0,0 +1,118 @@
+package artoria.jdbc;
+
+import artoria.entity.User;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatabaseCursorTest {
+    private static final int ROW_COUNT = 10000;
+    private static SimpleDataSource dataSource;
+    private static DatabaseClient dbClient;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        dataSource = new SimpleDataSource(
+                "org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:database_cursor", "SA", "", 4, 1);
+        dbClient = new DatabaseClient(dataSource);
+        dbClient.setFetchSize(100);
+        dbClient.executeUpdate("create table t_stream_user (" +
+                "uid varchar(32) not null primary key, username varchar(64), real_name varchar(64))");
+        dbClient.transaction(new DatabaseAtom() {
+            @Override
+            public boolean run() throws SQLException {
+                for (int i = 0; i < ROW_COUNT; i++) {
+                    dbClient.executeUpdate("insert into t_stream_user values (?, ?, ?)"
+                            , String.format("%08d", i), "user" + i, "User " + i);
+                }
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void testRowHandler() throws Exception {
+        final long[] sum = new long[1];
+        long count = dbClient.executeQuery(new RowHandler<Map<String, Object>>() {
+            @Override
+            public boolean handle(Map<String, Object> row) {
+                sum[0] += Long.parseLong((String) row.get("uid"));
+                return true;
+            }
+        }, "select * from t_stream_user order by uid");
+        assertEquals(ROW_COUNT, count);
+        assertEquals((long) ROW_COUNT * (ROW_COUNT - 1) / 2, sum[0]);
+        assertEquals(0, dataSource.getActiveCount());
+        // Stopped early by the handler.
+        count = dbClient.executeQuery(User.class, new RowHandler<User>() {
+            @Override
+            public boolean handle(User row) {
+                assertNotNull(row.getRealName());
+                return !"user9".equals(row.getUsername());
+            }
+        }, "select * from t_stream_user where uid < ? order by uid", "00000100");
+        assertEquals(10, count);
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testCursor() throws Exception {
+        DatabaseCursor<User> cursor = dbClient.openCursor(User.class, "select * from t_stream_user order by uid");
+        try {
+            for (int i = 0; i < 5 && cursor.hasNext(); i++) {
+                assertEquals("User " + i, cursor.next().getRealName());
+            }
+            assertEquals(1, dataSource.getActiveCount());
+        }
+        finally {
+            cursor.close();
+        }
+        assertEquals(5, cursor.getRowCount());
+        assertFalse(cursor.hasNext());
+        assertEquals(0, dataSource.getActiveCount());
+        // It is closed automatically after the last row.
+        DatabaseCursor<Map<String, Object>> mapCursor = dbClient.openCursor("select * from t_stream_user");
+        while (mapCursor.hasNext()) {
+            mapCursor.next();
+        }
+        assertTrue(mapCursor.isClosed());
+        assertEquals(ROW_COUNT, mapCursor.getRowCount());
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testCursorInTransaction() throws Exception {
+        dbClient.transaction(new DatabaseAtom() {
+            @Override
+            public boolean run() throws SQLException {
+                dbClient.executeUpdate("update t_stream_user set real_name = ? where uid = ?", "Changed", "00000000");
+                DatabaseCursor<User> cursor = dbClient.openCursor(User.class
+                        , "select * from t_stream_user where uid = ?", "00000000");
+                try {
+                    // The uncommitted change is visible, so the cursor uses the connection of the transaction.
+                    assertEquals("Changed", cursor.next().getRealName());
+                }
+                finally {
+                    cursor.close();
+                }
+                assertEquals(1, dataSource.getActiveCount());
+                List<User> users = dbClient.executeQuery(User.class
+                        , "select * from t_stream_user where uid = ?", "00000000");
+                assertEquals("Changed", users.get(0).getRealName());
+                return false;
+            }
+        });
+        List<User> users = dbClient.executeQuery(User.class, "select * from t_stream_user where uid = ?", "00000000");
+        assertEquals("User 0", users.get(0).getRealName());
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+}
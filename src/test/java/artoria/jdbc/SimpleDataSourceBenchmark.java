@@ -0,0 +1,77 @@
+package artoria.jdbc;
+
+import artoria.aop.Enhancer;
+import artoria.aop.Interceptor;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+public class SimpleDataSourceBenchmark {
+    private static final String DRIVER_CLASS = "org.hsqldb.jdbc.JDBCDriver";
+    private static final String JDBC_URL = "jdbc:hsqldb:mem:data_source_benchmark";
+    private static Logger log = LoggerFactory.getLogger(SimpleDataSourceBenchmark.class);
+
+    @Test
+    public void testDelegatePerformance() throws Exception {
+        SimpleDataSource dataSource = new SimpleDataSource(DRIVER_CLASS, JDBC_URL, "SA", "", 1, 1);
+        Connection pooled = dataSource.getConnection();
+        final Connection physical = pooled.unwrap(Connection.class);
+        Connection proxy = (Connection) Enhancer.enhance(Connection.class, new Interceptor() {
+            @Override
+            public Object intercept(Object proxyObject, Method method, Object[] args) throws Throwable {
+
+                return method.invoke(physical, args);
+            }
+        });
+        Connection[] connections = new Connection[] { physical, pooled, proxy };
+        String[] names = new String[] { "physical", "pooled", "proxy" };
+        int count = 1000000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < connections.length; i++) {
+                Connection connection = connections[i];
+                long start = System.nanoTime();
+                for (int j = 0; j < count; j++) {
+                    sink += connection.getHoldability() + connection.getTransactionIsolation();
+                }
+                log.info("Two calls on the {} connection: {} ns/op", names[i], (System.nanoTime() - start) / count);
+            }
+        }
+        log.info("Sink: {}", sink);
+        pooled.close();
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        final SimpleDataSource dataSource = new SimpleDataSource(DRIVER_CLASS, JDBC_URL, "SA", "", 8, 8);
+        SimpleDataSourceTest.DataSourceLike pooled = new SimpleDataSourceTest.DataSourceLike() {
+            @Override
+            public Connection getConnection() throws SQLException {
+
+                return dataSource.getConnection();
+            }
+        };
+        SimpleDataSourceTest.DataSourceLike unpooled = new SimpleDataSourceTest.DataSourceLike() {
+            @Override
+            public Connection getConnection() throws SQLException {
+
+                return DriverManager.getConnection(JDBC_URL, "SA", "");
+            }
+        };
+        int threads = 16, count = 2000;
+        for (int round = 0; round < 3; round++) {
+            long pooledCost = SimpleDataSourceTest.run(pooled, threads, count);
+            long unpooledCost = SimpleDataSourceTest.run(unpooled, threads, count);
+            log.info("Borrow, select and close ({} threads): pooled {} ns/op, unpooled {} ns/op"
+                    , threads, pooledCost / (threads * count), unpooledCost / (threads * count));
+        }
+        dataSource.destroy();
+    }
+
+}
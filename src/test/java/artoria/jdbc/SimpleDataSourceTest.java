@@ -0,0 +1,273 @@
+package artoria.jdbc;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SimpleDataSourceTest {
+    private static final String DRIVER_CLASS = "org.hsqldb.jdbc.JDBCDriver";
+    private static final String JDBC_URL = "jdbc:hsqldb:mem:data_source";
+    private static Logger log = LoggerFactory.getLogger(SimpleDataSourceTest.class);
+
+    private static class CountingDataSource extends SimpleDataSource {
+        // It is static, because the connections are created in the constructor of the super class.
+        private static final AtomicInteger created = new AtomicInteger();
+
+        CountingDataSource(int maxPoolSize, int minPoolSize) {
+
+            super(DRIVER_CLASS, JDBC_URL, "SA", "", maxPoolSize, minPoolSize);
+        }
+
+        @Override
+        protected Connection createPhysicalConnection() throws SQLException {
+            created.incrementAndGet();
+            return super.createPhysicalConnection();
+        }
+
+    }
+
+    private static int selectOne(Connection connection) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery("select 1 from (values(0))");
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+        finally {
+            statement.close();
+        }
+    }
+
+    static long run(final DataSourceLike dataSource, int threads, final int count) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int sum = 0;
+                        for (int i = 0; i < count; i++) {
+                            Connection connection = dataSource.getConnection();
+                            try {
+                                sum += selectOne(connection);
+                            }
+                            finally {
+                                connection.close();
+                            }
+                        }
+                        return sum;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(count, (int) future.get());
+            }
+            return System.nanoTime() - start;
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    interface DataSourceLike {
+
+        Connection getConnection() throws SQLException;
+
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        final CountingDataSource dataSource = new CountingDataSource(4, 1);
+        final int created = CountingDataSource.created.get();
+        final AtomicInteger maxActive = new AtomicInteger();
+        run(new DataSourceLike() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = dataSource.getConnection();
+                int active = dataSource.getActiveCount();
+                if (active > maxActive.get()) { maxActive.set(active); }
+                return connection;
+            }
+        }, 16, 2000);
+        assertTrue(maxActive.get() <= 4);
+        assertTrue(CountingDataSource.created.get() - created <= 3);
+        assertEquals(0, dataSource.getActiveCount());
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        SimpleDataSource dataSource = new SimpleDataSource(DRIVER_CLASS, JDBC_URL, "SA", "", 2, 0);
+        dataSource.setConnectionTimeout(100L);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        long start = System.currentTimeMillis();
+        try {
+            dataSource.getConnection();
+            fail();
+        }
+        catch (SQLException e) {
+            assertTrue(System.currentTimeMillis() - start >= 90L);
+        }
+        // Closed twice, but returned once.
+        first.close();
+        first.close();
+        assertTrue(first.isClosed());
+        Connection third = dataSource.getConnection();
+        try {
+            dataSource.getConnection();
+            fail();
+        }
+        catch (SQLException e) {
+            log.info("Expected: {}", e.getMessage());
+        }
+        second.close();
+        third.close();
+        assertEquals(2, dataSource.getIdleCount());
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testValidationAndEviction() throws Exception {
+        CountingDataSource dataSource = new CountingDataSource(4, 1);
+        int created = CountingDataSource.created.get();
+        dataSource.setValidationInterval(0L);
+        // The broken idle connection is dropped on borrow.
+        Connection connection = dataSource.getConnection();
+        Connection physical = connection.unwrap(Connection.class);
+        connection.close();
+        physical.close();
+        connection = dataSource.getConnection();
+        assertEquals(1, selectOne(connection));
+        assertEquals(created + 1, CountingDataSource.created.get());
+        // The connection closed by the user is not returned.
+        connection.unwrap(Connection.class).close();
+        connection.close();
+        assertEquals(0, dataSource.getIdleCount());
+        // The idle connections above the minimum are evicted.
+        Connection[] connections = new Connection[4];
+        for (int i = 0; i < connections.length; i++) {
+            connections[i] = dataSource.getConnection();
+        }
+        for (Connection c : connections) {
+            c.close();
+        }
+        assertEquals(4, dataSource.getIdleCount());
+        dataSource.setIdleTimeout(1L);
+        Thread.sleep(10L);
+        dataSource.housekeep();
+        assertEquals(1, dataSource.getIdleCount());
+        // The connections older than the max lifetime are not reused.
+        dataSource.setMaxLifetime(1L);
+        created = CountingDataSource.created.get();
+        connection = dataSource.getConnection();
+        assertEquals(created + 1, CountingDataSource.created.get());
+        Thread.sleep(10L);
+        connection.close();
+        assertEquals(0, dataSource.getIdleCount());
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        SimpleDataSource dataSource = new SimpleDataSource(DRIVER_CLASS, JDBC_URL, "SA", "", 2, 0);
+        dataSource.setLeakDetectionThreshold(1L);
+        Connection connection = dataSource.getConnection();
+        Thread.sleep(10L);
+        dataSource.housekeep();
+        assertFalse(connection.isClosed());
+        connection.close();
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testRecycle() throws Exception {
+        SimpleDataSource dataSource = new SimpleDataSource(DRIVER_CLASS, JDBC_URL, "SA", "", 1, 1);
+        Connection connection = dataSource.getConnection();
+        Connection physical = connection.unwrap(Connection.class);
+        boolean autoCommit = physical.getAutoCommit();
+        int isolation = physical.getTransactionIsolation();
+        int holdability = physical.getHoldability();
+        String schema = physical.getSchema();
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setReadOnly(true);
+        connection.setHoldability(holdability == ResultSet.HOLD_CURSORS_OVER_COMMIT
+                ? ResultSet.CLOSE_CURSORS_AT_COMMIT : ResultSet.HOLD_CURSORS_OVER_COMMIT);
+        connection.setSchema("INFORMATION_SCHEMA");
+        Statement statement = connection.createStatement();
+        PreparedStatement preparedStatement = connection.prepareStatement("select 1 from (values(0))");
+        Statement closedStatement = connection.createStatement();
+        closedStatement.close();
+        assertSame(connection, statement.getConnection());
+        assertSame(connection, preparedStatement.getConnection());
+        connection.close();
+        // The statements are closed and the state is reset when it is returned.
+        assertTrue(statement.isClosed());
+        assertTrue(preparedStatement.isClosed());
+        assertEquals(autoCommit, physical.getAutoCommit());
+        assertEquals(isolation, physical.getTransactionIsolation());
+        assertFalse(physical.isReadOnly());
+        assertEquals(holdability, physical.getHoldability());
+        assertEquals(schema, physical.getSchema());
+        try {
+            connection.createStatement();
+            fail();
+        }
+        catch (SQLException e) {
+            log.info("Expected: {}", e.getMessage());
+        }
+        // The same physical connection is used again.
+        Connection next = dataSource.getConnection();
+        assertSame(physical, next.unwrap(Connection.class));
+        assertEquals(1, selectOne(next));
+        next.close();
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        SimpleDataSource dataSource = new SimpleDataSource(DRIVER_CLASS, JDBC_URL, "SA", "", 1, 1);
+        Connection connection = dataSource.getConnection();
+        Connection physical = connection.unwrap(Connection.class);
+        connection.abort(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+
+                command.run();
+            }
+        });
+        // The aborted connection is closed and its physical connection is not used again.
+        assertTrue(connection.isClosed());
+        assertEquals(0, dataSource.getActiveCount());
+        Connection next = dataSource.getConnection();
+        assertNotSame(physical, next.unwrap(Connection.class));
+        assertEquals(1, selectOne(next));
+        next.close();
+        dataSource.destroy();
+    }
+
+}
@@ -0,0 +1,37 @@
+package artoria.reflect;
+
+import artoria.entity.Student;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+public class AccessorBenchmark {
+    private static Logger log = LoggerFactory.getLogger(AccessorBenchmark.class);
+
+    @Test
+    public void testPerformance() throws Exception {
+        Student student = new Student();
+        student.setName("student");
+        Method method = Student.class.getMethod("getName");
+        Getter<Student, String> getter = ReflectUtils.findGetter(method);
+        int count = 2000000, sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += ((String) method.invoke(student)).length();
+            }
+            long reflectCost = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += getter.get(student).length();
+            }
+            long getterCost = System.nanoTime() - start;
+            log.info("Method.invoke: {} ns/op, Getter.get: {} ns/op"
+                    , (double) reflectCost / count, (double) getterCost / count);
+        }
+        log.info("Sink: {}", sink);
+    }
+
+}
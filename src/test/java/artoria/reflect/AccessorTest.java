@@ -0,0 +1,112 @@
+package artoria.reflect;
+
+import artoria.entity.Student;
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+public class AccessorTest {
+    private static Logger log = LoggerFactory.getLogger(AccessorTest.class);
+
+    public static class Counter {
+        private long count;
+        private String name;
+
+        public Counter() {
+        }
+
+        public Counter(long count, String name) {
+            this.count = count;
+            this.name = name;
+        }
+
+        public long getCount() {
+
+            return count;
+        }
+
+        public void setCount(long count) {
+
+            this.count = count;
+        }
+
+        public String getName() {
+
+            return name;
+        }
+
+        public void setName(String name) {
+
+            this.name = name;
+        }
+
+    }
+
+    private static class Hidden {
+        private int value;
+
+        private int getValue() {
+
+            return value;
+        }
+
+        private void setValue(int value) {
+
+            this.value = value;
+        }
+
+    }
+
+    @Test
+    public void testGetterAndSetter() throws Exception {
+        Counter counter = new Counter();
+        Setter<Counter, Long> countSetter = ReflectUtils.findSetter(Counter.class.getMethod("setCount", long.class));
+        Getter<Counter, Long> countGetter = ReflectUtils.findGetter(Counter.class.getMethod("getCount"));
+        Setter<Counter, String> nameSetter = ReflectUtils.findSetter(Counter.class.getMethod("setName", String.class));
+        Getter<Counter, String> nameGetter = ReflectUtils.findGetter(Counter.class.getMethod("getName"));
+        countSetter.set(counter, 99L);
+        nameSetter.set(counter, "counter");
+        assertEquals(99L, counter.getCount());
+        assertEquals(Long.valueOf(99L), countGetter.get(counter));
+        assertEquals("counter", nameGetter.get(counter));
+        assertSame(countGetter, ReflectUtils.findGetter(Counter.class.getMethod("getCount")));
+        // The generated accessors of the same class loader share one generated class loader.
+        assertSame(countGetter.getClass().getClassLoader(), nameGetter.getClass().getClassLoader());
+        try {
+            countSetter.set(counter, null);
+            fail();
+        }
+        catch (NullPointerException e) {
+            log.info("Set null to primitive: {}", e.toString());
+        }
+    }
+
+    @Test
+    public void testReflectionFallback() throws Exception {
+        Hidden hidden = new Hidden();
+        Method setValue = Hidden.class.getDeclaredMethod("setValue", int.class);
+        Method getValue = Hidden.class.getDeclaredMethod("getValue");
+        Setter<Hidden, Integer> setter = ReflectUtils.findSetter(setValue);
+        Getter<Hidden, Integer> getter = ReflectUtils.findGetter(getValue);
+        setter.set(hidden, 7);
+        assertEquals(7, hidden.value);
+        assertEquals(Integer.valueOf(7), getter.get(hidden));
+    }
+
+    @Test
+    public void testInstantiator() throws Exception {
+        Instantiator<Counter> instantiator =
+                ReflectUtils.findInstantiator(Counter.class.getConstructor(long.class, String.class));
+        Counter counter = instantiator.newInstance(3L, "three");
+        assertEquals(3L, counter.getCount());
+        assertEquals("three", counter.getName());
+        Instantiator<Student> defaultInstantiator =
+                ReflectUtils.findInstantiator(Student.class.getConstructor());
+        assertNotNull(defaultInstantiator.newInstance());
+    }
+
+}
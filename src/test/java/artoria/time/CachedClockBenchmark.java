@@ -0,0 +1,60 @@
+package artoria.time;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CachedClockBenchmark {
+    private static Logger log = LoggerFactory.getLogger(CachedClockBenchmark.class);
+
+    @Test
+    public void testPerformance() throws Exception {
+        CachedClock cachedClock = new CachedClock();
+        MonotonicClock monotonicClock = new MonotonicClock();
+        cachedClock.initialize();
+        monotonicClock.initialize();
+        Clock[] clocks = new Clock[] { new SystemClock(), cachedClock, monotonicClock };
+        final int threads = 8, count = 2000000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 3; round++) {
+                for (final Clock clock : clocks) {
+                    List<Future<Long>> futures = new ArrayList<Future<Long>>();
+                    long start = System.nanoTime();
+                    for (int t = 0; t < threads; t++) {
+                        futures.add(executor.submit(new Callable<Long>() {
+                            @Override
+                            public Long call() {
+                                long sink = 0;
+                                for (int i = 0; i < count; i++) {
+                                    sink += clock.getTime();
+                                }
+                                return sink;
+                            }
+                        }));
+                    }
+                    long sink = 0;
+                    for (Future<Long> future : futures) {
+                        sink += future.get();
+                    }
+                    long cost = System.nanoTime() - start;
+                    log.info("{} ({} threads): {} ns/op, sink: {}", clock.getClass().getSimpleName()
+                            , threads, (double) cost / count, sink);
+                }
+            }
+        }
+        finally {
+            executor.shutdown();
+            cachedClock.destroy();
+            monotonicClock.destroy();
+        }
+    }
+
+}
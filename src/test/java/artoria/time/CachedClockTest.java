@@ -0,0 +1,52 @@
+package artoria.time;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachedClockTest {
+
+    @Test
+    public void testTicking() throws Exception {
+        CachedClock clock = new CachedClock(2L);
+        long before = System.currentTimeMillis();
+        assertTrue(clock.getTime() >= before);
+        clock.initialize();
+        try {
+            long first = clock.getTime();
+            Thread.sleep(50L);
+            long second = clock.getTime();
+            assertTrue(second > first);
+            // The cached time is read from the system clock, so it is never ahead of it.
+            assertTrue(second <= System.currentTimeMillis());
+        }
+        finally {
+            clock.destroy();
+        }
+        assertTrue(clock.getTime() >= before);
+    }
+
+    @Test
+    public void testMonotonic() throws Exception {
+        MonotonicClock clock = new MonotonicClock();
+        long last = clock.getTime();
+        for (int i = 0; i < 1000000; i++) {
+            long time = clock.getTime();
+            assertFalse(time < last);
+            last = time;
+        }
+        clock.initialize();
+        try {
+            for (int i = 0; i < 1000000; i++) {
+                long time = clock.getTime();
+                assertFalse(time < last);
+                last = time;
+            }
+        }
+        finally {
+            clock.destroy();
+        }
+    }
+
+}
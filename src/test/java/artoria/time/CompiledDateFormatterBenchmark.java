@@ -0,0 +1,32 @@
+package artoria.time;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.util.Date;
+
+public class CompiledDateFormatterBenchmark {
+    private static Logger log = LoggerFactory.getLogger(CompiledDateFormatterBenchmark.class);
+
+    @Test
+    public void testPerformance() throws Exception {
+        DateFormatter[] formatters = new DateFormatter[] { new SimpleDateFormatter(), new CompiledDateFormatter() };
+        String pattern = "yyyy-MM-dd HH:mm:ss SSS";
+        long now = System.currentTimeMillis();
+        int count = 200000;
+        for (int round = 0; round < 3; round++) {
+            for (DateFormatter formatter : formatters) {
+                DateParser parser = (DateParser) formatter;
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    String dateString = formatter.format(new Date(now + i * 1000L), pattern);
+                    parser.parse(dateString, pattern);
+                }
+                long cost = System.nanoTime() - start;
+                log.info("{}: {} ns/op (format and parse)", formatter.getClass().getSimpleName(), cost / count);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package artoria.time;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledDateFormatterTest {
+    private static String[] patterns = new String[] {
+            "yyyy-MM-dd'T'HH:mm:ss'Z'", "yyyy-MM-dd'T'HH:mm:ssZ", "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm"
+            , "yyyy-MM-dd", "yyyy/MM/dd HH:mm:ss", "yyyy/MM/dd", "yyyy-MM-dd HH:mm:ss SSS"
+            , "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yyyyMMddHHmmss", "yy-M-d h:m:s a", "EEE, dd MMM yyyy HH:mm:ss Z"
+            , "EEEE MMMM dd yyyy k:mm", "yyyy D K:mm a", "''yyyy''"
+    };
+
+    private static void assertSame(CompiledDateFormatter formatter, TimeZone timeZone, long millis) throws Exception {
+        for (String pattern : patterns) {
+            SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+            dateFormat.setTimeZone(timeZone);
+            String expected = dateFormat.format(new Date(millis));
+            assertEquals(pattern, expected, formatter.format(millis, pattern));
+            assertEquals(pattern + " | " + expected, dateFormat.parse(expected).getTime()
+                    , formatter.parseMillis(expected, pattern));
+        }
+    }
+
+    @Test
+    public void testSameAsSimpleDateFormat() throws Exception {
+        Random random = new Random(2019);
+        String[] timeZones = new String[] { "Asia/Shanghai", "America/New_York", "UTC", "Australia/Lord_Howe" };
+        for (String id : timeZones) {
+            TimeZone timeZone = TimeZone.getTimeZone(id);
+            CompiledDateFormatter formatter = new CompiledDateFormatter(timeZone);
+            assertSame(formatter, timeZone, 0L);
+            assertSame(formatter, timeZone, System.currentTimeMillis());
+            for (int i = 0; i < 2000; i++) {
+                // From 1600 to 2200, the year 2200 is 7258118400000.
+                long millis = (long) (random.nextDouble() * 7258118400000L * 1.3) - 11676096000000L;
+                assertSame(formatter, timeZone, millis);
+            }
+        }
+    }
+
+    @Test
+    public void testFormatIntoAppendable() {
+        CompiledDateFormatter formatter = new CompiledDateFormatter(TimeZone.getTimeZone("UTC"));
+        StringBuilder builder = new StringBuilder("time: ");
+        formatter.format(1553508610300L, "yyyy-MM-dd HH:mm:ss SSS", builder);
+        assertEquals("time: 2019-03-25 10:10:10 300", builder.toString());
+        // The old dates and the unsupported letters are handled by the simple date format.
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long millis = -30610224000000L;
+        assertEquals(dateFormat.format(new Date(millis)), formatter.format(millis, "yyyy-MM-dd"));
+        assertTrue(formatter.format(0L, "G yyyy").startsWith("AD"));
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final CompiledDateFormatter formatter = new CompiledDateFormatter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int t = 0; t < 8; t++) {
+            final long seed = t;
+            futures.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    Random random = new Random(seed);
+                    SimpleDateFormat dateFormat = new SimpleDateFormat(patterns[8]);
+                    for (int i = 0; i < 20000; i++) {
+                        long millis = random.nextLong() % 4000000000000L;
+                        String expected = dateFormat.format(new Date(millis));
+                        assertEquals(expected, formatter.format(millis, patterns[8]));
+                        assertEquals(millis, formatter.parseMillis(expected, patterns[8]));
+                    }
+                    return 0;
+                }
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+}
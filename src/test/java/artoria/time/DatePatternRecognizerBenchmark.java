@@ -0,0 +1,27 @@
+package artoria.time;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+public class DatePatternRecognizerBenchmark {
+    private static Logger log = LoggerFactory.getLogger(DatePatternRecognizerBenchmark.class);
+
+    @Test
+    public void testPerformance() {
+        String[] dateStrings = new String[] { "2019-03-25 10:10:10", "2019/03/25", "not a date" };
+        int count = 100000;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                String dateString = dateStrings[i % dateStrings.length];
+                if (DateUtils.recognize(dateString) != null) {
+                    DateUtils.parse(dateString);
+                }
+            }
+            long cost = System.nanoTime() - start;
+            log.info("Recognize and parse: {} ns/op", cost / count);
+        }
+    }
+
+}
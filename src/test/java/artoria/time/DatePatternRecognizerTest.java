@@ -0,0 +1,53 @@
+package artoria.time;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class DatePatternRecognizerTest {
+    private static Logger log = LoggerFactory.getLogger(DatePatternRecognizerTest.class);
+
+    @Test
+    public void testShape() {
+        assertEquals("0-0-0 0:0:0", DatePatternRecognizer.shapeOf("2019-03-25 10:10:10"));
+        assertEquals("0-0-0 0:0:0", DatePatternRecognizer.shapeOf("2019-3-5 9:10:10"));
+        assertEquals("0-0-0a0:0:0.0-0", DatePatternRecognizer.shapeOf("2019-03-25T10:10:10.300+0800"));
+        assertEquals("0-0-0a0:0:0.0-0", DatePatternRecognizer.shapeOfPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ"));
+        assertEquals("0/0/0", DatePatternRecognizer.shapeOfPattern("yyyy/MM/dd"));
+    }
+
+    @Test
+    public void testRecognize() {
+        DatePatternRecognizer recognizer = new DatePatternRecognizer();
+        recognizer.register("yyyy-MM-dd HH:mm:ss");
+        recognizer.register("yyyy-MM-dd");
+        recognizer.register("yyyy/MM/dd");
+        assertArrayEquals(new String[] { "yyyy-MM-dd HH:mm:ss" }, recognizer.recognize("2019-03-25 10:10:10"));
+        assertArrayEquals(new String[] { "yyyy/MM/dd" }, recognizer.recognize(" 2019/03/25 "));
+        assertEquals(0, recognizer.recognize("test2019/03/25error").length);
+        assertEquals(0, recognizer.recognize("").length);
+        recognizer.unregister("yyyy/MM/dd");
+        assertEquals(0, recognizer.recognize("2019/03/25").length);
+        assertEquals(2, recognizer.getPatterns().size());
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        String[] dateStrings = new String[] { "2019-03-25 10:10:10", "2019-03-25 10:10"
+                , "2019/03/25", "2019-03-25T10:10:10.300+0800", "2019-03-25 10:10:10 300" };
+        for (String dateString : dateStrings) {
+            String pattern = DateUtils.recognize(dateString);
+            assertNotNull(pattern);
+            Date date = DateUtils.parse(dateString);
+            assertEquals(new SimpleDateFormat(pattern).parse(dateString), date);
+            log.info("{} | {} | {}", dateString, pattern, DateUtils.format(date));
+        }
+        assertNull(DateUtils.recognize("2019.03.25"));
+    }
+
+}
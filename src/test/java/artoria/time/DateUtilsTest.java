@@ -1,5 +1,6 @@
 package artoria.time;
 
+import artoria.convert.TypeConvertUtils;
 import artoria.logging.Logger;
 import artoria.logging.LoggerFactory;
 import org.junit.Test;
@@ -7,6 +8,9 @@ import org.junit.Test;
 import java.util.Calendar;
 import java.util.Date;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
 import static artoria.common.Constants.*;
 
 public class DateUtilsTest {
@@ -125,4 +129,38 @@ public class DateUtilsTest {
         log.info("Week Of End: {}", DateUtils.format(weekOfEnd));
     }
 
+    @Test
+    public void testSameShapePatterns() {
+        // The both patterns have the shape "0-0-0a", the first one can not parse the date string.
+        DateUtils.register("yyyy-MM-dd'A'");
+        DateUtils.register("yyyy-MM-dd'B'");
+        try {
+            Date expected = DateUtils.parse("2019-03-25", "yyyy-MM-dd");
+            assertEquals(expected, DateUtils.parse("2019-03-25B"));
+            assertEquals(expected, TypeConvertUtils.convert("2019-03-25B", Date.class));
+            assertNull(DateUtils.tryParse("2019-03-25C"));
+            assertEquals("2019-03-25C", TypeConvertUtils.convert("2019-03-25C", Date.class));
+        }
+        finally {
+            DateUtils.unregister("yyyy-MM-dd'A'");
+            DateUtils.unregister("yyyy-MM-dd'B'");
+        }
+    }
+
+    @Test
+    public void testBeforeGregorianCutover() {
+        // The calendar and the date format use the julian dates before the cutover (1582-10-15).
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(1500, Calendar.MARCH, 10, 8, 30);
+        Date date = calendar.getTime();
+        assertEquals(1500, DateUtils.getYear(date));
+        assertEquals(3, DateUtils.getMonth(date));
+        assertEquals(10, DateUtils.getDay(date));
+        assertEquals(8, DateUtils.getHour(date));
+        assertEquals("1500-04-10", DateUtils.format(DateUtils.addMonth(date, 1), "yyyy-MM-dd"));
+        Date now = DateUtils.parse("2019-03-10 08:30:00", "yyyy-MM-dd HH:mm:ss");
+        assertEquals("1500-03-10 08:30:00", DateUtils.format(DateUtils.setYear(now, 1500), "yyyy-MM-dd HH:mm:ss"));
+    }
+
 }
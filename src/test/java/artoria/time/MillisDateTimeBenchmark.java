@@ -0,0 +1,41 @@
+package artoria.time;
+
+import artoria.logging.Logger;
+import artoria.logging.LoggerFactory;
+import org.junit.Test;
+
+import java.util.Date;
+
+public class MillisDateTimeBenchmark {
+    private static Logger log = LoggerFactory.getLogger(MillisDateTimeBenchmark.class);
+
+    @Test
+    public void testPerformance() {
+        Date date = new Date();
+        int count = 200000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                DateTime dateTime = new SimpleDateTime(date);
+                sink += dateTime.addDay(i % 30).setHour(0).getYear() + dateTime.getMonth();
+            }
+            long calendarCost = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                DateTime dateTime = new MillisDateTime(date);
+                sink += dateTime.addDay(i % 30).setHour(0).getYear() + dateTime.getMonth();
+            }
+            long millisCost = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += DateUtils.getYear(DateUtils.addDay(date, i % 30));
+            }
+            long utilsCost = System.nanoTime() - start;
+            log.info("SimpleDateTime: {} ns/op, MillisDateTime: {} ns/op, DateUtils: {} ns/op"
+                    , calendarCost / count, millisCost / count, utilsCost / count);
+        }
+        log.info("Sink: {}", sink);
+    }
+
+}
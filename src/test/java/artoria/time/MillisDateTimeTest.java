@@ -0,0 +1,83 @@
+package artoria.time;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class MillisDateTimeTest {
+    private static int[] fields = new int[] { Calendar.YEAR, Calendar.MONTH, Calendar.DATE, Calendar.HOUR_OF_DAY
+            , Calendar.MINUTE, Calendar.SECOND, Calendar.MILLISECOND, Calendar.DAY_OF_WEEK, Calendar.DAY_OF_YEAR
+            , Calendar.DAY_OF_WEEK_IN_MONTH, Calendar.WEEK_OF_MONTH, Calendar.WEEK_OF_YEAR };
+
+    private static long randomMillis(Random random) {
+        // From 1600 to 2037, after 2037 the jdk resolves the gap of the daylight saving time by the rule
+        // (not by the transitions), and it uses the offset after the gap (but the offset before it in the past).
+        return (long) (random.nextDouble() * 13814000000000L) - 11676096000000L;
+    }
+
+    @Test
+    public void testSameAsCalendar() {
+        Random random = new Random(2019);
+        String[] timeZones = new String[] { "Asia/Shanghai", "America/New_York", "Australia/Lord_Howe" };
+        for (String id : timeZones) {
+            TimeZone timeZone = TimeZone.getTimeZone(id);
+            CivilTime.OffsetCache offsets = new CivilTime.OffsetCache(timeZone);
+            for (int i = 0; i < 20000; i++) {
+                long millis = randomMillis(random);
+                Calendar calendar = new GregorianCalendar(timeZone);
+                calendar.setTimeInMillis(millis);
+                for (int field : fields) {
+                    int expected = calendar.get(field) + (field == Calendar.MONTH ? 1 : 0);
+                    assertEquals(id + " " + millis + " " + field, expected, CivilTime.get(offsets, millis, field));
+                }
+                int amount = random.nextInt(100) - 50;
+                Calendar added = (Calendar) calendar.clone();
+                added.add(Calendar.MONTH, amount);
+                assertEquals(added.getTimeInMillis(), CivilTime.addMonths(offsets, millis, amount));
+                added = (Calendar) calendar.clone();
+                added.add(Calendar.DATE, amount);
+                assertEquals(added.getTimeInMillis(), CivilTime.addDays(offsets, millis, amount));
+                int value = random.nextInt(20) + 1;
+                Calendar changed = (Calendar) calendar.clone();
+                changed.set(Calendar.DATE, value);
+                assertEquals(changed.getTimeInMillis(), CivilTime.set(offsets, millis, Calendar.DATE, value));
+                changed = (Calendar) calendar.clone();
+                changed.set(Calendar.MONTH, value - 1);
+                assertEquals(changed.getTimeInMillis(), CivilTime.set(offsets, millis, Calendar.MONTH, value));
+                changed = (Calendar) calendar.clone();
+                changed.set(Calendar.MINUTE, value);
+                assertEquals(changed.getTimeInMillis(), CivilTime.set(offsets, millis, Calendar.MINUTE, value));
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsSimpleDateTime() {
+        Random random = new Random(2020);
+        for (int i = 0; i < 10000; i++) {
+            long millis = randomMillis(random);
+            DateTime expected = new SimpleDateTime(new Date(millis));
+            DateTime actual = new MillisDateTime(millis);
+            expected.addMonth(7).setDay(31).setHour(0).addDay(3).setMillisecond(0).addHour(-5);
+            actual.addMonth(7).setDay(31).setHour(0).addDay(3).setMillisecond(0).addHour(-5);
+            assertEquals(expected.getTimeInMillis(), actual.getTimeInMillis());
+            expected.setDayOfWeek(Calendar.MONDAY).setMonth(0);
+            actual.setDayOfWeek(Calendar.MONDAY).setMonth(0);
+            assertEquals(expected.getTimeInMillis(), actual.getTimeInMillis());
+            assertEquals(expected.getWeekOfYear(), actual.getWeekOfYear());
+            assertEquals(expected.toString(), actual.toString());
+        }
+        Date date = new Date(randomMillis(random));
+        DateTime dateTime = new SimpleDateTime(date);
+        assertEquals(dateTime.getYear(), DateUtils.getYear(date));
+        assertEquals(dateTime.getMonth(), DateUtils.getMonth(date));
+        assertEquals(dateTime.addMonth(13).getDate(), DateUtils.addMonth(date, 13));
+    }
+
+}